@@ -0,0 +1,268 @@
+package com.taosdata.jdbc;
+
+import com.taosdata.jdbc.enums.SchemalessProtocolType;
+import com.taosdata.jdbc.enums.SchemalessTimestampType;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * schemaless writer which can be shared by many threads.
+ * lines are queued and written in batches of the same protocol, precision and ttl by a background thread,
+ * a batch is written when it has batchSize lines or its first line has waited lingerMs, whichever comes first.
+ * each write returns a future completed when its line is written.
+ */
+public class BufferedSchemalessWriter implements AutoCloseable {
+
+    private final SchemalessWriter writer;
+    private final int batchSize;
+    private final long lingerNanos;
+
+    // lines waiting for the flusher, bounded by permits
+    private final Queue<PendingLine> queue = new ConcurrentLinkedQueue<>();
+    private final Semaphore permits;
+    private final int capacity;
+    private final Thread flusher;
+    private volatile boolean idle;
+    private volatile boolean closed;
+
+    /**
+     * @param writer        schemaless writer of a JNI or websocket connection, closed with this writer
+     * @param batchSize     max lines written at once
+     * @param lingerMs      max time a line waits for its batch to fill up
+     * @param queueCapacity max lines waiting to be written, write blocks when the queue is full
+     */
+    public BufferedSchemalessWriter(SchemalessWriter writer, int batchSize, long lingerMs, int queueCapacity) throws SQLException {
+        if (batchSize <= 0 || lingerMs < 0 || queueCapacity <= 0)
+            throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_INVALID_VARIABLE,
+                    "invalid batchSize: " + batchSize + ", lingerMs: " + lingerMs + " or queueCapacity: " + queueCapacity);
+        this.writer = writer;
+        this.batchSize = batchSize;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        this.capacity = queueCapacity;
+        this.permits = new Semaphore(queueCapacity);
+        this.flusher = new Thread(this::run, "taos-schemaless-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    public CompletableFuture<Void> write(String line, SchemalessProtocolType protocolType, SchemalessTimestampType timestampType) throws SQLException {
+        return write(line, protocolType, timestampType, null);
+    }
+
+    /**
+     * queue a line to be written
+     *
+     * @return completed when the line is written, or exceptionally with the error of the line
+     */
+    public CompletableFuture<Void> write(String line, SchemalessProtocolType protocolType, SchemalessTimestampType timestampType, Integer ttl) throws SQLException {
+        if (closed)
+            throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_CONNECTION_CLOSED, "schemaless writer is closed");
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_UNKNOWN, "schemaless write has been interrupted");
+        }
+        PendingLine pending = new PendingLine(line, new BatchKey(protocolType, timestampType, ttl));
+        queue.offer(pending);
+        if (idle || capacity - permits.availablePermits() >= batchSize)
+            LockSupport.unpark(flusher);
+        if (closed && !flusher.isAlive())
+            discardQueued();
+        return pending.future;
+    }
+
+    /**
+     * write all lines queued before this call and wait for them
+     */
+    public void flush() throws SQLException {
+        PendingLine marker = new PendingLine(null, null);
+        queue.offer(marker);
+        LockSupport.unpark(flusher);
+        if (closed && !flusher.isAlive())
+            discardQueued();
+        try {
+            marker.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_UNKNOWN, "schemaless flush has been interrupted");
+        } catch (ExecutionException e) {
+            throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_UNKNOWN, e.getCause().getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (closed)
+            return;
+        closed = true;
+        // the flusher writes everything queued before it exits
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        discardQueued();
+        writer.close();
+    }
+
+    /**
+     * fail lines queued by writes racing with close, after the flusher has exited
+     */
+    private void discardQueued() {
+        PendingLine pending;
+        while ((pending = queue.poll()) != null) {
+            if (pending.line == null) {
+                pending.future.complete(null);
+                continue;
+            }
+            permits.release();
+            pending.future.completeExceptionally(
+                    TSDBError.createSQLException(TSDBErrorNumbers.ERROR_CONNECTION_CLOSED, "schemaless writer is closed"));
+        }
+    }
+
+    private void run() {
+        Map<BatchKey, Batch> batches = new LinkedHashMap<>();
+        while (true) {
+            PendingLine next;
+            while ((next = queue.poll()) != null) {
+                PendingLine pending = next;
+                if (pending.line == null) {
+                    writeAll(batches);
+                    pending.future.complete(null);
+                    continue;
+                }
+                permits.release();
+                Batch batch = batches.computeIfAbsent(pending.key, k -> new Batch(k, pending.queuedNanos));
+                batch.lines.add(pending);
+                if (batch.lines.size() >= batchSize) {
+                    batches.remove(batch.key);
+                    write(batch);
+                }
+            }
+
+            long now = System.nanoTime();
+            long waitNanos = Long.MAX_VALUE;
+            Iterator<Batch> it = batches.values().iterator();
+            while (it.hasNext()) {
+                Batch batch = it.next();
+                long remaining = batch.firstNanos + lingerNanos - now;
+                if (remaining <= 0) {
+                    it.remove();
+                    write(batch);
+                } else {
+                    waitNanos = Math.min(waitNanos, remaining);
+                }
+            }
+
+            if (closed && queue.isEmpty()) {
+                writeAll(batches);
+                return;
+            }
+            idle = true;
+            if (queue.isEmpty()) {
+                if (waitNanos == Long.MAX_VALUE) {
+                    LockSupport.park(this);
+                } else {
+                    LockSupport.parkNanos(this, waitNanos);
+                }
+            }
+            idle = false;
+        }
+    }
+
+    private void writeAll(Map<BatchKey, Batch> batches) {
+        for (Batch batch : batches.values()) {
+            write(batch);
+        }
+        batches.clear();
+    }
+
+    private void write(Batch batch) {
+        String[] lines = new String[batch.lines.size()];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = batch.lines.get(i).line;
+        }
+        BatchKey key = batch.key;
+        SQLException[] errors;
+        try {
+            errors = writer.writeLines(lines, key.protocolType, key.timestampType, key.ttl);
+        } catch (SQLException | RuntimeException e) {
+            batch.lines.forEach(line -> line.future.completeExceptionally(e));
+            return;
+        }
+        // only the lines that failed complete exceptionally, so retrying them doesn't duplicate the others
+        for (int i = 0; i < errors.length; i++) {
+            CompletableFuture<Void> future = batch.lines.get(i).future;
+            if (errors[i] == null) {
+                future.complete(null);
+            } else {
+                future.completeExceptionally(errors[i]);
+            }
+        }
+    }
+
+    private static class PendingLine {
+        private final String line;
+        private final BatchKey key;
+        private final long queuedNanos = System.nanoTime();
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        PendingLine(String line, BatchKey key) {
+            this.line = line;
+            this.key = key;
+        }
+    }
+
+    private static class Batch {
+        private final BatchKey key;
+        // time the first line is queued
+        private final long firstNanos;
+        private final List<PendingLine> lines = new ArrayList<>();
+
+        Batch(BatchKey key, long firstNanos) {
+            this.key = key;
+            this.firstNanos = firstNanos;
+        }
+    }
+
+    private static class BatchKey {
+        private final SchemalessProtocolType protocolType;
+        private final SchemalessTimestampType timestampType;
+        private final Integer ttl;
+
+        BatchKey(SchemalessProtocolType protocolType, SchemalessTimestampType timestampType, Integer ttl) {
+            this.protocolType = protocolType;
+            this.timestampType = timestampType;
+            this.ttl = ttl;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            BatchKey that = (BatchKey) o;
+            return protocolType == that.protocolType && timestampType == that.timestampType && Objects.equals(ttl, that.ttl);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(protocolType, timestampType, ttl);
+        }
+    }
+}
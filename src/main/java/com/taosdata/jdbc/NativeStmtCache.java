@@ -0,0 +1,92 @@
+package com.taosdata.jdbc;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * native stmt handles of closed prepared statements of a JNI connection, keyed by sql.
+ * a statement preparing the same sql takes the handle instead of preparing a new native stmt,
+ * the least recently used handles are closed when there are more than size.
+ * handles are cleared when "use" changes the database of the connection, so unqualified table names
+ * of a cached stmt always refer to the current database.
+ */
+class NativeStmtCache {
+    private final TSDBJNIConnector connector;
+    private final int size;
+    private final int sqlLimit;
+    private final LinkedHashMap<String, Long> handles = new LinkedHashMap<>(16, 0.75f, true);
+    private long hits;
+    private long misses;
+
+    NativeStmtCache(TSDBJNIConnector connector, int size, int sqlLimit) {
+        this.connector = connector;
+        this.size = size;
+        this.sqlLimit = sqlLimit;
+    }
+
+    private boolean isCacheable(String sql) {
+        return size > 0 && sql.length() <= sqlLimit;
+    }
+
+    /**
+     * remove and return the handle of sql, 0 if there is none
+     */
+    synchronized long take(String sql) {
+        if (!isCacheable(sql))
+            return 0L;
+        Long handle = handles.remove(sql);
+        if (handle == null) {
+            misses++;
+            return 0L;
+        }
+        hits++;
+        return handle;
+    }
+
+    /**
+     * keep the handle of a closed statement, or close it when the sql can't be cached
+     */
+    synchronized void put(String sql, long handle) throws SQLException {
+        if (!isCacheable(sql)) {
+            connector.closeBatch(handle);
+            return;
+        }
+        Long old = handles.put(sql, handle);
+        if (old != null) {
+            connector.closeBatch(old);
+        }
+        Iterator<Long> it = handles.values().iterator();
+        while (handles.size() > size && it.hasNext()) {
+            long eldest = it.next();
+            it.remove();
+            connector.closeBatch(eldest);
+        }
+    }
+
+    synchronized void clear() throws SQLException {
+        List<Long> closing = new ArrayList<>(handles.values());
+        handles.clear();
+        SQLException error = null;
+        for (long handle : closing) {
+            try {
+                connector.closeBatch(handle);
+            } catch (SQLException e) {
+                if (error == null)
+                    error = e;
+            }
+        }
+        if (error != null)
+            throw error;
+    }
+
+    synchronized long getHits() {
+        return hits;
+    }
+
+    synchronized long getMisses() {
+        return misses;
+    }
+}
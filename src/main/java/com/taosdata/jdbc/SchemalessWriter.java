@@ -1,7 +1,5 @@
 package com.taosdata.jdbc;
 
-import com.alibaba.fastjson.JSON;
-import com.alibaba.fastjson.JSONObject;
 import com.taosdata.jdbc.enums.ConnectionType;
 import com.taosdata.jdbc.enums.SchemalessProtocolType;
 import com.taosdata.jdbc.enums.SchemalessTimestampType;
@@ -10,7 +8,6 @@ import com.taosdata.jdbc.rs.ConnectionParam;
 import com.taosdata.jdbc.rs.RestfulDriver;
 import com.taosdata.jdbc.utils.HttpClientPoolUtil;
 import com.taosdata.jdbc.utils.StringUtils;
-import com.taosdata.jdbc.ws.FutureResponse;
 import com.taosdata.jdbc.ws.InFlightRequest;
 import com.taosdata.jdbc.ws.Transport;
 import com.taosdata.jdbc.ws.entity.Code;
@@ -24,13 +21,18 @@ import com.taosdata.jdbc.ws.schemaless.SchemalessAction;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicLong;
 
 public class SchemalessWriter implements AutoCloseable{
     // jni
     private TSDBJNIConnector connector;
+    // connection the connector belongs to, null if the writer opened its own
+    private TSDBConnection jniConnection;
     // websocket
     private Transport transport;
     private final AtomicLong insertId = new AtomicLong(0);
@@ -42,7 +44,8 @@ public class SchemalessWriter implements AutoCloseable{
     public SchemalessWriter(Connection connection) throws SQLException {
         if (connection instanceof TSDBConnection) {
             this.type = ConnectionType.JNI;
-            this.connector = ((TSDBConnection) connection).getConnector();
+            this.jniConnection = (TSDBConnection) connection;
+            this.connector = jniConnection.getConnector();
         } else {
             // use websocket schemaless insert through existing connection, url mast contain username password or cloudToken
             DatabaseMetaData metaData = connection.getMetaData();
@@ -55,7 +58,8 @@ public class SchemalessWriter implements AutoCloseable{
     public SchemalessWriter(Connection connection, String dbName) throws SQLException {
         if (connection instanceof TSDBConnection) {
             this.type = ConnectionType.JNI;
-            this.connector = ((TSDBConnection) connection).getConnector();
+            this.jniConnection = (TSDBConnection) connection;
+            this.connector = jniConnection.getConnector();
             selectDB(connector, dbName);
         } else {
             // use websocket schemaless insert through existing connection, url mast contain username password or cloudToken
@@ -145,14 +149,8 @@ public class SchemalessWriter implements AutoCloseable{
             InFlightRequest inFlightRequest = new InFlightRequest(timeout, 20);
             this.transport = new Transport(WSFunction.SCHEMALESS, param, inFlightRequest);
 
-            this.transport.setTextMessageHandler(message -> {
-                JSONObject jsonObject = JSON.parseObject(message);
-                Response response = jsonObject.toJavaObject(CommonResp.class);
-                FutureResponse remove = inFlightRequest.remove(response.getAction(), response.getReqId());
-                if (null != remove) {
-                    remove.getFuture().complete(response);
-                }
-            });
+            // every schemaless action responds with CommonResp
+            this.transport.setTextResponseHandler(action -> CommonResp.class);
 
             Transport.checkConnection(transport, connectTime);
 
@@ -200,21 +198,34 @@ public class SchemalessWriter implements AutoCloseable{
                 break;
             }
             case WS: {
-                for (String line : lines) {
-                    InsertReq insertReq = new InsertReq();
-                    insertReq.setReqId(insertId.getAndIncrement());
-                    insertReq.setProtocol(protocolType.ordinal());
-                    insertReq.setPrecision(timestampType.getType());
-                    insertReq.setData(line);
-                    if (ttl != null)
-                        insertReq.setTtl(ttl);
-                    if (reqId != null)
+                if (reqId != null) {
+                    // lines share the caller's reqId, so they can't be in flight at the same time
+                    for (String line : lines) {
+                        InsertReq insertReq = insertReq(line, protocolType, timestampType, ttl);
                         insertReq.setReqId(reqId);
-                    CommonResp response = (CommonResp) transport.send(new Request(SchemalessAction.INSERT.getAction(), insertReq));
-                    if (Code.SUCCESS.getCode() != response.getCode()) {
-                        throw new SQLException("0x" + Integer.toHexString(response.getCode()) + ":" + response.getMessage());
+                        CommonResp response = (CommonResp) transport.send(new Request(SchemalessAction.INSERT.getAction(), insertReq));
+                        if (Code.SUCCESS.getCode() != response.getCode()) {
+                            throw new SQLException("0x" + Integer.toHexString(response.getCode()) + ":" + response.getMessage());
+                        }
+                    }
+                    break;
+                }
+                SQLException[] errors = sendLines(lines, protocolType, timestampType, ttl);
+                SQLException error = null;
+                for (int i = 0; i < errors.length; i++) {
+                    SQLException e = errors[i];
+                    if (e == null)
+                        continue;
+                    if (lines.length > 1)
+                        e = new SQLException(e.getMessage() + " (line " + i + ")", e.getSQLState(), e.getErrorCode(), e);
+                    if (error == null) {
+                        error = e;
+                    } else {
+                        error.setNextException(e);
                     }
                 }
+                if (error != null)
+                    throw error;
                 break;
             }
             default:
@@ -222,6 +233,32 @@ public class SchemalessWriter implements AutoCloseable{
         }
     }
 
+    /**
+     * write lines and report the error of each one, null for a written line.
+     * an error failing all lines together, e.g. of a jni write, is thrown.
+     */
+    SQLException[] writeLines(String[] lines, SchemalessProtocolType protocolType, SchemalessTimestampType timestampType, Integer ttl) throws SQLException {
+        if (type != ConnectionType.WS) {
+            write(lines, protocolType, timestampType, null, ttl, null);
+            return new SQLException[lines.length];
+        }
+        return sendLines(lines, protocolType, timestampType, ttl);
+    }
+
+    private SQLException[] sendLines(String[] lines, SchemalessProtocolType protocolType, SchemalessTimestampType timestampType, Integer ttl) {
+        // send every line before waiting, the number in flight is bounded by InFlightRequest
+        List<CompletableFuture<Response>> futures = new ArrayList<>(lines.length);
+        for (String line : lines) {
+            InsertReq insertReq = insertReq(line, protocolType, timestampType, ttl);
+            futures.add(transport.sendAsync(new Request(SchemalessAction.INSERT.getAction(), insertReq)));
+        }
+        SQLException[] errors = new SQLException[lines.length];
+        for (int i = 0; i < errors.length; i++) {
+            errors[i] = lineError(futures.get(i));
+        }
+        return errors;
+    }
+
     /**
      * only one line writes to db
      *
@@ -268,13 +305,7 @@ public class SchemalessWriter implements AutoCloseable{
                 }
             }
             case WS: {
-                InsertReq insertReq = new InsertReq();
-                insertReq.setReqId(insertId.getAndIncrement());
-                insertReq.setProtocol(protocolType.ordinal());
-                insertReq.setPrecision(timestampType.getType());
-                insertReq.setData(line);
-                if (ttl != null)
-                    insertReq.setTtl(ttl);
+                InsertReq insertReq = insertReq(line, protocolType, timestampType, ttl);
                 if (reqId != null)
                     insertReq.setReqId(reqId);
                 CommonResp response = (CommonResp) transport.send(new Request(SchemalessAction.INSERT.getAction(), insertReq));
@@ -290,9 +321,44 @@ public class SchemalessWriter implements AutoCloseable{
         }
     }
 
+    private InsertReq insertReq(String line, SchemalessProtocolType protocolType, SchemalessTimestampType timestampType, Integer ttl) {
+        InsertReq insertReq = new InsertReq();
+        insertReq.setReqId(insertId.getAndIncrement());
+        insertReq.setProtocol(protocolType.ordinal());
+        insertReq.setPrecision(timestampType.getType());
+        insertReq.setData(line);
+        if (ttl != null)
+            insertReq.setTtl(ttl);
+        return insertReq;
+    }
+
+    /**
+     * wait for the response of one line, null if it's written
+     */
+    private static SQLException lineError(CompletableFuture<Response> future) {
+        try {
+            CommonResp response = (CommonResp) future.get();
+            if (Code.SUCCESS.getCode() != response.getCode()) {
+                return new SQLException("0x" + Integer.toHexString(response.getCode()) + ":" + response.getMessage());
+            }
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return TSDBError.createSQLException(TSDBErrorNumbers.ERROR_UNKNOWN, "schemaless write has been interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException)
+                return (SQLException) e.getCause();
+            return TSDBError.createSQLException(TSDBErrorNumbers.ERROR_RESTFul_Client_IOException, e.getMessage());
+        }
+    }
+
     private void selectDB(TSDBJNIConnector connector, String dbName) throws SQLException {
         long pSql = connector.executeQuery("use " + dbName);
         connector.freeResultSet(pSql);
+        // stmts cached by the connection were prepared for the database before
+        if (jniConnection != null) {
+            jniConnection.getStmtCache().clear();
+        }
     }
 
     public void close() throws SQLException {
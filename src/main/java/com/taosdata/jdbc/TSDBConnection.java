@@ -5,11 +5,13 @@ import java.util.*;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 public class TSDBConnection extends AbstractConnection {
+    public static final int DEFAULT_PREP_STMT_CACHE_SQL_LIMIT = 2048;
 
     private TSDBJNIConnector connector;
     private final TSDBDatabaseMetaData databaseMetaData;
     private boolean batchFetch;
     private CopyOnWriteArrayList<Statement> statements = new CopyOnWriteArrayList<>();
+    private NativeStmtCache stmtCache;
 
     public Boolean getBatchFetch() {
         return this.batchFetch;
@@ -18,16 +20,30 @@ public class TSDBConnection extends AbstractConnection {
     public TSDBConnection(Properties info, TSDBDatabaseMetaData meta) throws SQLException {
         super(info);
         this.databaseMetaData = meta;
+        String batchLoad = info.getProperty(TSDBDriver.PROPERTY_KEY_BATCH_LOAD, "true");
+        if (batchLoad != null) {
+            this.batchFetch = Boolean.parseBoolean(batchLoad);
+        }
+
+        int cacheSize = Integer.parseInt(info.getProperty(TSDBDriver.PROPERTY_KEY_PREP_STMT_CACHE_SIZE, "0"));
+        if (cacheSize < 0) {
+            throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_INVALID_VARIABLE,
+                    "prepStmtCacheSize must not be negative: " + cacheSize);
+        }
+        int sqlLimit = Integer.parseInt(info.getProperty(TSDBDriver.PROPERTY_KEY_PREP_STMT_CACHE_SQL_LIMIT,
+                String.valueOf(DEFAULT_PREP_STMT_CACHE_SQL_LIMIT)));
+        if (sqlLimit < 0) {
+            throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_INVALID_VARIABLE,
+                    "prepStmtCacheSqlLimit must not be negative: " + sqlLimit);
+        }
+
+        // validated before connecting, so invalid values don't leave a native connection open
         connect(info.getProperty(TSDBDriver.PROPERTY_KEY_HOST),
                 Integer.parseInt(info.getProperty(TSDBDriver.PROPERTY_KEY_PORT, "0")),
                 info.getProperty(TSDBDriver.PROPERTY_KEY_DBNAME),
                 info.getProperty(TSDBDriver.PROPERTY_KEY_USER),
                 info.getProperty(TSDBDriver.PROPERTY_KEY_PASSWORD));
-
-        String batchLoad = info.getProperty(TSDBDriver.PROPERTY_KEY_BATCH_LOAD, "true");
-        if (batchLoad != null) {
-            this.batchFetch = Boolean.parseBoolean(batchLoad);
-        }
+        this.stmtCache = new NativeStmtCache(this.connector, cacheSize, sqlLimit);
     }
 
     private void connect(String host, int port, String dbName, String user, String password) throws SQLException {
@@ -66,11 +82,33 @@ public class TSDBConnection extends AbstractConnection {
             for (Statement statement : statements) {
                 statement.close();
             }
-            this.connector.closeConnection();
+            try {
+                this.stmtCache.clear();
+            } finally {
+                this.connector.closeConnection();
+            }
             this.isClosed = true;
         }
     }
 
+    NativeStmtCache getStmtCache() {
+        return this.stmtCache;
+    }
+
+    /**
+     * number of prepareStatement calls served by a cached native stmt
+     */
+    public long getPrepStmtCacheHits() {
+        return this.stmtCache.getHits();
+    }
+
+    /**
+     * number of prepareStatement calls of cacheable sql that prepared a new native stmt
+     */
+    public long getPrepStmtCacheMisses() {
+        return this.stmtCache.getMisses();
+    }
+
     public void unregisterStatement(Statement stmt) {
         this.statements.remove(stmt);
     }
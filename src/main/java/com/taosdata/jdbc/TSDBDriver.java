@@ -108,6 +108,47 @@ public class TSDBDriver extends AbstractDriver {
      */
     public static final String PROPERTY_KEY_MAX_CONCURRENT_REQUEST = "maxConcurrentRequest";
 
+    /**
+     * number of result blocks requested in the background while the current block is read.
+     * 0 disables prefetch. only for websocket query.
+     */
+    public static final String PROPERTY_KEY_FETCH_PREFETCH_BLOCKS = "fetchPrefetchBlocks";
+
+    /**
+     * number of websocket connections shared by all connections of the same server, user and database.
+     * 0 means every connection opens its own. only for websocket.
+     */
+    public static final String PROPERTY_KEY_WS_TRANSPORT_POOL_SIZE = "wsTransportPoolSize";
+
+    /**
+     * number of closed prepared statements of a connection whose stmt is kept for the same sql.
+     * 0 means the stmt is closed with the statement.
+     */
+    public static final String PROPERTY_KEY_PREP_STMT_CACHE_SIZE = "prepStmtCacheSize";
+
+    /**
+     * max length of a sql whose stmt is kept by prepStmtCacheSize, default 2048. only for JNI.
+     */
+    public static final String PROPERTY_KEY_PREP_STMT_CACHE_SQL_LIMIT = "prepStmtCacheSqlLimit";
+
+    /**
+     * number of threads decoding the messages of a websocket connection, default 1.
+     * 0 means the messages are decoded by threads shared by all websocket connections of the driver.
+     */
+    public static final String PROPERTY_KEY_WS_DECODE_THREADS = "wsDecodeThreads";
+
+    /**
+     * true to complete websocket requests on the common pool, so callbacks of a response don't hold up
+     * the decoding of other messages. default false.
+     */
+    public static final String PROPERTY_KEY_WS_ASYNC_COMPLETE = "wsAsyncComplete";
+
+    /**
+     * comma separated host:port list of taosAdapters, set by a url like jdbc:TAOS-RS://host1:6041,host2:6041/db.
+     * websocket connections are balanced over them. only for websocket.
+     */
+    public static final String PROPERTY_KEY_ENDPOINTS = "endpoints";
+
     /**
      * max pool size
      */
@@ -129,6 +170,36 @@ public class TSDBDriver extends AbstractDriver {
      */
     public static final String HTTP_SOCKET_TIMEOUT = "httpSocketTimeout";
 
+    /**
+     * max number of http connections of all servers, default 10 times httpPoolSize
+     */
+    public static final String HTTP_MAX_TOTAL = "httpMaxTotal";
+
+    /**
+     * http connections idle for longer than this many milliseconds are closed, 0 means never
+     */
+    public static final String HTTP_IDLE_TIMEOUT = "httpIdleTimeout";
+
+    /**
+     * http connections are not reused after this many milliseconds, 0 means no limit
+     */
+    public static final String HTTP_CONNECTION_TTL = "httpConnectionTtl";
+
+    /**
+     * times a request failing with an I/O error is retried, default 4
+     */
+    public static final String HTTP_RETRY_COUNT = "httpRetryCount";
+
+    /**
+     * true to accept gzip and deflate compressed responses, default false
+     */
+    public static final String HTTP_COMPRESSION = "httpCompression";
+
+    /**
+     * sql of at least this many bytes is sent gzip compressed, 0 means never
+     */
+    public static final String HTTP_REQUEST_COMPRESSION_SIZE = "httpRequestCompressionSize";
+
     public static final String HTTP_TIME_ZONE= "tz";
 
     private TSDBDatabaseMetaData dbMetaData = null;
@@ -14,7 +14,7 @@
  *****************************************************************************/
 package com.taosdata.jdbc;
 
-import com.taosdata.jdbc.utils.Utils;
+import com.taosdata.jdbc.utils.SqlTemplate;
 
 import java.io.InputStream;
 import java.io.Reader;
@@ -37,6 +37,9 @@ import java.util.PriorityQueue;
 public class TSDBPreparedStatement extends TSDBStatement implements PreparedStatement {
     // for jdbc preparedStatement interface
     private String rawSql;
+    private final SqlTemplate sqlTemplate;
+    // reused by every execution to build the sql with parameters
+    private final StringBuilder nativeSql = new StringBuilder();
     private Object[] parameters = new Object[0];
     // for parameter binding
     private long nativeStmtHandle;
@@ -44,10 +47,13 @@ public class TSDBPreparedStatement extends TSDBStatement implements PreparedStat
     private ArrayList<TableTagInfo> tableTags;
     private int tagValueLength;
     private PriorityQueue<ColumnInfo> queue = new PriorityQueue<>();
+    // data was bound to the native stmt since the last successful execution
+    private boolean dirty;
 
     TSDBPreparedStatement(TSDBConnection connection, String sql) throws SQLException {
         super(connection);
         this.rawSql = sql;
+        this.sqlTemplate = SqlTemplate.compile(sql);
         int parameterCnt = 0;
         if (!sql.contains("?"))
             return;
@@ -58,8 +64,11 @@ public class TSDBPreparedStatement extends TSDBStatement implements PreparedStat
         }
         parameters = new Object[parameterCnt];
         // for parameter-binding
-        TSDBJNIConnector connector = ((TSDBConnection) this.getConnection()).getConnector();
-        this.nativeStmtHandle = connector.prepareStmt(rawSql);
+        this.nativeStmtHandle = connection.getStmtCache().take(rawSql);
+        if (this.nativeStmtHandle == 0) {
+            TSDBJNIConnector connector = connection.getConnector();
+            this.nativeStmtHandle = connector.prepareStmt(rawSql);
+        }
 
         // the table name is also a parameter, so ignore it.
         this.tableTags = new ArrayList<>();
@@ -67,13 +76,13 @@ public class TSDBPreparedStatement extends TSDBStatement implements PreparedStat
 
     @Override
     public ResultSet executeQuery() throws SQLException {
-        final String sql = Utils.getNativeSql(this.rawSql, this.parameters);
+        final String sql = getNativeSql(this.parameters);
         return executeQuery(sql);
     }
 
     @Override
     public int executeUpdate() throws SQLException {
-        String sql = Utils.getNativeSql(this.rawSql, this.parameters);
+        String sql = getNativeSql(this.parameters);
         return executeUpdate(sql);
     }
 
@@ -193,13 +202,13 @@ public class TSDBPreparedStatement extends TSDBStatement implements PreparedStat
 
     @Override
     public boolean execute() throws SQLException {
-        final String sql = Utils.getNativeSql(this.rawSql, this.parameters);
+        final String sql = getNativeSql(this.parameters);
         return execute(sql);
     }
 
     @Override
     public void addBatch() throws SQLException {
-        String sql = Utils.getNativeSql(this.rawSql, this.parameters);
+        String sql = getNativeSql(this.parameters);
         addBatch(sql);
     }
 
@@ -642,6 +651,7 @@ public class TSDBPreparedStatement extends TSDBStatement implements PreparedStat
         }
 
         TSDBJNIConnector connector = ((TSDBConnection) this.getConnection()).getConnector();
+        dirty = true;
         if ((this.tableTags == null || this.tableTags.size() == 0) && this.tableName != null) {
             connector.setBindTableName(this.nativeStmtHandle, this.tableName);
         } else if (this.tableTags != null && this.tableTags.size() > 0) {
@@ -893,6 +903,7 @@ public class TSDBPreparedStatement extends TSDBStatement implements PreparedStat
     public void columnDataExecuteBatch() throws SQLException {
         TSDBJNIConnector connector = ((TSDBConnection) this.getConnection()).getConnector();
         connector.executeBatch(this.nativeStmtHandle);
+        dirty = false;
         this.columnDataClearBatchInternal();
     }
 
@@ -914,14 +925,28 @@ public class TSDBPreparedStatement extends TSDBStatement implements PreparedStat
 
         this.nativeStmtHandle = 0L;
         this.tableName = null;
+        this.dirty = false;
     }
 
     @Override
     public void close() throws SQLException {
         if (this.nativeStmtHandle != 0L) {
             this.columnDataClearBatchInternal();
-            this.columnDataCloseBatch();
+            TSDBConnection connection = (TSDBConnection) this.getConnection();
+            if (!dirty && !connection.isClosed()) {
+                // a stmt without pending data is kept for the next statement of the same sql
+                connection.getStmtCache().put(rawSql, this.nativeStmtHandle);
+                this.nativeStmtHandle = 0L;
+            } else {
+                this.columnDataCloseBatch();
+            }
         }
         super.close();
     }
+
+    private String getNativeSql(Object[] parameters) {
+        nativeSql.setLength(0);
+        sqlTemplate.appendNativeSql(nativeSql, parameters);
+        return nativeSql.toString();
+    }
 }
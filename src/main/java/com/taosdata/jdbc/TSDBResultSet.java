@@ -102,7 +102,8 @@ public class TSDBResultSet extends AbstractResultSet {
         }
     }
 
-    public void close() throws SQLException {
+    // synchronized, a statement closed during a query with a timeout may close it with the query thread
+    public synchronized void close() throws SQLException {
         if (isClosed)
             return;
         if (this.statement == null)
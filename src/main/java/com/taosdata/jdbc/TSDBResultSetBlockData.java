@@ -17,53 +17,54 @@ package com.taosdata.jdbc;
 import com.google.common.primitives.Ints;
 import com.google.common.primitives.Longs;
 import com.google.common.primitives.Shorts;
+import com.taosdata.jdbc.common.BlockData;
 import com.taosdata.jdbc.enums.TimestampPrecision;
 
-import java.io.UnsupportedEncodingException;
 import java.math.BigDecimal;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.charset.Charset;
 import java.sql.SQLDataException;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.sql.Types;
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.List;
 
 import static com.taosdata.jdbc.TSDBConstants.*;
 import static com.taosdata.jdbc.utils.UnsignedDataUtils.*;
 
+/**
+ * one raw block fetched by JNI. values are read from the raw block when they are accessed,
+ * the type of each column is resolved once per block.
+ */
 public class TSDBResultSetBlockData {
     private int numOfRows = 0;
     private int rowIndex = 0;
 
     private List<ColumnMetaData> columnMetaDataList;
-    private ArrayList<List<Object>> colData;
+    private BlockData block;
+    // column types of the current block
+    private int[] types = new int[0];
     public boolean wasNull;
 
     private int timestampPrecision;
 
     public TSDBResultSetBlockData(List<ColumnMetaData> colMeta, int numOfCols, int timestampPrecision) {
         this.columnMetaDataList = colMeta;
-        this.colData = new ArrayList<>(numOfCols);
         this.timestampPrecision = timestampPrecision;
     }
 
     public TSDBResultSetBlockData(List<ColumnMetaData> colMeta, int timestampPrecision) {
         this.columnMetaDataList = colMeta;
-        this.colData = new ArrayList<>();
         this.timestampPrecision = timestampPrecision;
     }
 
     public TSDBResultSetBlockData() {
-        this.colData = new ArrayList<>();
     }
 
     public void clear() {
-        int size = this.colData.size();
-        this.colData.clear();
-        setNumOfCols(size);
+        this.block = null;
     }
 
     public int getNumOfRows() {
@@ -75,11 +76,11 @@ public class TSDBResultSetBlockData {
     }
 
     public int getNumOfCols() {
-        return this.colData.size();
+        return this.block == null ? 0 : this.block.getNumOfCols();
     }
 
     public void setNumOfCols(int numOfCols) {
-        this.colData = new ArrayList<>(numOfCols);
+        this.block = null;
     }
 
     public boolean hasMore() {
@@ -101,161 +102,21 @@ public class TSDBResultSetBlockData {
     public void setByteArray(byte[] value) {
         ByteBuffer buffer = ByteBuffer.wrap(value);
         buffer.order(ByteOrder.LITTLE_ENDIAN);
-        int bitMapOffset = BitmapLen(numOfRows);
-        int pHeader = 28 + columnMetaDataList.size() * 5;
-        buffer.position(pHeader);
-        List<Integer> lengths = new ArrayList<>(columnMetaDataList.size());
-        for (int i = 0; i < columnMetaDataList.size(); i++) {
-            lengths.add(buffer.getInt());
+        if (types.length != columnMetaDataList.size()) {
+            types = new int[columnMetaDataList.size()];
         }
-        pHeader = buffer.position();
-        int length = 0;
-        for (int i = 0; i < columnMetaDataList.size(); i++) {
-            List<Object> col = new ArrayList<>(numOfRows);
-            int type = columnMetaDataList.get(i).getColType();
-            switch (type) {
-                case TSDB_DATA_TYPE_BOOL:
-                case TSDB_DATA_TYPE_TINYINT:
-                case TSDB_DATA_TYPE_UTINYINT: {
-                    length = bitMapOffset;
-                    byte[] tmp = new byte[bitMapOffset];
-                    buffer.get(tmp);
-                    for (int j = 0; j < numOfRows; j++) {
-                        byte b = buffer.get();
-                        if (isNull(tmp, j)) {
-                            col.add(null);
-                        } else {
-                            col.add(b);
-                        }
-                    }
-                    break;
-                }
-                case TSDB_DATA_TYPE_SMALLINT:
-                case TSDB_DATA_TYPE_USMALLINT: {
-                    length = bitMapOffset;
-                    byte[] tmp = new byte[bitMapOffset];
-                    buffer.get(tmp);
-                    for (int j = 0; j < numOfRows; j++) {
-                        short s = buffer.getShort();
-                        if (isNull(tmp, j)) {
-                            col.add(null);
-                        } else {
-                            col.add(s);
-                        }
-                    }
-                    break;
-                }
-                case TSDB_DATA_TYPE_INT:
-                case TSDB_DATA_TYPE_UINT: {
-                    length = bitMapOffset;
-                    byte[] tmp = new byte[bitMapOffset];
-                    buffer.get(tmp);
-                    for (int j = 0; j < numOfRows; j++) {
-                        int in = buffer.getInt();
-                        if (isNull(tmp, j)) {
-                            col.add(null);
-                        } else {
-                            col.add(in);
-                        }
-                    }
-                    break;
-                }
-                case TSDB_DATA_TYPE_BIGINT:
-                case TSDB_DATA_TYPE_UBIGINT:
-                case TSDB_DATA_TYPE_TIMESTAMP: {
-                    length = bitMapOffset;
-                    byte[] tmp = new byte[bitMapOffset];
-                    buffer.get(tmp);
-                    for (int j = 0; j < numOfRows; j++) {
-                        long l = buffer.getLong();
-                        if (isNull(tmp, j)) {
-                            col.add(null);
-                        } else {
-                            col.add(l);
-                        }
-                    }
-                    break;
-                }
-                case TSDB_DATA_TYPE_FLOAT: {
-                    length = bitMapOffset;
-                    byte[] tmp = new byte[bitMapOffset];
-                    buffer.get(tmp);
-                    for (int j = 0; j < numOfRows; j++) {
-                        float f = buffer.getFloat();
-                        if (isNull(tmp, j)) {
-                            col.add(null);
-                        } else {
-                            col.add(f);
-                        }
-                    }
-                    break;
-                }
-                case TSDB_DATA_TYPE_DOUBLE: {
-                    length = bitMapOffset;
-                    byte[] tmp = new byte[bitMapOffset];
-                    buffer.get(tmp);
-                    for (int j = 0; j < numOfRows; j++) {
-                        double d = buffer.getDouble();
-                        if (isNull(tmp, j)) {
-                            col.add(null);
-                        } else {
-                            col.add(d);
-                        }
-                    }
-                    break;
-                }
-                case TSDB_DATA_TYPE_BINARY:
-                case TSDB_DATA_TYPE_JSON: {
-                    length = numOfRows * 4;
-                    List<Integer> offset = new ArrayList<>(numOfRows);
-                    for (int m = 0; m < numOfRows; m++) {
-                        offset.add(buffer.getInt());
-                    }
-                    int start = buffer.position();
-                    for (int m = 0; m < numOfRows; m++) {
-                        if (-1 == offset.get(m)) {
-                            col.add(null);
-                            continue;
-                        }
-                        buffer.position(start + offset.get(m));
-                        short len = buffer.getShort();
-                        byte[] tmp = new byte[len];
-                        buffer.get(tmp);
-                        col.add(tmp);
-                    }
-                    break;
-                }
-                case TSDB_DATA_TYPE_NCHAR: {
-                    length = numOfRows * 4;
-                    List<Integer> offset = new ArrayList<>(numOfRows);
-                    for (int m = 0; m < numOfRows; m++) {
-                        offset.add(buffer.getInt());
-                    }
-                    int start = buffer.position();
-                    for (int m = 0; m < numOfRows; m++) {
-                        if (-1 == offset.get(m)) {
-                            col.add(null);
-                            continue;
-                        }
-                        buffer.position(start + offset.get(m));
-                        int len = buffer.getShort() / 4;
-                        int[] tmp = new int[len];
-                        for (int n = 0; n < len; n++) {
-                            tmp[n] = buffer.getInt();
-                        }
-                        col.add(new String(tmp, 0, tmp.length));
-                    }
-                    break;
-                }
-                default:
-                    // unknown type, do nothing
-                    col.add(null);
-                    break;
-            }
-            pHeader += length + lengths.get(i);
-            buffer.position(pHeader);
-            colData.add(col);
+        for (int i = 0; i < types.length; i++) {
+            types[i] = columnMetaDataList.get(i).getColType();
         }
+        this.block = BlockData.parse(buffer, types, numOfRows);
+    }
+
+    /**
+     * record whether the value of col in the current row is null
+     */
+    private boolean isNull(int col) {
+        wasNull = block.isNull(col, rowIndex);
+        return wasNull;
     }
 
     /**
@@ -263,146 +124,115 @@ public class TSDBResultSetBlockData {
      * calling this method
      */
     public String getString(int col) throws SQLException {
-        Object obj = get(col);
-        if (obj == null) {
-            wasNull = true;
+        if (isNull(col))
             return null;
+        switch (types[col]) {
+            case TSDB_DATA_TYPE_NCHAR:
+                return block.getNString(col, rowIndex);
+            case TSDB_DATA_TYPE_BINARY:
+            case TSDB_DATA_TYPE_JSON:
+                return block.getString(col, rowIndex, charset());
+            default:
+                return get(col).toString();
         }
-        wasNull = false;
-        if (obj instanceof String)
-            return (String) obj;
-
-        if (obj instanceof byte[]) {
-            String charset = TaosGlobalConfig.getCharset();
-            try {
-                return new String((byte[]) obj, charset);
-            } catch (UnsupportedEncodingException e) {
-                throw new RuntimeException(e.getMessage());
-            }
-        }
-        return obj.toString();
     }
 
     public byte[] getBytes(int col) throws SQLException {
-
-        Object obj = get(col);
-        if (obj == null) {
-            wasNull = true;
+        if (isNull(col))
             return null;
+        switch (types[col]) {
+            case TSDB_DATA_TYPE_BINARY:
+            case TSDB_DATA_TYPE_JSON:
+                return block.getBytes(col, rowIndex);
+            case TSDB_DATA_TYPE_NCHAR:
+                return block.getNString(col, rowIndex).getBytes();
+            case TSDB_DATA_TYPE_TINYINT:
+                return new byte[]{block.getByte(col, rowIndex)};
+            case TSDB_DATA_TYPE_SMALLINT:
+                return Shorts.toByteArray(block.getShort(col, rowIndex));
+            case TSDB_DATA_TYPE_INT:
+            case TSDB_DATA_TYPE_USMALLINT:
+                return Ints.toByteArray(getInt(col));
+            case TSDB_DATA_TYPE_BIGINT:
+            case TSDB_DATA_TYPE_UINT:
+                return Longs.toByteArray(getLong(col));
+            case TSDB_DATA_TYPE_UTINYINT:
+                return Shorts.toByteArray(parseUTinyInt(block.getByte(col, rowIndex)));
+            default:
+                return get(col).toString().getBytes();
         }
-        wasNull = false;
-        if (obj instanceof byte[])
-            return (byte[]) obj;
-        if (obj instanceof String)
-            return ((String) obj).getBytes();
-        if (obj instanceof Long)
-            return Longs.toByteArray((long) obj);
-        if (obj instanceof Integer)
-            return Ints.toByteArray((int) obj);
-        if (obj instanceof Short)
-            return Shorts.toByteArray((short) obj);
-        if (obj instanceof Byte)
-            return new byte[]{(byte) obj};
-
-        return obj.toString().getBytes();
     }
 
     public int getInt(int col) throws SQLException {
-        Object obj = get(col);
-        if (obj == null) {
-            wasNull = true;
+        if (isNull(col))
             return 0;
-        }
-        wasNull = false;
-        int type = this.columnMetaDataList.get(col).getColType();
-        switch (type) {
+        switch (types[col]) {
             case TSDB_DATA_TYPE_BOOL:
-                return (boolean) obj ? 1 : 0;
-
+                return block.getByte(col, rowIndex) == 0 ? 0 : 1;
             case TSDB_DATA_TYPE_TINYINT:
-                return (byte) obj;
+                return block.getByte(col, rowIndex);
             case TSDB_DATA_TYPE_UTINYINT:
+                return parseUTinyInt(block.getByte(col, rowIndex));
             case TSDB_DATA_TYPE_SMALLINT:
-                return (short) obj;
+                return block.getShort(col, rowIndex);
             case TSDB_DATA_TYPE_USMALLINT:
-            case TSDB_DATA_TYPE_INT: {
-                return (int) obj;
-            }
+                return parseUSmallInt(block.getShort(col, rowIndex));
+            case TSDB_DATA_TYPE_INT:
+                return block.getInt(col, rowIndex);
             case TSDB_DATA_TYPE_UINT:
+                return (int) parseUInteger(block.getInt(col, rowIndex));
             case TSDB_DATA_TYPE_BIGINT:
-                return ((Long) obj).intValue();
+                return (int) block.getLong(col, rowIndex);
             case TSDB_DATA_TYPE_UBIGINT: {
-                BigDecimal tmp = (BigDecimal) obj;
+                BigDecimal tmp = parseUBigInt(block.getLong(col, rowIndex));
                 if (tmp.compareTo(new BigDecimal(Integer.MIN_VALUE)) < 0 || tmp.compareTo(new BigDecimal(Integer.MAX_VALUE)) > 0)
-                    throwRangeException(obj.toString(), col, Types.INTEGER);
+                    throwRangeException(tmp.toString(), col, Types.INTEGER);
                 return tmp.intValue();
             }
-            case TSDB_DATA_TYPE_TIMESTAMP: {
-                return ((Long) ((Timestamp) obj).getTime()).intValue();
-            }
-
+            case TSDB_DATA_TYPE_TIMESTAMP:
+                return (int) parseTimestampColumnData(block.getLong(col, rowIndex)).getTime();
             case TSDB_DATA_TYPE_FLOAT:
-            case TSDB_DATA_TYPE_DOUBLE: {
-                return ((Double) obj).intValue();
-            }
-
-            case TSDB_DATA_TYPE_NCHAR: {
-                return Integer.parseInt((String) obj);
-            }
+                return (int) block.getFloat(col, rowIndex);
+            case TSDB_DATA_TYPE_DOUBLE:
+                return (int) block.getDouble(col, rowIndex);
+            case TSDB_DATA_TYPE_NCHAR:
+                return Integer.parseInt(block.getNString(col, rowIndex));
             case TSDB_DATA_TYPE_JSON:
-            case TSDB_DATA_TYPE_BINARY: {
-                String charset = TaosGlobalConfig.getCharset();
-                try {
-                    return Integer.parseInt(new String((byte[]) obj, charset));
-                } catch (UnsupportedEncodingException e) {
-                    throw new RuntimeException(e.getMessage());
-                }
-            }
+            case TSDB_DATA_TYPE_BINARY:
+                return Integer.parseInt(block.getString(col, rowIndex, charset()));
         }
 
         return 0;
     }
 
     public boolean getBoolean(int col) throws SQLException {
-        Object obj = get(col);
-        if (obj == null) {
-            wasNull = true;
+        if (isNull(col))
             return Boolean.FALSE;
-        }
-        wasNull = false;
-        int type = this.columnMetaDataList.get(col).getColType();
-        switch (type) {
+        switch (types[col]) {
             case TSDB_DATA_TYPE_BOOL:
-                return (boolean) obj;
             case TSDB_DATA_TYPE_TINYINT:
-                return ((byte) obj == 0) ? Boolean.FALSE : Boolean.TRUE;
             case TSDB_DATA_TYPE_UTINYINT:
+                return block.getByte(col, rowIndex) != 0;
             case TSDB_DATA_TYPE_SMALLINT:
-                return ((short) obj == 0) ? Boolean.FALSE : Boolean.TRUE;
             case TSDB_DATA_TYPE_USMALLINT:
-            case TSDB_DATA_TYPE_INT: {
-                return ((int) obj == 0) ? Boolean.FALSE : Boolean.TRUE;
-            }
+                return block.getShort(col, rowIndex) != 0;
+            case TSDB_DATA_TYPE_INT:
             case TSDB_DATA_TYPE_UINT:
+                return block.getInt(col, rowIndex) != 0;
             case TSDB_DATA_TYPE_BIGINT:
-                return (((long) obj) == 0L) ? Boolean.FALSE : Boolean.TRUE;
-
-            case TSDB_DATA_TYPE_TIMESTAMP: {
-                return ((Timestamp) obj).getTime() == 0L ? Boolean.FALSE : Boolean.TRUE;
-            }
             case TSDB_DATA_TYPE_UBIGINT:
-                return obj.equals(new BigDecimal(0)) ? Boolean.FALSE : Boolean.TRUE;
-
+                return block.getLong(col, rowIndex) != 0L;
+            case TSDB_DATA_TYPE_TIMESTAMP:
+                return parseTimestampColumnData(block.getLong(col, rowIndex)).getTime() != 0L;
             case TSDB_DATA_TYPE_FLOAT:
-                return (((float) obj) == 0f) ? Boolean.FALSE : Boolean.TRUE;
-            case TSDB_DATA_TYPE_DOUBLE: {
-                return (((double) obj) == 0) ? Boolean.FALSE : Boolean.TRUE;
-            }
-
+                return block.getFloat(col, rowIndex) != 0f;
+            case TSDB_DATA_TYPE_DOUBLE:
+                return block.getDouble(col, rowIndex) != 0;
             case TSDB_DATA_TYPE_NCHAR: {
-                if ("TRUE".compareToIgnoreCase((String) obj) == 0) {
+                String tmp = block.getNString(col, rowIndex);
+                if ("TRUE".compareToIgnoreCase(tmp) == 0) {
                     return Boolean.TRUE;
-                } else if ("FALSE".compareToIgnoreCase((String) obj) == 0) {
+                } else if ("FALSE".compareToIgnoreCase(tmp) == 0) {
                     return Boolean.FALSE;
                 } else {
                     throw new SQLDataException();
@@ -410,13 +240,8 @@ public class TSDBResultSetBlockData {
             }
             case TSDB_DATA_TYPE_JSON:
             case TSDB_DATA_TYPE_BINARY: {
-                String charset = TaosGlobalConfig.getCharset();
-                try {
-                    String tmp = new String((byte[]) obj, charset);
-                    return "TRUE".compareToIgnoreCase(tmp) == 0;
-                } catch (UnsupportedEncodingException e) {
-                    throw new RuntimeException(e.getMessage());
-                }
+                String tmp = block.getString(col, rowIndex, charset());
+                return "TRUE".compareToIgnoreCase(tmp) == 0;
             }
         }
 
@@ -424,72 +249,51 @@ public class TSDBResultSetBlockData {
     }
 
     public long getLong(int col) throws SQLException {
-        Object obj = get(col);
-        if (obj == null) {
-            wasNull = true;
+        if (isNull(col))
             return 0;
-        }
-        wasNull = false;
-        int type = this.columnMetaDataList.get(col).getColType();
-        switch (type) {
+        switch (types[col]) {
             case TSDB_DATA_TYPE_BOOL:
-                return (boolean) obj ? 1 : 0;
+                return block.getByte(col, rowIndex) == 0 ? 0 : 1;
             case TSDB_DATA_TYPE_TINYINT:
-                return (byte) obj;
+                return block.getByte(col, rowIndex);
             case TSDB_DATA_TYPE_UTINYINT:
+                return parseUTinyInt(block.getByte(col, rowIndex));
             case TSDB_DATA_TYPE_SMALLINT:
-                return (short) obj;
+                return block.getShort(col, rowIndex);
             case TSDB_DATA_TYPE_USMALLINT:
-            case TSDB_DATA_TYPE_INT: {
-                return (int) obj;
-            }
+                return parseUSmallInt(block.getShort(col, rowIndex));
+            case TSDB_DATA_TYPE_INT:
+                return block.getInt(col, rowIndex);
             case TSDB_DATA_TYPE_UINT:
+                return parseUInteger(block.getInt(col, rowIndex));
             case TSDB_DATA_TYPE_BIGINT:
-                return (long) obj;
+                return block.getLong(col, rowIndex);
             case TSDB_DATA_TYPE_UBIGINT: {
-                BigDecimal tmp = (BigDecimal) obj;
+                BigDecimal tmp = parseUBigInt(block.getLong(col, rowIndex));
                 if (tmp.compareTo(new BigDecimal(Long.MIN_VALUE)) < 0 || tmp.compareTo(new BigDecimal(Long.MAX_VALUE)) > 0)
-                    throwRangeException(obj.toString(), col, Types.BIGINT);
+                    throwRangeException(tmp.toString(), col, Types.BIGINT);
                 return tmp.longValue();
             }
-            case TSDB_DATA_TYPE_TIMESTAMP: {
-                Timestamp ts = (Timestamp) obj;
-                switch (this.timestampPrecision) {
-                    case TimestampPrecision.MS:
-                    default:
-                        return ts.getTime();
-                    case TimestampPrecision.US:
-                        return ts.getTime() * 1000 + ts.getNanos() / 1000 % 1000;
-                    case TimestampPrecision.NS:
-                        return ts.getTime() * 1000_000 + ts.getNanos() % 1000_000;
-                }
-            }
-
+            case TSDB_DATA_TYPE_TIMESTAMP:
+                // the raw value is in the precision of the database
+                return block.getLong(col, rowIndex);
             case TSDBConstants.TSDB_DATA_TYPE_FLOAT: {
-                float tmp = (float) obj;
+                float tmp = block.getFloat(col, rowIndex);
                 if (tmp < Long.MIN_VALUE || tmp > Long.MAX_VALUE)
-                    throwRangeException(obj.toString(), col, Types.BIGINT);
+                    throwRangeException(String.valueOf(tmp), col, Types.BIGINT);
                 return (long) tmp;
             }
             case TSDBConstants.TSDB_DATA_TYPE_DOUBLE: {
-                double tmp = (Double) obj;
+                double tmp = block.getDouble(col, rowIndex);
                 if (tmp < Long.MIN_VALUE || tmp > Long.MAX_VALUE)
-                    throwRangeException(obj.toString(), col, Types.BIGINT);
+                    throwRangeException(String.valueOf(tmp), col, Types.BIGINT);
                 return (long) tmp;
             }
-
-            case TSDBConstants.TSDB_DATA_TYPE_NCHAR: {
-                return Long.parseLong((String) obj);
-            }
+            case TSDBConstants.TSDB_DATA_TYPE_NCHAR:
+                return Long.parseLong(block.getNString(col, rowIndex));
             case TSDBConstants.TSDB_DATA_TYPE_JSON:
-            case TSDBConstants.TSDB_DATA_TYPE_BINARY: {
-                String charset = TaosGlobalConfig.getCharset();
-                try {
-                    return Long.parseLong(new String((byte[]) obj, charset));
-                } catch (UnsupportedEncodingException e) {
-                    throw new RuntimeException(e.getMessage());
-                }
-            }
+            case TSDBConstants.TSDB_DATA_TYPE_BINARY:
+                return Long.parseLong(block.getString(col, rowIndex, charset()));
         }
 
         return 0;
@@ -501,141 +305,100 @@ public class TSDBResultSetBlockData {
     }
 
     public Timestamp getTimestamp(int col) throws SQLException {
-        Object obj = get(col);
-        if (obj == null) {
-            wasNull = true;
+        if (isNull(col))
             return null;
-        }
-        wasNull = false;
-        int type = this.columnMetaDataList.get(col).getColType();
-        if (type == TSDB_DATA_TYPE_BIGINT)
-            return parseTimestampColumnData((long) obj);
-        if (type == TSDB_DATA_TYPE_TIMESTAMP)
-            return (Timestamp) obj;
+        int type = types[col];
+        if (type == TSDB_DATA_TYPE_BIGINT || type == TSDB_DATA_TYPE_TIMESTAMP)
+            return parseTimestampColumnData(block.getLong(col, rowIndex));
 
         return new Timestamp(getLong(col));
     }
 
     public double getDouble(int col) throws SQLException {
-        Object obj = get(col);
-        if (obj == null) {
-            wasNull = true;
+        if (isNull(col))
             return 0;
-        }
-        wasNull = false;
-        int type = this.columnMetaDataList.get(col).getColType();
-        switch (type) {
+        switch (types[col]) {
             case TSDBConstants.TSDB_DATA_TYPE_BOOL:
-                return (boolean) obj ? 1 : 0;
+                return block.getByte(col, rowIndex) == 0 ? 0 : 1;
             case TSDBConstants.TSDB_DATA_TYPE_TINYINT:
-                return (byte) obj;
+                return block.getByte(col, rowIndex);
             case TSDB_DATA_TYPE_UTINYINT:
+                return parseUTinyInt(block.getByte(col, rowIndex));
             case TSDBConstants.TSDB_DATA_TYPE_SMALLINT:
-                return (short) obj;
+                return block.getShort(col, rowIndex);
             case TSDB_DATA_TYPE_USMALLINT:
-            case TSDBConstants.TSDB_DATA_TYPE_INT: {
-                return (int) obj;
-            }
+                return parseUSmallInt(block.getShort(col, rowIndex));
+            case TSDBConstants.TSDB_DATA_TYPE_INT:
+                return block.getInt(col, rowIndex);
             case TSDB_DATA_TYPE_UINT:
+                return parseUInteger(block.getInt(col, rowIndex));
             case TSDBConstants.TSDB_DATA_TYPE_BIGINT:
-                return (long) obj;
+                return block.getLong(col, rowIndex);
             case TSDB_DATA_TYPE_UBIGINT: {
-                BigDecimal tmp = (BigDecimal) obj;
+                BigDecimal tmp = parseUBigInt(block.getLong(col, rowIndex));
                 if (tmp.compareTo(new BigDecimal(Double.MIN_VALUE)) < 0 || tmp.compareTo(new BigDecimal(Double.MAX_VALUE)) > 0)
-                    throwRangeException(obj.toString(), col, Types.TIMESTAMP);
+                    throwRangeException(tmp.toString(), col, Types.TIMESTAMP);
                 return tmp.floatValue();
             }
-            case TSDBConstants.TSDB_DATA_TYPE_TIMESTAMP: {
-                Timestamp ts = (Timestamp) obj;
-                switch (this.timestampPrecision) {
-                    case TimestampPrecision.MS:
-                    default:
-                        return ts.getTime();
-                    case TimestampPrecision.US:
-                        return ts.getTime() * 1000 + ts.getNanos() / 1000 % 1000;
-                    case TimestampPrecision.NS:
-                        return ts.getTime() * 1000_000 + ts.getNanos() % 1000_000;
-                }
-            }
-
+            case TSDBConstants.TSDB_DATA_TYPE_TIMESTAMP:
+                return block.getLong(col, rowIndex);
             case TSDBConstants.TSDB_DATA_TYPE_FLOAT:
-                return Double.parseDouble(String.valueOf(obj));
-            case TSDBConstants.TSDB_DATA_TYPE_DOUBLE: {
-                return (double) obj;
-            }
-
-            case TSDBConstants.TSDB_DATA_TYPE_NCHAR: {
-                return Double.parseDouble((String) obj);
-            }
+                return Double.parseDouble(String.valueOf(block.getFloat(col, rowIndex)));
+            case TSDBConstants.TSDB_DATA_TYPE_DOUBLE:
+                return block.getDouble(col, rowIndex);
+            case TSDBConstants.TSDB_DATA_TYPE_NCHAR:
+                return Double.parseDouble(block.getNString(col, rowIndex));
             case TSDBConstants.TSDB_DATA_TYPE_JSON:
-            case TSDBConstants.TSDB_DATA_TYPE_BINARY: {
-                String charset = TaosGlobalConfig.getCharset();
-                try {
-                    return Double.parseDouble(new String((byte[]) obj, charset));
-                } catch (UnsupportedEncodingException e) {
-                    throw new RuntimeException(e.getMessage());
-                }
-            }
+            case TSDBConstants.TSDB_DATA_TYPE_BINARY:
+                return Double.parseDouble(block.getString(col, rowIndex, charset()));
         }
 
         return 0;
     }
 
     public Object get(int col) {
-        List<Object> bb = this.colData.get(col);
-
-        Object source = bb.get(this.rowIndex);
-        if (null == source) {
-            wasNull = true;
+        if (isNull(col))
             return null;
-        }
-        wasNull = false;
-        switch (this.columnMetaDataList.get(col).getColType()) {
-            case TSDB_DATA_TYPE_BOOL: {
-                byte val = (byte) source;
-                return (val == 0x0) ? Boolean.FALSE : Boolean.TRUE;
-            }
-
+        switch (types[col]) {
+            case TSDB_DATA_TYPE_BOOL:
+                return (block.getByte(col, rowIndex) == 0x0) ? Boolean.FALSE : Boolean.TRUE;
             case TSDB_DATA_TYPE_TINYINT:
+                return block.getByte(col, rowIndex);
             case TSDB_DATA_TYPE_SMALLINT:
+                return block.getShort(col, rowIndex);
             case TSDB_DATA_TYPE_INT:
+                return block.getInt(col, rowIndex);
             case TSDB_DATA_TYPE_BIGINT:
+                return block.getLong(col, rowIndex);
             case TSDB_DATA_TYPE_FLOAT:
+                return block.getFloat(col, rowIndex);
             case TSDB_DATA_TYPE_DOUBLE:
+                return block.getDouble(col, rowIndex);
             case TSDB_DATA_TYPE_NCHAR:
+                return block.getNString(col, rowIndex);
             case TSDB_DATA_TYPE_BINARY:
-            case TSDB_DATA_TYPE_JSON: {
-                return source;
-            }
-            case TSDB_DATA_TYPE_UTINYINT: {
-                byte val = (byte) source;
-                return parseUTinyInt(val);
-            }
-            case TSDB_DATA_TYPE_USMALLINT: {
-                short val = (short) source;
-                return parseUSmallInt(val);
-            }
-            case TSDB_DATA_TYPE_UINT: {
-                int val = (int) source;
-                return parseUInteger(val);
-            }
-
-            case TSDB_DATA_TYPE_TIMESTAMP: {
-                long val = (long) source;
-
-                return parseTimestampColumnData(val);
-            }
-
-            case TSDB_DATA_TYPE_UBIGINT: {
-                long val = (long) source;
-                return parseUBigInt(val);
-            }
+            case TSDB_DATA_TYPE_JSON:
+                return block.getBytes(col, rowIndex);
+            case TSDB_DATA_TYPE_UTINYINT:
+                return parseUTinyInt(block.getByte(col, rowIndex));
+            case TSDB_DATA_TYPE_USMALLINT:
+                return parseUSmallInt(block.getShort(col, rowIndex));
+            case TSDB_DATA_TYPE_UINT:
+                return parseUInteger(block.getInt(col, rowIndex));
+            case TSDB_DATA_TYPE_TIMESTAMP:
+                return parseTimestampColumnData(block.getLong(col, rowIndex));
+            case TSDB_DATA_TYPE_UBIGINT:
+                return parseUBigInt(block.getLong(col, rowIndex));
             default:
                 // unknown type, do nothing
                 return null;
         }
     }
 
+    private static Charset charset() {
+        return Charset.forName(TaosGlobalConfig.getCharset());
+    }
+
     private Timestamp parseTimestampColumnData(long value) {
         if (TimestampPrecision.MS == timestampPrecision)
             return new Timestamp(value);
@@ -652,15 +415,4 @@ public class TSDBResultSetBlockData {
         }
         return null;
     }
-
-    // ceil(numOfRows/8.0)
-    private int BitmapLen(int n) {
-        return (n + 0x7) >> 3;
-    }
-
-    private boolean isNull(byte[] c, int n) {
-        int position = n >>> 3;
-        int index = n & 0x7;
-        return (c[position] & (1 << (7 - index))) == (1 << (7 - index));
-    }
 }
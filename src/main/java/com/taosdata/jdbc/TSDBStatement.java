@@ -14,21 +14,28 @@
  *****************************************************************************/
 package com.taosdata.jdbc;
 
+import com.taosdata.jdbc.utils.QueryTimeoutExecutor;
+import com.taosdata.jdbc.utils.SqlSyntaxValidator;
+import com.taosdata.jdbc.utils.TaosInfo;
+
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.SQLTimeoutException;
 import java.util.concurrent.*;
+import java.util.function.Consumer;
 
 public class TSDBStatement extends AbstractStatement {
     /**
      * Status of current statement
      */
-    private boolean isClosed;
+    private volatile boolean isClosed;
     private TSDBConnection connection;
-    private TSDBResultSet resultSet;
+    private volatile TSDBResultSet resultSet;
 
     private int queryTimeout;
+    // query running in the background because of queryTimeout
+    private volatile CompletableFuture<?> running;
 
     TSDBStatement(TSDBConnection connection) {
         this.connection = connection;
@@ -41,20 +48,7 @@ public class TSDBStatement extends AbstractStatement {
 
     public ResultSet executeQuery(String sql, Long reqId) throws SQLException {
         if (queryTimeout > 0) {
-            ExecutorService executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
-                    new ArrayBlockingQueue<>(1), Executors.defaultThreadFactory(), new ThreadPoolExecutor.CallerRunsPolicy());
-            Future<ResultSet> f = executor.submit(() -> executeQueryImpl(sql, reqId));
-
-            try {
-                return f.get(this.queryTimeout, TimeUnit.SECONDS);
-            } catch (InterruptedException | ExecutionException e) {
-                throw new SQLException("failed to execute sql: " + sql + ", cause: " + e.getMessage(), e);
-            } catch (TimeoutException e) {
-                f.cancel(true);
-                throw new SQLTimeoutException("failed to execute sql: " + sql + ", cause: the execution time exceeds timeout: " + this.queryTimeout + " seconds");
-            } finally {
-                executor.shutdownNow();
-            }
+            return executeWithTimeout(sql, () -> executeQueryImpl(sql, reqId), TSDBStatement::closeQuietly);
         } else {
             return executeQueryImpl(sql, reqId);
         }
@@ -73,16 +67,45 @@ public class TSDBStatement extends AbstractStatement {
             // we use this pSql and invoke the isUpdateQuery(long pSql) method to decide .
             // but the insert sql is already executed in database.
             //execute query
-            long pSql = this.connection.getConnector().executeQuery(sql, reqId);
+            long pSql = executeNative(sql, reqId);
             // if pSql is create/insert/update/delete/alter SQL
             if (this.connection.getConnector().isUpdateQuery(pSql)) {
                 this.connection.getConnector().freeResultSet(pSql);
                 throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_INVALID_WITH_EXECUTEQUERY);
             }
-            int timestampPrecision = this.connection.getConnector().getResultTimePrecision(pSql);
-            resultSet = new TSDBResultSet(this, this.connection.getConnector(), pSql, timestampPrecision);
-            resultSet.setBatchFetch(this.connection.getBatchFetch());
-            return resultSet;
+            return newResultSet(pSql);
+        }
+    }
+
+    /**
+     * cached stmts were prepared for the database before a "use", so they are closed after it
+     */
+    private long executeNative(String sql, Long reqId) throws SQLException {
+        long pSql = this.connection.getConnector().executeQuery(sql, reqId);
+        if (SqlSyntaxValidator.isUseSql(sql)) {
+            this.connection.getStmtCache().clear();
+        }
+        return pSql;
+    }
+
+    private TSDBResultSet newResultSet(long pSql) throws SQLException {
+        int timestampPrecision = this.connection.getConnector().getResultTimePrecision(pSql);
+        TSDBResultSet rs = new TSDBResultSet(this, this.connection.getConnector(), pSql, timestampPrecision);
+        rs.setBatchFetch(this.connection.getBatchFetch());
+        this.resultSet = rs;
+        // close doesn't wait for a query running with a timeout, the result set of such a query is freed here
+        if (isClosed) {
+            rs.close();
+            throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_STATEMENT_CLOSED);
+        }
+        return rs;
+    }
+
+    private static void closeQuietly(ResultSet resultSet) {
+        try {
+            resultSet.close();
+        } catch (SQLException e) {
+            // ignore
         }
     }
 
@@ -92,21 +115,7 @@ public class TSDBStatement extends AbstractStatement {
 
     public int executeUpdate(String sql, Long reqId) throws SQLException {
         if (queryTimeout > 0) {
-            ExecutorService executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
-                    new ArrayBlockingQueue<>(1), Executors.defaultThreadFactory(), new ThreadPoolExecutor.CallerRunsPolicy());
-
-            Future<Integer> f = executor.submit(() -> executeUpdateImpl(sql, reqId));
-
-            try {
-                return f.get(this.queryTimeout, TimeUnit.SECONDS);
-            } catch (InterruptedException | ExecutionException e) {
-                throw new SQLException("failed to execute sql: " + sql + ", cause: " + e.getMessage(), e);
-            } catch (TimeoutException e) {
-                f.cancel(true);
-                throw new SQLTimeoutException("failed to execute sql: " + sql + ", cause: the execution time exceeds timeout: " + this.queryTimeout + " seconds");
-            } finally {
-                executor.shutdownNow();
-            }
+            return executeWithTimeout(sql, () -> executeUpdateImpl(sql, reqId), null);
         } else {
             return executeUpdateImpl(sql, reqId);
         }
@@ -120,7 +129,7 @@ public class TSDBStatement extends AbstractStatement {
             if (this.resultSet != null && !this.resultSet.isClosed())
                 this.resultSet.close();
 
-            long pSql = this.connection.getConnector().executeQuery(sql, reqId);
+            long pSql = executeNative(sql, reqId);
             // if pSql is create/insert/update/delete/alter SQL
             if (!this.connection.getConnector().isUpdateQuery(pSql)) {
                 this.connection.getConnector().freeResultSet(pSql);
@@ -132,6 +141,47 @@ public class TSDBStatement extends AbstractStatement {
         }
     }
 
+    /**
+     * wait for the query up to queryTimeout. the JNI query can't be stopped, on timeout or cancel the caller
+     * returns and the result of the query is given to discard once it completes.
+     */
+    private <T> T executeWithTimeout(String sql, Callable<T> task, Consumer<? super T> discard) throws SQLException {
+        CompletableFuture<T> f = QueryTimeoutExecutor.submit(task, discard);
+        running = f;
+        try {
+            try {
+                return f.get(this.queryTimeout, TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                if (f.cancel(false)) {
+                    TaosInfo.getInstance().query_timeout_increment();
+                    throw new SQLTimeoutException("failed to execute sql: " + sql + ", cause: the execution time exceeds timeout: " + this.queryTimeout + " seconds");
+                }
+                // completed at the deadline
+                return f.get();
+            }
+        } catch (CancellationException e) {
+            throw new SQLException("failed to execute sql: " + sql + ", cause: the execution has been cancelled", e);
+        } catch (InterruptedException | ExecutionException e) {
+            throw new SQLException("failed to execute sql: " + sql + ", cause: " + e.getMessage(), e);
+        } finally {
+            running = null;
+        }
+    }
+
+    /**
+     * stop waiting for the query executed with a query timeout
+     */
+    @Override
+    public void cancel() throws SQLException {
+        CompletableFuture<?> f = running;
+        if (f == null) {
+            super.cancel();
+            return;
+        }
+        if (f.cancel(false))
+            TaosInfo.getInstance().query_cancel_increment();
+    }
+
     @Override
     public void setQueryTimeout(int queryTimeout) throws SQLException {
         super.setQueryTimeout(queryTimeout);
@@ -159,21 +209,11 @@ public class TSDBStatement extends AbstractStatement {
 
     public boolean execute(String sql, Long reqId) throws SQLException {
         if (queryTimeout > 0) {
-            ExecutorService executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
-                    new ArrayBlockingQueue<>(1), Executors.defaultThreadFactory(), new ThreadPoolExecutor.CallerRunsPolicy());
-
-            Future<Boolean> f = executor.submit(() -> executeImpl(sql, reqId));
-
-            try {
-                return f.get(this.queryTimeout, TimeUnit.SECONDS);
-            } catch (InterruptedException | ExecutionException e) {
-                throw new SQLException("failed to execute sql: " + sql + ", cause: " + e.getMessage(), e);
-            } catch (TimeoutException e) {
-                f.cancel(true);
-                throw new SQLTimeoutException("failed to execute sql: " + sql + ", cause: the execution time exceeds timeout: " + this.queryTimeout + " seconds");
-            } finally {
-                executor.shutdownNow();
-            }
+            return executeWithTimeout(sql, () -> {
+                synchronized (this) {
+                    return executeImpl(sql, reqId) ? this.resultSet : null;
+                }
+            }, TSDBStatement::closeQuietly) != null;
         } else {
             return executeImpl(sql, reqId);
         }
@@ -189,7 +229,7 @@ public class TSDBStatement extends AbstractStatement {
                 this.resultSet.close();
 
             // execute query
-            long pSql = this.connection.getConnector().executeQuery(sql, reqId);
+            long pSql = executeNative(sql, reqId);
             // if pSql is create/insert/update/delete/alter SQL
             if (this.connection.getConnector().isUpdateQuery(pSql)) {
                 this.affectedRows = this.connection.getConnector().getAffectedRows(pSql);
@@ -197,9 +237,7 @@ public class TSDBStatement extends AbstractStatement {
                 return false;
             }
 
-            int timestampPrecision = this.connection.getConnector().getResultTimePrecision(pSql);
-            this.resultSet = new TSDBResultSet(this, this.connection.getConnector(), pSql, timestampPrecision);
-            this.resultSet.setBatchFetch(this.connection.getBatchFetch());
+            newResultSet(pSql);
             return true;
         }
     }
@@ -0,0 +1,18 @@
+package com.taosdata.jdbc.common;
+
+/**
+ * a column of stmt parameters written into a raw block by {@link SerializeBlock}
+ */
+public interface BindColumn {
+
+    int getIndex();
+
+    /**
+     * taos data type
+     */
+    int getType();
+
+    int getRows();
+
+    boolean isNull(int row);
+}
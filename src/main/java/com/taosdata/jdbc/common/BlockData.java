@@ -0,0 +1,186 @@
+package com.taosdata.jdbc.common;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+import static com.taosdata.jdbc.TSDBConstants.*;
+
+/**
+ * column-oriented view of one raw block.
+ * only the position of each column's null bitmap and data are computed when the block is received,
+ * values are read directly from the buffer at (column, row) when they are accessed.
+ */
+public class BlockData {
+    private static final int NULL_OFFSET = -1;
+
+    private final int numOfRows;
+    private final int[] types;
+    private final ByteBuffer buffer;
+    // absolute position of the null bitmap of fixed-length columns, -1 for variable-length columns
+    private final int[] bitmapOffsets;
+    // absolute position of the values of fixed-length columns, or of the offsets of variable-length columns
+    private final int[] dataOffsets;
+    // absolute position of the data of variable-length columns
+    private final int[] varDataOffsets;
+
+    private BlockData(ByteBuffer buffer, int[] types, int numOfRows) {
+        this.buffer = buffer;
+        this.types = types;
+        this.numOfRows = numOfRows;
+        this.bitmapOffsets = new int[types.length];
+        this.dataOffsets = new int[types.length];
+        this.varDataOffsets = new int[types.length];
+    }
+
+    /**
+     * index a raw block starting at the current position of buffer, no value is copied out.
+     * the buffer must be in little endian order and must not be modified afterwards.
+     */
+    public static BlockData parse(ByteBuffer buffer, int[] types, int numOfRows) {
+        BlockData block = new BlockData(buffer, types, numOfRows);
+        int numOfCols = types.length;
+        int bitMapOffset = bitmapLen(numOfRows);
+        // 28 bytes block header, 5 bytes schema (type + bytes) per column
+        int pHeader = buffer.position() + 28 + numOfCols * 5;
+        int pLength = pHeader;
+        pHeader += numOfCols * 4;
+
+        for (int i = 0; i < numOfCols; i++) {
+            int length;
+            switch (types[i]) {
+                case TSDB_DATA_TYPE_BOOL:
+                case TSDB_DATA_TYPE_TINYINT:
+                case TSDB_DATA_TYPE_UTINYINT:
+                case TSDB_DATA_TYPE_SMALLINT:
+                case TSDB_DATA_TYPE_USMALLINT:
+                case TSDB_DATA_TYPE_INT:
+                case TSDB_DATA_TYPE_UINT:
+                case TSDB_DATA_TYPE_BIGINT:
+                case TSDB_DATA_TYPE_UBIGINT:
+                case TSDB_DATA_TYPE_TIMESTAMP:
+                case TSDB_DATA_TYPE_FLOAT:
+                case TSDB_DATA_TYPE_DOUBLE: {
+                    length = bitMapOffset;
+                    block.bitmapOffsets[i] = pHeader;
+                    block.dataOffsets[i] = pHeader + length;
+                    block.varDataOffsets[i] = NULL_OFFSET;
+                    break;
+                }
+                case TSDB_DATA_TYPE_BINARY:
+                case TSDB_DATA_TYPE_JSON:
+                case TSDB_DATA_TYPE_NCHAR: {
+                    length = numOfRows * 4;
+                    block.bitmapOffsets[i] = NULL_OFFSET;
+                    block.dataOffsets[i] = pHeader;
+                    block.varDataOffsets[i] = pHeader + length;
+                    break;
+                }
+                default:
+                    // unknown type, do nothing
+                    length = 0;
+                    block.bitmapOffsets[i] = NULL_OFFSET;
+                    block.dataOffsets[i] = NULL_OFFSET;
+                    block.varDataOffsets[i] = NULL_OFFSET;
+                    break;
+            }
+            pHeader += length + buffer.getInt(pLength + i * 4);
+        }
+        return block;
+    }
+
+    public int getNumOfRows() {
+        return numOfRows;
+    }
+
+    public int getNumOfCols() {
+        return types.length;
+    }
+
+    public boolean isNull(int col, int row) {
+        int bitmap = bitmapOffsets[col];
+        if (bitmap != NULL_OFFSET) {
+            int position = row >>> 3;
+            int index = row & 0x7;
+            return (buffer.get(bitmap + position) & (1 << (7 - index))) == (1 << (7 - index));
+        }
+        if (dataOffsets[col] == NULL_OFFSET) {
+            return true;
+        }
+        return buffer.getInt(dataOffsets[col] + row * 4) == NULL_OFFSET;
+    }
+
+    public byte getByte(int col, int row) {
+        return buffer.get(dataOffsets[col] + row);
+    }
+
+    public short getShort(int col, int row) {
+        return buffer.getShort(dataOffsets[col] + row * Short.BYTES);
+    }
+
+    public int getInt(int col, int row) {
+        return buffer.getInt(dataOffsets[col] + row * Integer.BYTES);
+    }
+
+    public long getLong(int col, int row) {
+        return buffer.getLong(dataOffsets[col] + row * Long.BYTES);
+    }
+
+    public float getFloat(int col, int row) {
+        return buffer.getFloat(dataOffsets[col] + row * Float.BYTES);
+    }
+
+    public double getDouble(int col, int row) {
+        return buffer.getDouble(dataOffsets[col] + row * Double.BYTES);
+    }
+
+    /**
+     * raw bytes of a BINARY or JSON value
+     */
+    public byte[] getBytes(int col, int row) {
+        int position = varPosition(col, row);
+        int len = buffer.getShort(position) & 0xFFFF;
+        byte[] tmp = new byte[len];
+        if (buffer.hasArray()) {
+            System.arraycopy(buffer.array(), buffer.arrayOffset() + position + 2, tmp, 0, len);
+        } else {
+            for (int i = 0; i < len; i++) {
+                tmp[i] = buffer.get(position + 2 + i);
+            }
+        }
+        return tmp;
+    }
+
+    /**
+     * decode a BINARY or JSON value without an intermediate copy when the buffer is array-backed
+     */
+    public String getString(int col, int row, Charset charset) {
+        int position = varPosition(col, row);
+        int len = buffer.getShort(position) & 0xFFFF;
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + position + 2, len, charset);
+        }
+        return new String(getBytes(col, row), charset);
+    }
+
+    /**
+     * decode a NCHAR value, stored as UCS-4 code points
+     */
+    public String getNString(int col, int row) {
+        int position = varPosition(col, row);
+        int len = (buffer.getShort(position) & 0xFFFF) / 4;
+        int[] tmp = new int[len];
+        for (int i = 0; i < len; i++) {
+            tmp[i] = buffer.getInt(position + 2 + i * 4);
+        }
+        return new String(tmp, 0, len);
+    }
+
+    private int varPosition(int col, int row) {
+        return varDataOffsets[col] + buffer.getInt(dataOffsets[col] + row * 4);
+    }
+
+    //    ceil(numOfRows/8.0)
+    private static int bitmapLen(int n) {
+        return (n + 0x7) >> 3;
+    }
+}
@@ -0,0 +1,262 @@
+package com.taosdata.jdbc.common;
+
+import com.taosdata.jdbc.enums.DataLength;
+import com.taosdata.jdbc.enums.TimestampPrecision;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.sql.Timestamp;
+
+import static com.taosdata.jdbc.TSDBConstants.*;
+
+/**
+ * column of a stmt batch encoded in the raw block format as rows are added.
+ * fixed-length values are appended in little endian with the null bitmap maintained alongside,
+ * variable-length values are appended with their offsets, so the column is written into the block
+ * with one bulk copy per part.
+ */
+public class ColumnAccumulator implements BindColumn {
+    private static final int INITIAL_ROWS = 16;
+
+    private final int index;
+    private final int type;
+    private final int typeLength;
+    private final boolean variable;
+    private final int precision;
+    private int rows;
+
+    // fixed-length: null bitmap and values
+    private byte[] bitmap;
+    // variable-length: offset of each row, -1 for null
+    private ByteBuffer offsets;
+    private ByteBuffer values;
+
+    public ColumnAccumulator(int columnIndex, int type, int precision) {
+        this.index = columnIndex;
+        this.type = type;
+        this.precision = precision;
+        switch (type) {
+            case TSDB_DATA_TYPE_BINARY:
+            case TSDB_DATA_TYPE_JSON:
+            case TSDB_DATA_TYPE_NCHAR:
+                this.typeLength = 0;
+                this.variable = true;
+                this.offsets = allocate(INITIAL_ROWS * Integer.BYTES);
+                this.values = allocate(INITIAL_ROWS * 16);
+                break;
+            case TSDB_DATA_TYPE_BOOL:
+                this.typeLength = DataLength.TSDB_DATA_TYPE_BOOL.getLength();
+                this.variable = false;
+                break;
+            case TSDB_DATA_TYPE_TINYINT:
+                this.typeLength = DataLength.TSDB_DATA_TYPE_TINYINT.getLength();
+                this.variable = false;
+                break;
+            case TSDB_DATA_TYPE_SMALLINT:
+                this.typeLength = DataLength.TSDB_DATA_TYPE_SMALLINT.getLength();
+                this.variable = false;
+                break;
+            case TSDB_DATA_TYPE_INT:
+                this.typeLength = DataLength.TSDB_DATA_TYPE_INT.getLength();
+                this.variable = false;
+                break;
+            case TSDB_DATA_TYPE_BIGINT:
+                this.typeLength = DataLength.TSDB_DATA_TYPE_BIGINT.getLength();
+                this.variable = false;
+                break;
+            case TSDB_DATA_TYPE_FLOAT:
+                this.typeLength = DataLength.TSDB_DATA_TYPE_FLOAT.getLength();
+                this.variable = false;
+                break;
+            case TSDB_DATA_TYPE_DOUBLE:
+                this.typeLength = DataLength.TSDB_DATA_TYPE_DOUBLE.getLength();
+                this.variable = false;
+                break;
+            case TSDB_DATA_TYPE_TIMESTAMP:
+                this.typeLength = DataLength.TSDB_DATA_TYPE_TIMESTAMP.getLength();
+                this.variable = false;
+                break;
+            default:
+                // unsigned types are not supported by the stmt raw block yet, nothing is written
+                this.typeLength = 0;
+                this.variable = false;
+                break;
+        }
+        if (!variable && typeLength > 0) {
+            this.bitmap = new byte[INITIAL_ROWS >> 3];
+            this.values = allocate(INITIAL_ROWS * typeLength);
+        }
+    }
+
+    public void add(Object data) {
+        if (variable) {
+            addVariable(data);
+        } else if (typeLength > 0) {
+            addFixed(data);
+        }
+        rows++;
+    }
+
+    private void addFixed(Object data) {
+        int bitmapLen = (rows >> 3) + 1;
+        if (bitmapLen > bitmap.length) {
+            byte[] tmp = new byte[bitmap.length << 1];
+            System.arraycopy(bitmap, 0, tmp, 0, bitmap.length);
+            bitmap = tmp;
+        }
+        ensure(typeLength);
+        if (data == null) {
+            bitmap[rows >> 3] |= (byte) (1 << (7 - (rows & 0x7)));
+            for (int i = 0; i < typeLength; i++) {
+                values.put((byte) 0);
+            }
+            return;
+        }
+        switch (getType()) {
+            case TSDB_DATA_TYPE_BOOL:
+                values.put((Boolean) data ? (byte) 1 : (byte) 0);
+                break;
+            case TSDB_DATA_TYPE_TINYINT:
+                values.put((Byte) data);
+                break;
+            case TSDB_DATA_TYPE_SMALLINT:
+                values.putShort((Short) data);
+                break;
+            case TSDB_DATA_TYPE_INT:
+                values.putInt((Integer) data);
+                break;
+            case TSDB_DATA_TYPE_BIGINT:
+                values.putLong((Long) data);
+                break;
+            case TSDB_DATA_TYPE_FLOAT:
+                values.putFloat((Float) data);
+                break;
+            case TSDB_DATA_TYPE_DOUBLE:
+                values.putDouble((Double) data);
+                break;
+            case TSDB_DATA_TYPE_TIMESTAMP: {
+                Timestamp t = (Timestamp) data;
+                if (precision == TimestampPrecision.MS) {
+                    values.putLong(t.getTime());
+                } else if (precision == TimestampPrecision.US) {
+                    values.putLong(t.getTime() * 1000L + t.getNanos() / 1000 % 1000);
+                } else {
+                    values.putLong(t.getTime() * 1000_000L + t.getNanos() % 1000_000L);
+                }
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    private void addVariable(Object data) {
+        if (offsets.remaining() < Integer.BYTES) {
+            offsets = grow(offsets, Integer.BYTES);
+        }
+        if (data == null) {
+            offsets.putInt(-1);
+            return;
+        }
+        offsets.putInt(values.position());
+        if (getType() == TSDB_DATA_TYPE_NCHAR) {
+            String v = (String) data;
+            int codePoints = v.codePointCount(0, v.length());
+            ensure(Short.BYTES + codePoints * 4);
+            values.putShort((short) (codePoints * 4));
+            for (int i = 0; i < v.length(); ) {
+                int codePoint = v.codePointAt(i);
+                values.putInt(codePoint);
+                i += Character.charCount(codePoint);
+            }
+        } else {
+            byte[] v = (byte[]) data;
+            ensure(Short.BYTES + v.length);
+            values.putShort((short) v.length);
+            values.put(v);
+        }
+    }
+
+    private void ensure(int length) {
+        if (values.remaining() < length) {
+            values = grow(values, length);
+        }
+    }
+
+    private static ByteBuffer allocate(int capacity) {
+        ByteBuffer buffer = ByteBuffer.allocate(capacity);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int length) {
+        ByteBuffer tmp = allocate(Math.max(buffer.capacity() << 1, buffer.position() + length));
+        tmp.put(buffer.array(), 0, buffer.position());
+        return tmp;
+    }
+
+    @Override
+    public int getIndex() {
+        return index;
+    }
+
+    @Override
+    public int getType() {
+        return type;
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public boolean isNull(int row) {
+        if (variable)
+            return offsets.getInt(row * Integer.BYTES) == -1;
+        return typeLength > 0 && (bitmap[row >> 3] & (1 << (7 - (row & 0x7)))) != 0;
+    }
+
+
+    /**
+     * type written in the column schema of the block, 0 for unsupported types
+     */
+    int getBlockType() {
+        return variable || typeLength > 0 ? getType() : 0;
+    }
+
+    /**
+     * bytes of a value written in the column schema of the block, 0 for variable-length types
+     */
+    int getTypeLength() {
+        return typeLength;
+    }
+
+    /**
+     * length of the column written in the lengths of the block
+     */
+    int getDataLength() {
+        return variable ? values.position() : rows * typeLength;
+    }
+
+    /**
+     * bytes written by {@link #writeTo}
+     */
+    int getBlockLength() {
+        if (variable)
+            return rows * Integer.BYTES + values.position();
+        if (typeLength == 0)
+            return 0;
+        return ((rows + 7) >> 3) + rows * typeLength;
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        if (variable) {
+            buffer.put(offsets.array(), 0, offsets.position());
+            buffer.put(values.array(), 0, values.position());
+        } else if (typeLength > 0) {
+            buffer.put(bitmap, 0, (rows + 7) >> 3);
+            buffer.put(values.array(), 0, values.position());
+        }
+    }
+}
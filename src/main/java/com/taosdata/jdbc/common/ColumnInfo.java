@@ -1,10 +1,16 @@
 package com.taosdata.jdbc.common;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 
-public class ColumnInfo implements Comparable<ColumnInfo> {
+public class ColumnInfo implements BindColumn, Comparable<ColumnInfo> {
     private List<Object> dataList = new ArrayList<>();
+    // values of a column bound as a whole: a primitive array, or an array of objects for variable-length types
+    private Object values;
+    private int rows;
+    // rows set are null, may be null when no row is null
+    private BitSet nulls;
     // taos data type
     private final int type;
     private final int index;
@@ -21,6 +27,17 @@ public class ColumnInfo implements Comparable<ColumnInfo> {
         this.type = type;
     }
 
+    /**
+     * a column of rows values, read from the array when the block is serialized
+     */
+    public ColumnInfo(int columnIndex, Object values, int rows, BitSet nulls, int type) {
+        this.index = columnIndex;
+        this.values = values;
+        this.rows = rows;
+        this.nulls = nulls;
+        this.type = type;
+    }
+
     public void add(Object data) {
         this.dataList.add(data);
     }
@@ -29,10 +46,44 @@ public class ColumnInfo implements Comparable<ColumnInfo> {
         return dataList;
     }
 
+    /**
+     * the array of a column bound as a whole, null for a column of boxed values
+     */
+    public Object getValues() {
+        return values;
+    }
+
+    @Override
+    public int getRows() {
+        return values == null ? dataList.size() : rows;
+    }
+
+    @Override
+    public boolean isNull(int row) {
+        if (values == null)
+            return dataList.get(row) == null;
+        if (values instanceof Object[] && ((Object[]) values)[row] == null)
+            return true;
+        return nulls != null && nulls.get(row);
+    }
+
+    /**
+     * the boxed value of a column of boxed values, or the element of an array of objects
+     */
+    public Object get(int row) {
+        if (values == null)
+            return dataList.get(row);
+        if (isNull(row))
+            return null;
+        return ((Object[]) values)[row];
+    }
+
+    @Override
     public int getType() {
         return type;
     }
 
+    @Override
     public int getIndex() {
         return index;
     }
@@ -3,11 +3,10 @@ package com.taosdata.jdbc.common;
 import com.taosdata.jdbc.enums.DataLength;
 import com.taosdata.jdbc.enums.TimestampPrecision;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.sql.SQLException;
 import java.sql.Timestamp;
-import java.util.ArrayList;
 import java.util.List;
 
 import static com.taosdata.jdbc.TSDBConstants.*;
@@ -32,393 +31,292 @@ public class SerializeBlock {
         return (byte) (c + (1 << (7 - bitPos(n))));
     }
 
-    public static byte[] getRawBlock(List<ColumnInfo> list, int precision) throws IOException, SQLException {
-        int columns = list.size();
-        int rows = list.get(0).getDataList().size();
-
-        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
-        // version int32
-        buffer.write(intToBytes(1));
-        // length int32
-        buffer.write(intToBytes(0));
-        // rows int32
-        buffer.write(intToBytes(rows));
-        // columns int32
-        buffer.write(intToBytes(columns));
-        // flagSegment int32
-        buffer.write(intToBytes(0));
-        // groupID uint64
-        buffer.write(longToBytes(0));
-
-        byte[] colInfoData = new byte[5 * columns];
-        byte[] lengthData = new byte[4 * columns];
+    public static byte[] getRawBlock(List<? extends BindColumn> list, int precision) throws SQLException {
+        ByteBuffer buffer = ByteBuffer.allocate(getRawBlockLength(list));
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        writeRawBlock(buffer, list, precision);
+        return buffer.array();
+    }
 
-        int bitMapLen = bitMapLen(rows);
-        ByteArrayOutputStream data = new ByteArrayOutputStream();
-        for (int colIndex = 0; colIndex < list.size(); colIndex++) {
-            ColumnInfo column = list.get(colIndex);
+    /**
+     * exact number of bytes {@link #writeRawBlock} writes for list
+     */
+    public static int getRawBlockLength(List<? extends BindColumn> list) throws SQLException {
+        int columns = list.size();
+        int rows = list.get(0).getRows();
+        // header, type and bytes of each column, length of each column
+        int length = 28 + columns * 5 + columns * 4;
+        for (BindColumn bindColumn : list) {
+            if (bindColumn instanceof ColumnAccumulator) {
+                length += ((ColumnAccumulator) bindColumn).getBlockLength();
+                continue;
+            }
+            ColumnInfo column = (ColumnInfo) bindColumn;
             switch (column.getType()) {
-                case TSDB_DATA_TYPE_BOOL: {
-                    colInfoData[colIndex * 5] = TSDB_DATA_TYPE_BOOL;
-                    int typeLen = DataLength.TSDB_DATA_TYPE_BOOL.getLength();
-                    byte[] typeBytes = intToBytes(typeLen);
-                    System.arraycopy(typeBytes, 0, colInfoData, colIndex * 5 + 1, 4);
-                    byte[] array = intToBytes(typeLen * rows);
-                    System.arraycopy(array, 0, lengthData, colIndex * 4, 4);
-
-                    byte[] tmp = new byte[bitMapLen + rows];
-                    List<?> rowData = column.getDataList();
-                    for (int rowIndex = 0; rowIndex < rows; rowIndex++) {
-                        if (rowData.get(rowIndex) == null) {
-                            int charOffset = charOffset(rowIndex);
-                            tmp[charOffset] = bmSetNull(tmp[charOffset], rowIndex);
-                        } else {
-                            boolean v = (Boolean) rowData.get(rowIndex);
-                            if (v) {
-                                tmp[bitMapLen + rowIndex] = 1;
-                            }
-                        }
-                    }
-                    data.write(tmp);
+                case TSDB_DATA_TYPE_UTINYINT:
+                case TSDB_DATA_TYPE_USMALLINT:
+                case TSDB_DATA_TYPE_UINT:
+                case TSDB_DATA_TYPE_UBIGINT:
                     break;
-                }
-
-                case TSDB_DATA_TYPE_TINYINT: {
-                    colInfoData[colIndex * 5] = TSDB_DATA_TYPE_TINYINT;
-                    int typeLen = DataLength.TSDB_DATA_TYPE_TINYINT.getLength();
-                    byte[] typeBytes = intToBytes(typeLen);
-                    System.arraycopy(typeBytes, 0, colInfoData, colIndex * 5 + 1, 4);
-                    byte[] array = intToBytes(typeLen * rows);
-                    System.arraycopy(array, 0, lengthData, colIndex * 4, 4);
-
-                    byte[] tmp = new byte[bitMapLen + rows];
-                    List<?> rowData = column.getDataList();
+                case TSDB_DATA_TYPE_BINARY:
+                case TSDB_DATA_TYPE_JSON: {
+                    length += rows * Integer.BYTES;
                     for (int rowIndex = 0; rowIndex < rows; rowIndex++) {
-                        if (rowData.get(rowIndex) == null) {
-                            int charOffset = charOffset(rowIndex);
-                            tmp[charOffset] = bmSetNull(tmp[charOffset], rowIndex);
-                        } else {
-                            tmp[rowIndex + bitMapLen] = (Byte) rowData.get(rowIndex);
+                        Object v = column.get(rowIndex);
+                        if (v != null) {
+                            length += ((byte[]) v).length + Short.BYTES;
                         }
                     }
-                    data.write(tmp);
                     break;
                 }
-                case TSDB_DATA_TYPE_SMALLINT: {
-                    colInfoData[colIndex * 5] = TSDB_DATA_TYPE_SMALLINT;
-                    int typeLen = DataLength.TSDB_DATA_TYPE_SMALLINT.getLength();
-                    byte[] typeBytes = intToBytes(typeLen);
-                    System.arraycopy(typeBytes, 0, colInfoData, colIndex * 5 + 1, 4);
-                    byte[] array = intToBytes(typeLen * rows);
-                    System.arraycopy(array, 0, lengthData, colIndex * 4, 4);
-
-                    byte[] tmp = new byte[bitMapLen + rows * Short.BYTES];
-                    List<?> rowData = column.getDataList();
+                case TSDB_DATA_TYPE_NCHAR: {
+                    length += rows * Integer.BYTES;
                     for (int rowIndex = 0; rowIndex < rows; rowIndex++) {
-                        if (rowData.get(rowIndex) == null) {
-                            int charOffset = charOffset(rowIndex);
-                            tmp[charOffset] = bmSetNull(tmp[charOffset], rowIndex);
-                        } else {
-                            short v = (Short) rowData.get(rowIndex);
-                            int offset = rowIndex * Short.BYTES + bitMapLen;
-                            tmp[offset] = (byte) (v & 0xFF);
-                            tmp[offset + 1] = (byte) ((v >> 8) & 0xFF);
+                        String v = (String) column.get(rowIndex);
+                        if (v != null) {
+                            length += v.codePointCount(0, v.length()) * 4 + Short.BYTES;
                         }
                     }
-                    data.write(tmp);
                     break;
                 }
-                case TSDB_DATA_TYPE_INT: {
-                    colInfoData[colIndex * 5] = TSDB_DATA_TYPE_INT;
-                    int typeLen = DataLength.TSDB_DATA_TYPE_INT.getLength();
-                    byte[] typeBytes = intToBytes(typeLen);
-                    System.arraycopy(typeBytes, 0, colInfoData, colIndex * 5 + 1, 4);
-                    byte[] array = intToBytes(typeLen * rows);
-                    System.arraycopy(array, 0, lengthData, colIndex * 4, 4);
-
-                    byte[] tmp = new byte[bitMapLen + rows * Integer.BYTES];
-                    List<?> rowData = column.getDataList();
-                    for (int rowIndex = 0; rowIndex < rows; rowIndex++) {
-
-                        if (rowData.get(rowIndex) == null) {
-                            int charOffset = charOffset(rowIndex);
-                            tmp[charOffset] = bmSetNull(tmp[charOffset], rowIndex);
-                        } else {
-                            int v = (Integer) rowData.get(rowIndex);
-                            int offset = rowIndex * Integer.BYTES + bitMapLen;
-                            tmp[offset] = (byte) (v & 0xFF);
-                            tmp[offset + 1] = (byte) ((v >> 8) & 0xFF);
-                            tmp[offset + 2] = (byte) ((v >> 16) & 0xFF);
-                            tmp[offset + 3] = (byte) ((v >> 24) & 0xFF);
-                        }
-                    }
-                    data.write(tmp);
+                default:
+                    length += bitMapLen(rows) + rows * fixedLength(column.getType());
                     break;
-                }
-                case TSDB_DATA_TYPE_BIGINT: {
-                    colInfoData[colIndex * 5] = TSDB_DATA_TYPE_BIGINT;
-                    int typeLen = DataLength.TSDB_DATA_TYPE_BIGINT.getLength();
-                    byte[] typeBytes = intToBytes(typeLen);
-                    System.arraycopy(typeBytes, 0, colInfoData, colIndex * 5 + 1, 4);
-                    byte[] array = intToBytes(typeLen * rows);
-                    System.arraycopy(array, 0, lengthData, colIndex * 4, 4);
-
-                    byte[] tmp = new byte[bitMapLen + rows * Long.BYTES];
-                    List<?> rowData = column.getDataList();
-                    for (int rowIndex = 0; rowIndex < rows; rowIndex++) {
-
-                        if (rowData.get(rowIndex) == null) {
-                            int charOffset = charOffset(rowIndex);
-                            tmp[charOffset] = bmSetNull(tmp[charOffset], rowIndex);
-                        } else {
-                            long v = (Long) rowData.get(rowIndex);
-                            int offset = rowIndex * Long.BYTES + bitMapLen;
-                            tmp[offset] = (byte) (v & 0xFF);
-                            tmp[offset + 1] = (byte) ((v >> 8) & 0xFF);
-                            tmp[offset + 2] = (byte) ((v >> 16) & 0xFF);
-                            tmp[offset + 3] = (byte) ((v >> 24) & 0xFF);
-                            tmp[offset + 4] = (byte) ((v >> 32) & 0xFF);
-                            tmp[offset + 5] = (byte) ((v >> 40) & 0xFF);
-                            tmp[offset + 6] = (byte) ((v >> 48) & 0xFF);
-                            tmp[offset + 7] = (byte) ((v >> 56) & 0xFF);
+            }
+        }
+        return length;
+    }
 
-                        }
-                    }
-                    data.write(tmp);
-                    break;
-                }
+    /**
+     * write the raw block of list at the position of buffer in a single pass.
+     * buffer must be in little endian order with at least {@link #getRawBlockLength} bytes remaining,
+     * its previous content is overwritten.
+     */
+    public static void writeRawBlock(ByteBuffer buffer, List<? extends BindColumn> list, int precision) throws SQLException {
+        int columns = list.size();
+        int rows = list.get(0).getRows();
+        int start = buffer.position();
 
+        // version int32
+        buffer.putInt(1);
+        // length int32, set at the end
+        buffer.putInt(0);
+        // rows int32
+        buffer.putInt(rows);
+        // columns int32
+        buffer.putInt(columns);
+        // flagSegment int32
+        buffer.putInt(0);
+        // groupID uint64
+        buffer.putLong(0);
+
+        int colInfoOffset = buffer.position();
+        int lengthOffset = colInfoOffset + 5 * columns;
+        buffer.position(lengthOffset + 4 * columns);
+
+        for (int colIndex = 0; colIndex < columns; colIndex++) {
+            BindColumn bindColumn = list.get(colIndex);
+            int type = bindColumn.getType();
+            if (bindColumn instanceof ColumnAccumulator) {
+                ColumnAccumulator accumulator = (ColumnAccumulator) bindColumn;
+                accumulator.writeTo(buffer);
+                buffer.put(colInfoOffset + colIndex * 5, (byte) accumulator.getBlockType());
+                buffer.putInt(colInfoOffset + colIndex * 5 + 1, accumulator.getTypeLength());
+                buffer.putInt(lengthOffset + colIndex * 4, accumulator.getDataLength());
+                continue;
+            }
+            ColumnInfo column = (ColumnInfo) bindColumn;
+            int typeLen = 0;
+            int length = 0;
+            switch (type) {
                 case TSDB_DATA_TYPE_UTINYINT:
                 case TSDB_DATA_TYPE_USMALLINT:
                 case TSDB_DATA_TYPE_UINT:
                 case TSDB_DATA_TYPE_UBIGINT:
+                    // not supported by the stmt raw block yet, nothing is written
+                    type = 0;
                     break;
 
-                case TSDB_DATA_TYPE_FLOAT: {
-                    colInfoData[colIndex * 5] = TSDB_DATA_TYPE_FLOAT;
-                    int typeLen = DataLength.TSDB_DATA_TYPE_FLOAT.getLength();
-                    byte[] typeBytes = intToBytes(typeLen);
-                    System.arraycopy(typeBytes, 0, colInfoData, colIndex * 5 + 1, 4);
-                    byte[] array = intToBytes(typeLen * rows);
-                    System.arraycopy(array, 0, lengthData, colIndex * 4, 4);
-
-                    byte[] tmp = new byte[bitMapLen + rows * Float.BYTES];
-                    List<?> rowData = column.getDataList();
-                    for (int rowIndex = 0; rowIndex < rows; rowIndex++) {
-                        if (rowData.get(rowIndex) == null) {
-                            int charOffset = charOffset(rowIndex);
-                            tmp[charOffset] = bmSetNull(tmp[charOffset], rowIndex);
-                        } else {
-                            float v = (Float) rowData.get(rowIndex);
-                            int offset = rowIndex * Float.BYTES + bitMapLen;
-                            int f = Float.floatToIntBits(v);
-                            tmp[offset] = (byte) (f & 0xFF);
-                            tmp[offset + 1] = (byte) ((f >> 8) & 0xFF);
-                            tmp[offset + 2] = (byte) ((f >> 16) & 0xFF);
-                            tmp[offset + 3] = (byte) ((f >> 24) & 0xFF);
-
-                        }
-                    }
-                    data.write(tmp);
-                    break;
-                }
-                case TSDB_DATA_TYPE_DOUBLE: {
-                    colInfoData[colIndex * 5] = TSDB_DATA_TYPE_DOUBLE;
-                    int typeLen = DataLength.TSDB_DATA_TYPE_DOUBLE.getLength();
-                    byte[] typeBytes = intToBytes(typeLen);
-                    System.arraycopy(typeBytes, 0, colInfoData, colIndex * 5 + 1, 4);
-                    byte[] array = intToBytes(typeLen * rows);
-                    System.arraycopy(array, 0, lengthData, colIndex * 4, 4);
-
-                    byte[] tmp = new byte[bitMapLen + rows * Double.BYTES];
-                    List<?> rowData = column.getDataList();
+                case TSDB_DATA_TYPE_BINARY:
+                case TSDB_DATA_TYPE_JSON: {
+                    int index = buffer.position();
+                    buffer.position(index + rows * Integer.BYTES);
                     for (int rowIndex = 0; rowIndex < rows; rowIndex++) {
-                        if (rowData.get(rowIndex) == null) {
-                            int charOffset = charOffset(rowIndex);
-                            tmp[charOffset] = bmSetNull(tmp[charOffset], rowIndex);
+                        byte[] v = (byte[]) column.get(rowIndex);
+                        if (v == null) {
+                            buffer.putInt(index + rowIndex * Integer.BYTES, -1);
                         } else {
-                            double v = (Double) rowData.get(rowIndex);
-                            int offset = rowIndex * Double.BYTES + bitMapLen;
-                            long l = Double.doubleToLongBits(v);
-                            tmp[offset] = (byte) (l & 0xFF);
-                            tmp[offset + 1] = (byte) ((l >> 8) & 0xFF);
-                            tmp[offset + 2] = (byte) ((l >> 16) & 0xFF);
-                            tmp[offset + 3] = (byte) ((l >> 24) & 0xFF);
-                            tmp[offset + 4] = (byte) ((l >> 32) & 0xFF);
-                            tmp[offset + 5] = (byte) ((l >> 40) & 0xFF);
-                            tmp[offset + 6] = (byte) ((l >> 48) & 0xFF);
-                            tmp[offset + 7] = (byte) ((l >> 56) & 0xFF);
+                            buffer.putInt(index + rowIndex * Integer.BYTES, length);
+                            buffer.putShort((short) v.length);
+                            buffer.put(v);
+                            length += v.length + Short.BYTES;
                         }
                     }
-                    data.write(tmp);
                     break;
                 }
-
-                case TSDB_DATA_TYPE_BINARY: {
-                    colInfoData[colIndex * 5] = TSDB_DATA_TYPE_BINARY;
-                    // 4 bytes for 0
-
-                    int length = 0;
-                    List<?> rowData = column.getDataList();
-                    byte[] index = new byte[rows * Integer.BYTES];
-                    List<Byte> tmp = new ArrayList<>();
+                case TSDB_DATA_TYPE_NCHAR: {
+                    int index = buffer.position();
+                    buffer.position(index + rows * Integer.BYTES);
                     for (int rowIndex = 0; rowIndex < rows; rowIndex++) {
-                        int offset = rowIndex * Integer.BYTES;
-                        if (rowData.get(rowIndex) == null) {
-                            for (int i = 0; i < Integer.BYTES; i++) {
-                                index[offset + i] = (byte) 0xFF;
-                            }
+                        String v = (String) column.get(rowIndex);
+                        if (v == null) {
+                            buffer.putInt(index + rowIndex * Integer.BYTES, -1);
                         } else {
-                            byte[] v = (byte[]) rowData.get(rowIndex);
-                            for (int i = 0; i < Integer.BYTES; i++) {
-                                index[offset + i] = (byte) (length >> (8 * i) & 0xFF);
-                            }
-                            short len = (short) v.length;
-                            tmp.add((byte) (len & 0xFF));
-                            tmp.add((byte) ((len >> 8) & 0xFF));
-                            for (byte b : v) {
-                                tmp.add(b);
+                            buffer.putInt(index + rowIndex * Integer.BYTES, length);
+                            int codePoints = v.codePointCount(0, v.length());
+                            buffer.putShort((short) (codePoints * 4));
+                            for (int i = 0; i < v.length(); ) {
+                                int codePoint = v.codePointAt(i);
+                                buffer.putInt(codePoint);
+                                i += Character.charCount(codePoint);
                             }
-                            length += v.length + Short.BYTES;
+                            length += codePoints * 4 + Short.BYTES;
                         }
                     }
-                    byte[] array = intToBytes(length);
-                    System.arraycopy(array, 0, lengthData, colIndex * 4, 4);
-                    data.write(index);
-                    byte[] bytes = new byte[tmp.size()];
-                    for (int i = 0; i < tmp.size(); i++) {
-                        bytes[i] = tmp.get(i);
-                    }
-                    data.write(bytes);
                     break;
                 }
-                case TSDB_DATA_TYPE_NCHAR: {
-                    colInfoData[colIndex * 5] = TSDB_DATA_TYPE_NCHAR;
-                    // 4 bytes for 0
 
-                    int length = 0;
-                    byte[] index = new byte[rows * Integer.BYTES];
-                    ByteArrayOutputStream tmp = new ByteArrayOutputStream();
-                    List<?> rowData = column.getDataList();
-                    for (int rowIndex = 0; rowIndex < rows; rowIndex++) {
-                        int offset = rowIndex * Integer.BYTES;
-                        if (rowData.get(rowIndex) == null) {
-                            for (int i = 0; i < Integer.BYTES; i++) {
-                                index[offset + i] = (byte) 0xFF;
-                            }
-                        } else {
-                            String v = (String) rowData.get(rowIndex);
-                            for (int i = 0; i < Integer.BYTES; i++) {
-                                index[offset + i] = (byte) ((length >> (8 * i)) & 0xFF);
-                            }
-                            short len = (short) (v.length() * 4);
-                            tmp.write((byte) (len & 0xFF));
-                            tmp.write((byte) ((len >> 8) & 0xFF));
-                            int[] t = v.codePoints().toArray();
-                            for (int i : t) {
-                                tmp.write(intToBytes(i));
-                            }
-                            length += t.length * 4 + Short.BYTES;
+                default: {
+                    typeLen = fixedLength(type);
+                    length = typeLen * rows;
+                    writeBitmap(buffer, column, rows);
+                    if (column.getValues() != null) {
+                        writeArray(buffer, type, column.getValues(), rows);
+                    } else {
+                        List<?> rowData = column.getDataList();
+                        for (int rowIndex = 0; rowIndex < rows; rowIndex++) {
+                            writeFixed(buffer, type, rowData.get(rowIndex), precision);
                         }
                     }
-                    byte[] array = intToBytes(length);
-                    System.arraycopy(array, 0, lengthData, colIndex * 4, 4);
-                    data.write(index);
-                    data.write(tmp.toByteArray());
                     break;
                 }
+            }
+            buffer.put(colInfoOffset + colIndex * 5, (byte) type);
+            buffer.putInt(colInfoOffset + colIndex * 5 + 1, typeLen);
+            buffer.putInt(lengthOffset + colIndex * 4, length);
+        }
+        buffer.putInt(start + 4, buffer.position() - start);
+    }
 
-                case TSDB_DATA_TYPE_TIMESTAMP: {
-                    colInfoData[colIndex * 5] = TSDB_DATA_TYPE_TIMESTAMP;
-                    int typeLen = DataLength.TSDB_DATA_TYPE_TIMESTAMP.getLength();
-                    byte[] typeBytes = intToBytes(typeLen);
-                    System.arraycopy(typeBytes, 0, colInfoData, colIndex * 5 + 1, 4);
-                    byte[] array = intToBytes(typeLen * rows);
-                    System.arraycopy(array, 0, lengthData, colIndex * 4, 4);
-
-                    byte[] tmp = new byte[bitMapLen + rows * Long.BYTES];
-                    List<?> rowData = column.getDataList();
-                    for (int rowIndex = 0; rowIndex < rows; rowIndex++) {
-                        if (rowData.get(rowIndex) == null) {
-                            int charOffset = charOffset(rowIndex);
-                            tmp[charOffset] = bmSetNull(tmp[charOffset], rowIndex);
-                        } else {
-                            Timestamp t = (Timestamp) rowData.get(rowIndex);
-                            long v;
-                            if (precision == TimestampPrecision.MS) {
-                                v = t.getTime();
-                            } else if (precision == TimestampPrecision.US) {
-                                v = t.getTime() * 1000L + t.getNanos() / 1000 % 1000;
-                            } else {
-                                v = t.getTime() * 1000_000L + t.getNanos() % 1000_000L;
-                            }
-
-                            int offset = rowIndex * Long.BYTES + bitMapLen;
-                            tmp[offset] = (byte) (v & 0xFF);
-                            tmp[offset + 1] = (byte) ((v >> 8) & 0xFF);
-                            tmp[offset + 2] = (byte) ((v >> 16) & 0xFF);
-                            tmp[offset + 3] = (byte) ((v >> 24) & 0xFF);
-                            tmp[offset + 4] = (byte) ((v >> 32) & 0xFF);
-                            tmp[offset + 5] = (byte) ((v >> 40) & 0xFF);
-                            tmp[offset + 6] = (byte) ((v >> 48) & 0xFF);
-                            tmp[offset + 7] = (byte) ((v >> 56) & 0xFF);
+    private static int fixedLength(int type) throws SQLException {
+        switch (type) {
+            case TSDB_DATA_TYPE_BOOL:
+                return DataLength.TSDB_DATA_TYPE_BOOL.getLength();
+            case TSDB_DATA_TYPE_TINYINT:
+                return DataLength.TSDB_DATA_TYPE_TINYINT.getLength();
+            case TSDB_DATA_TYPE_SMALLINT:
+                return DataLength.TSDB_DATA_TYPE_SMALLINT.getLength();
+            case TSDB_DATA_TYPE_INT:
+                return DataLength.TSDB_DATA_TYPE_INT.getLength();
+            case TSDB_DATA_TYPE_BIGINT:
+                return DataLength.TSDB_DATA_TYPE_BIGINT.getLength();
+            case TSDB_DATA_TYPE_FLOAT:
+                return DataLength.TSDB_DATA_TYPE_FLOAT.getLength();
+            case TSDB_DATA_TYPE_DOUBLE:
+                return DataLength.TSDB_DATA_TYPE_DOUBLE.getLength();
+            case TSDB_DATA_TYPE_TIMESTAMP:
+                return DataLength.TSDB_DATA_TYPE_TIMESTAMP.getLength();
+            default:
+                throw new SQLException("unsupported data type : " + type);
+        }
+    }
 
-                        }
-                    }
-                    data.write(tmp);
-                    break;
+    private static void writeBitmap(ByteBuffer buffer, ColumnInfo column, int rows) {
+        int bitMapLen = bitMapLen(rows);
+        for (int i = 0; i < bitMapLen; i++) {
+            byte c = 0;
+            for (int rowIndex = i << 3; rowIndex < rows && charOffset(rowIndex) == i; rowIndex++) {
+                if (column.isNull(rowIndex)) {
+                    c = bmSetNull(c, rowIndex);
                 }
+            }
+            buffer.put(c);
+        }
+    }
 
-                case TSDB_DATA_TYPE_JSON: {
-                    colInfoData[colIndex * 5] = TSDB_DATA_TYPE_JSON;
-                    // 4 bytes for 0
+    /**
+     * copy the first rows values of a primitive array, timestamps are already in the precision of the database
+     */
+    private static void writeArray(ByteBuffer buffer, int type, Object values, int rows) {
+        int position = buffer.position();
+        switch (type) {
+            case TSDB_DATA_TYPE_BOOL: {
+                boolean[] v = (boolean[]) values;
+                for (int rowIndex = 0; rowIndex < rows; rowIndex++) {
+                    buffer.put(v[rowIndex] ? (byte) 1 : (byte) 0);
+                }
+                break;
+            }
+            case TSDB_DATA_TYPE_TINYINT:
+                buffer.put((byte[]) values, 0, rows);
+                break;
+            case TSDB_DATA_TYPE_SMALLINT:
+                buffer.asShortBuffer().put((short[]) values, 0, rows);
+                buffer.position(position + rows * Short.BYTES);
+                break;
+            case TSDB_DATA_TYPE_INT:
+                buffer.asIntBuffer().put((int[]) values, 0, rows);
+                buffer.position(position + rows * Integer.BYTES);
+                break;
+            case TSDB_DATA_TYPE_BIGINT:
+            case TSDB_DATA_TYPE_TIMESTAMP:
+                buffer.asLongBuffer().put((long[]) values, 0, rows);
+                buffer.position(position + rows * Long.BYTES);
+                break;
+            case TSDB_DATA_TYPE_FLOAT:
+                buffer.asFloatBuffer().put((float[]) values, 0, rows);
+                buffer.position(position + rows * Float.BYTES);
+                break;
+            case TSDB_DATA_TYPE_DOUBLE:
+                buffer.asDoubleBuffer().put((double[]) values, 0, rows);
+                buffer.position(position + rows * Double.BYTES);
+                break;
+            default:
+                break;
+        }
+    }
 
-                    int length = 0;
-                    List<?> rowData = column.getDataList();
-                    byte[] index = new byte[rows * Integer.BYTES];
-                    List<Byte> tmp = new ArrayList<>();
-                    for (int rowIndex = 0; rowIndex < rows; rowIndex++) {
-                        int offset = rowIndex * Integer.BYTES;
-                        if (rowData.get(rowIndex) == null) {
-                            for (int i = 0; i < Integer.BYTES; i++) {
-                                index[offset + i] = (byte) 0xFF;
-                            }
-                        } else {
-                            byte[] v = (byte[]) rowData.get(rowIndex);
-                            for (int i = 0; i < Integer.BYTES; i++) {
-                                index[offset + i] = (byte) (length >> (8 * i) & 0xFF);
-                            }
-                            short len = (short) v.length;
-                            tmp.add((byte) (len & 0xFF));
-                            tmp.add((byte) ((len >> 8) & 0xFF));
-                            for (byte b : v) {
-                                tmp.add(b);
-                            }
-                            length += v.length + Short.BYTES;
-                        }
-                    }
-                    byte[] array = intToBytes(length);
-                    System.arraycopy(array, 0, lengthData, colIndex * 4, 4);
-                    data.write(index);
-                    byte[] bytes = new byte[tmp.size()];
-                    for (int i = 0; i < tmp.size(); i++) {
-                        bytes[i] = tmp.get(i);
-                    }
-                    data.write(bytes);
+    private static void writeFixed(ByteBuffer buffer, int type, Object v, int precision) {
+        switch (type) {
+            case TSDB_DATA_TYPE_BOOL:
+                buffer.put(v != null && (Boolean) v ? (byte) 1 : (byte) 0);
+                break;
+            case TSDB_DATA_TYPE_TINYINT:
+                buffer.put(v == null ? 0 : (Byte) v);
+                break;
+            case TSDB_DATA_TYPE_SMALLINT:
+                buffer.putShort(v == null ? 0 : (Short) v);
+                break;
+            case TSDB_DATA_TYPE_INT:
+                buffer.putInt(v == null ? 0 : (Integer) v);
+                break;
+            case TSDB_DATA_TYPE_BIGINT:
+                buffer.putLong(v == null ? 0 : (Long) v);
+                break;
+            case TSDB_DATA_TYPE_FLOAT:
+                buffer.putFloat(v == null ? 0 : (Float) v);
+                break;
+            case TSDB_DATA_TYPE_DOUBLE:
+                buffer.putDouble(v == null ? 0 : (Double) v);
+                break;
+            case TSDB_DATA_TYPE_TIMESTAMP: {
+                if (v == null) {
+                    buffer.putLong(0);
                     break;
                 }
-                default:
-                    throw new SQLException("unsupported data type : " + column.getType());
+                Timestamp t = (Timestamp) v;
+                if (precision == TimestampPrecision.MS) {
+                    buffer.putLong(t.getTime());
+                } else if (precision == TimestampPrecision.US) {
+                    buffer.putLong(t.getTime() * 1000L + t.getNanos() / 1000 % 1000);
+                } else {
+                    buffer.putLong(t.getTime() * 1000_000L + t.getNanos() % 1000_000L);
+                }
+                break;
             }
+            default:
+                break;
         }
-        buffer.write(colInfoData);
-        buffer.write(lengthData);
-        buffer.write(data.toByteArray());
-        byte[] block = buffer.toByteArray();
-        for (int i = 0; i < Integer.BYTES; i++) {
-            block[4 + i] = (byte) (block.length >> (8 * i));
-        }
-        return block;
     }
 
     // little endian
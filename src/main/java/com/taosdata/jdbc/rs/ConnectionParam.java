@@ -24,6 +24,12 @@ public class ConnectionParam {
     private int maxRequest;
     private int connectTimeout;
     private int requestTimeout;
+    private int prefetchBlocks;
+    private int transportPoolSize;
+    private int prepStmtCacheSize;
+    private int decodeThreads;
+    private boolean asyncComplete;
+    private String endpoints;
 
     private ConnectionParam(Builder builder) {
         this.host = builder.host;
@@ -37,6 +43,12 @@ public class ConnectionParam {
         this.maxRequest = builder.maxRequest;
         this.connectTimeout = builder.connectTimeout;
         this.requestTimeout = builder.requestTimeout;
+        this.prefetchBlocks = builder.prefetchBlocks;
+        this.transportPoolSize = builder.transportPoolSize;
+        this.prepStmtCacheSize = builder.prepStmtCacheSize;
+        this.decodeThreads = builder.decodeThreads;
+        this.asyncComplete = builder.asyncComplete;
+        this.endpoints = builder.endpoints;
     }
 
     public String getHost() {
@@ -127,6 +139,54 @@ public class ConnectionParam {
         this.requestTimeout = requestTimeout;
     }
 
+    public int getPrefetchBlocks() {
+        return prefetchBlocks;
+    }
+
+    public void setPrefetchBlocks(int prefetchBlocks) {
+        this.prefetchBlocks = prefetchBlocks;
+    }
+
+    public int getTransportPoolSize() {
+        return transportPoolSize;
+    }
+
+    public void setTransportPoolSize(int transportPoolSize) {
+        this.transportPoolSize = transportPoolSize;
+    }
+
+    public int getPrepStmtCacheSize() {
+        return prepStmtCacheSize;
+    }
+
+    public void setPrepStmtCacheSize(int prepStmtCacheSize) {
+        this.prepStmtCacheSize = prepStmtCacheSize;
+    }
+
+    public int getDecodeThreads() {
+        return decodeThreads;
+    }
+
+    public void setDecodeThreads(int decodeThreads) {
+        this.decodeThreads = decodeThreads;
+    }
+
+    public boolean isAsyncComplete() {
+        return asyncComplete;
+    }
+
+    public void setAsyncComplete(boolean asyncComplete) {
+        this.asyncComplete = asyncComplete;
+    }
+
+    public String getEndpoints() {
+        return endpoints;
+    }
+
+    public void setEndpoints(String endpoints) {
+        this.endpoints = endpoints;
+    }
+
     public static ConnectionParam getParam(Properties properties) throws SQLException {
         String host = properties.getProperty(TSDBDriver.PROPERTY_KEY_HOST);
         String port = properties.getProperty(TSDBDriver.PROPERTY_KEY_PORT);
@@ -174,9 +234,37 @@ public class ConnectionParam {
         int requestTimeout = Integer.parseInt(properties.getProperty(TSDBDriver.PROPERTY_KEY_MESSAGE_WAIT_TIMEOUT,
                 String.valueOf(Transport.DEFAULT_MESSAGE_WAIT_TIMEOUT)));
 
+        int prefetchBlocks = Integer.parseInt(properties.getProperty(TSDBDriver.PROPERTY_KEY_FETCH_PREFETCH_BLOCKS, "0"));
+        if (prefetchBlocks < 0) {
+            throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_INVALID_VARIABLE,
+                    "fetchPrefetchBlocks must not be negative: " + prefetchBlocks);
+        }
+
+        int transportPoolSize = Integer.parseInt(properties.getProperty(TSDBDriver.PROPERTY_KEY_WS_TRANSPORT_POOL_SIZE, "0"));
+        if (transportPoolSize < 0) {
+            throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_INVALID_VARIABLE,
+                    "wsTransportPoolSize must not be negative: " + transportPoolSize);
+        }
+
+        int prepStmtCacheSize = Integer.parseInt(properties.getProperty(TSDBDriver.PROPERTY_KEY_PREP_STMT_CACHE_SIZE, "0"));
+        if (prepStmtCacheSize < 0) {
+            throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_INVALID_VARIABLE,
+                    "prepStmtCacheSize must not be negative: " + prepStmtCacheSize);
+        }
+
+        int decodeThreads = Integer.parseInt(properties.getProperty(TSDBDriver.PROPERTY_KEY_WS_DECODE_THREADS, "1"));
+        if (decodeThreads < 0) {
+            throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_INVALID_VARIABLE,
+                    "wsDecodeThreads must not be negative: " + decodeThreads);
+        }
+        boolean asyncComplete = Boolean.parseBoolean(properties.getProperty(TSDBDriver.PROPERTY_KEY_WS_ASYNC_COMPLETE, "false"));
+        String endpoints = properties.getProperty(TSDBDriver.PROPERTY_KEY_ENDPOINTS);
+
         return new ConnectionParam.Builder(host, port).setDatabase(database).setCloudToken(cloudToken)
                 .setUserAndPassword(user, password).setTimeZone(tz).setUseSsl(useSsl).setMaxRequest(maxRequest)
-                .setConnectionTimeout(connectTimeout).setRequestTimeout(requestTimeout).build();
+                .setConnectionTimeout(connectTimeout).setRequestTimeout(requestTimeout).setPrefetchBlocks(prefetchBlocks)
+                .setTransportPoolSize(transportPoolSize).setPrepStmtCacheSize(prepStmtCacheSize)
+                .setDecodeThreads(decodeThreads).setAsyncComplete(asyncComplete).setEndpoints(endpoints).build();
     }
 
     public static class Builder {
@@ -191,6 +279,12 @@ public class ConnectionParam {
         private int maxRequest;
         private int connectTimeout;
         private int requestTimeout;
+        private int prefetchBlocks;
+        private int transportPoolSize;
+        private int prepStmtCacheSize;
+        private int decodeThreads = 1;
+        private boolean asyncComplete;
+        private String endpoints;
 
         public Builder(String host, String port) {
             this.host = host;
@@ -238,6 +332,36 @@ public class ConnectionParam {
             return this;
         }
 
+        public Builder setPrefetchBlocks(int prefetchBlocks) {
+            this.prefetchBlocks = prefetchBlocks;
+            return this;
+        }
+
+        public Builder setTransportPoolSize(int transportPoolSize) {
+            this.transportPoolSize = transportPoolSize;
+            return this;
+        }
+
+        public Builder setPrepStmtCacheSize(int prepStmtCacheSize) {
+            this.prepStmtCacheSize = prepStmtCacheSize;
+            return this;
+        }
+
+        public Builder setDecodeThreads(int decodeThreads) {
+            this.decodeThreads = decodeThreads;
+            return this;
+        }
+
+        public Builder setAsyncComplete(boolean asyncComplete) {
+            this.asyncComplete = asyncComplete;
+            return this;
+        }
+
+        public Builder setEndpoints(String endpoints) {
+            this.endpoints = endpoints;
+            return this;
+        }
+
         public ConnectionParam build() {
             return new ConnectionParam(this);
         }
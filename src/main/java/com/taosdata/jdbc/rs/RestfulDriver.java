@@ -1,17 +1,15 @@
 package com.taosdata.jdbc.rs;
 
-import com.alibaba.fastjson.JSON;
-import com.alibaba.fastjson.JSONObject;
 import com.taosdata.jdbc.*;
 import com.taosdata.jdbc.enums.WSFunction;
 import com.taosdata.jdbc.utils.HttpClientPoolUtil;
-import com.taosdata.jdbc.ws.FutureResponse;
+import com.taosdata.jdbc.ws.EndpointBalancer;
 import com.taosdata.jdbc.ws.InFlightRequest;
 import com.taosdata.jdbc.ws.Transport;
+import com.taosdata.jdbc.ws.TransportPool;
 import com.taosdata.jdbc.ws.WSConnection;
 import com.taosdata.jdbc.ws.entity.*;
 
-import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 import java.sql.*;
 import java.util.Base64;
@@ -104,28 +102,28 @@ public class RestfulDriver extends AbstractDriver {
     }
 
     private Connection getWSConnection(String url, ConnectionParam param, Properties props) throws SQLException {
+        TransportPool.TransportFactory factory = () -> openWSTransport(param);
+        if (param.getEndpoints() != null) {
+            EndpointBalancer balancer = EndpointBalancer.getInstance(param.getEndpoints(), param.getPort());
+            factory = () -> balancer.open(param, () -> openWSTransport(param));
+        }
+        Transport transport = param.getTransportPoolSize() > 0
+                ? TransportPool.acquire(WSFunction.WS, param, param.getDatabase(), factory)
+                : factory.create();
+
+        TaosGlobalConfig.setCharset(props.getProperty(TSDBDriver.PROPERTY_KEY_CHARSET));
+        return new WSConnection(url, props, transport, param);
+    }
+
+    private static Transport openWSTransport(ConnectionParam param) throws SQLException {
         InFlightRequest inFlightRequest = new InFlightRequest(param.getRequestTimeout(), param.getMaxRequest());
         Transport transport = new Transport(WSFunction.WS, param, inFlightRequest);
 
-        transport.setTextMessageHandler(message -> {
-            JSONObject jsonObject = JSON.parseObject(message);
-            Action action = Action.of(jsonObject.getString("action"));
-            Response response = jsonObject.toJavaObject(action.getResponseClazz());
-            FutureResponse remove = inFlightRequest.remove(response.getAction(), response.getReqId());
-            if (null != remove) {
-                remove.getFuture().complete(response);
-            }
-        });
-        transport.setBinaryMessageHandler(byteBuffer -> {
-            byteBuffer.order(ByteOrder.LITTLE_ENDIAN);
-            byteBuffer.position(8);
-            long id = byteBuffer.getLong();
-            FutureResponse remove = inFlightRequest.remove(Action.FETCH_BLOCK.getAction(), id);
-            if (null != remove) {
-                FetchBlockResp fetchBlockResp = new FetchBlockResp(id, byteBuffer);
-                remove.getFuture().complete(fetchBlockResp);
-            }
+        transport.setTextResponseHandler(name -> {
+            Action action = Action.of(name);
+            return null == action ? null : action.getResponseClazz();
         });
+        transport.setFetchBlockHandler(Action.FETCH_BLOCK.getAction(), 16);
 
         Transport.checkConnection(transport, param.getConnectTimeout());
 
@@ -140,9 +138,7 @@ public class RestfulDriver extends AbstractDriver {
             transport.close();
             throw new SQLException("0x" + Integer.toHexString(auth.getCode()) + ":" + "auth failure:" + auth.getMessage());
         }
-
-        TaosGlobalConfig.setCharset(props.getProperty(TSDBDriver.PROPERTY_KEY_CHARSET));
-        return new WSConnection(url, props, transport, param);
+        return transport;
     }
 
     static class ConnectReq extends Payload {
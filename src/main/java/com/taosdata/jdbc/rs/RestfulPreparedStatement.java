@@ -2,7 +2,7 @@ package com.taosdata.jdbc.rs;
 
 import com.taosdata.jdbc.TSDBError;
 import com.taosdata.jdbc.TSDBErrorNumbers;
-import com.taosdata.jdbc.utils.Utils;
+import com.taosdata.jdbc.utils.SqlTemplate;
 
 import java.io.InputStream;
 import java.io.Reader;
@@ -15,12 +15,16 @@ public class RestfulPreparedStatement extends RestfulStatement implements Prepar
 
     private final ParameterMetaData parameterMetaData;
     private final String rawSql;
+    private final SqlTemplate sqlTemplate;
+    // reused by every execution to build the sql with parameters
+    private final StringBuilder nativeSql = new StringBuilder();
     private Object[] parameters;
     private boolean isPrepared;
 
     public RestfulPreparedStatement(RestfulConnection conn, String database, String sql) {
         super(conn, database);
         this.rawSql = sql;
+        this.sqlTemplate = SqlTemplate.compile(sql);
 
         int parameterCnt = 0;
         if (sql.contains("?")) {
@@ -44,7 +48,7 @@ public class RestfulPreparedStatement extends RestfulStatement implements Prepar
         if (!isPrepared)
             return executeQuery(this.rawSql);
 
-        final String sql = Utils.getNativeSql(this.rawSql, this.parameters);
+        final String sql = getNativeSql(this.parameters);
         return executeQuery(sql);
     }
 
@@ -55,7 +59,7 @@ public class RestfulPreparedStatement extends RestfulStatement implements Prepar
         if (!isPrepared)
             return executeUpdate(this.rawSql);
 
-        final String sql = Utils.getNativeSql(rawSql, this.parameters);
+        final String sql = getNativeSql(this.parameters);
         return executeUpdate(sql);
     }
 
@@ -214,13 +218,13 @@ public class RestfulPreparedStatement extends RestfulStatement implements Prepar
             throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_STATEMENT_CLOSED);
         if (!isPrepared)
             return execute(this.rawSql);
-        final String sql = Utils.getNativeSql(rawSql, this.parameters);
+        final String sql = getNativeSql(this.parameters);
         return execute(sql);
     }
 
     @Override
     public void addBatch() throws SQLException {
-        final String sql = Utils.getNativeSql(rawSql, this.parameters);
+        final String sql = getNativeSql(this.parameters);
         addBatch(sql);
     }
 
@@ -442,4 +446,10 @@ public class RestfulPreparedStatement extends RestfulStatement implements Prepar
             throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_STATEMENT_CLOSED);
         throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_UNSUPPORTED_METHOD);
     }
+
+    private String getNativeSql(Object[] parameters) {
+        nativeSql.setLength(0);
+        sqlTemplate.appendNativeSql(nativeSql, parameters);
+        return nativeSql.toString();
+    }
 }
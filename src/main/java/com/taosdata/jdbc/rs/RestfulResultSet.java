@@ -2,7 +2,10 @@ package com.taosdata.jdbc.rs;
 
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONException;
 import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.JSONReader;
+import com.alibaba.fastjson.parser.Feature;
 import com.alibaba.fastjson.serializer.SerializerFeature;
 import com.google.common.primitives.Ints;
 import com.google.common.primitives.Longs;
@@ -56,8 +59,13 @@ public class RestfulResultSet extends AbstractResultSet {
     Pattern pattern = Pattern.compile("^[0-9a-zT\\-:]+\\.([0-9]+).*$");
 
     private final Statement statement;
-    // data
+    // data, decoded rows from the row at base
     private final List<List<Object>> resultSet = new ArrayList<>();
+    private int base;
+    // rows not decoded yet, null once all rows are decoded
+    private JSONReader reader;
+    // only keep the current row, set by a fetch size of the statement
+    private final boolean forwardOnly;
     // meta
     private final List<String> columnNames = new ArrayList<>();
     private final List<Field> columns = new ArrayList<>();
@@ -72,30 +80,126 @@ public class RestfulResultSet extends AbstractResultSet {
      * @param resultJson: 包含data信息的结果集，有sql返回的结果集
      ***/
     public RestfulResultSet(String database, Statement statement, JSONObject resultJson) throws SQLException {
-        this.statement = statement;
-
-        // get column metadata
-        JSONArray columnMeta = resultJson.getJSONArray("column_meta");
-        // get row data
-        JSONArray data = resultJson.getJSONArray("data");
+        this(database, statement, resultJson.getJSONArray("column_meta"), resultJson.getJSONArray("data"));
+    }
 
-        // parse column_meta
+    public RestfulResultSet(String database, Statement statement, JSONArray columnMeta, JSONArray data) throws SQLException {
+        this.statement = statement;
         parseColumnMeta_new(columnMeta);
         this.metaData = new RestfulResultSetMetaData(database, columns);
-
+        this.forwardOnly = false;
         if (data == null || data.isEmpty())
             return;
-        // parse row data
+        // decoded here, so the json tree is not kept along with the rows
         for (int rowIndex = 0; rowIndex < data.size(); rowIndex++) {
-            List<Object> row = new ArrayList<>();
+            List<Object> row = new ArrayList<>(columns.size());
             JSONArray jsonRow = data.getJSONArray(rowIndex);
-            for (int colIndex = 0; colIndex < this.metaData.getColumnCount(); colIndex++) {
+            for (int colIndex = 0; colIndex < columns.size(); colIndex++) {
                 row.add(parseColumnData(jsonRow, colIndex, columns.get(colIndex)));
             }
             resultSet.add(row);
         }
     }
 
+    /**
+     * rows are decoded from reader as next() advances, reader is at the data array of the response.
+     * the response is closed once all rows are read or the result set is closed.
+     * with a fetch size set on the statement, only the current row is kept, so the rows before it can't be
+     * visited again.
+     */
+    public RestfulResultSet(String database, Statement statement, JSONArray columnMeta, JSONReader reader) throws SQLException {
+        this.statement = statement;
+        parseColumnMeta_new(columnMeta);
+        this.metaData = new RestfulResultSetMetaData(database, columns);
+        this.forwardOnly = statement != null && statement.getFetchSize() > 0;
+        // close the response without checking that all of it was read
+        reader.config(Feature.AutoCloseSource, false);
+        try {
+            reader.startArray();
+        } catch (JSONException e) {
+            reader.close();
+            throw e;
+        }
+        this.reader = reader;
+    }
+
+    /**
+     * decode rows until the row at index, or all rows
+     *
+     * @return true if there is a row at index
+     */
+    private boolean ensure(int index) throws SQLException {
+        while (base + resultSet.size() <= index) {
+            if (!decodeRow())
+                return false;
+        }
+        return index >= base;
+    }
+
+    private boolean decodeRow() throws SQLException {
+        JSONArray jsonRow = nextJsonRow();
+        if (jsonRow == null)
+            return false;
+        if (forwardOnly) {
+            while (base < pos && !resultSet.isEmpty()) {
+                resultSet.remove(0);
+                base++;
+            }
+        }
+        List<Object> row = new ArrayList<>(columns.size());
+        for (int colIndex = 0; colIndex < columns.size(); colIndex++) {
+            row.add(parseColumnData(jsonRow, colIndex, columns.get(colIndex)));
+        }
+        resultSet.add(row);
+        return true;
+    }
+
+    private JSONArray nextJsonRow() throws SQLException {
+        if (reader == null)
+            return null;
+        try {
+            if (reader.hasNext())
+                return reader.readObject(JSONArray.class);
+            reader.endArray();
+            // read the rest of the response, so its connection can be reused
+            while (reader.hasNext()) {
+                reader.readString();
+                reader.readObject();
+            }
+            reader.endObject();
+        } catch (JSONException e) {
+            closeReader();
+            throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_RESTFul_Client_IOException,
+                    "failed to read the rows of the response: " + e.getMessage());
+        }
+        closeReader();
+        return null;
+    }
+
+    private void closeReader() {
+        if (reader != null) {
+            reader.close();
+            reader = null;
+        }
+    }
+
+    private int total() throws SQLException {
+        while (decodeRow()) {
+            // decode all rows
+        }
+        return base + resultSet.size();
+    }
+
+    private List<Object> row() {
+        return resultSet.get(pos - base);
+    }
+
+    private void checkScrollable() throws SQLException {
+        if (base > 0)
+            throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_UNSUPPORTED_METHOD,
+                    "the result set only keeps the current row when the fetch size is set");
+    }
+
     /***
      * use this method after TDengine-2.0.18.0 to parse column meta, restful add column_meta in resultSet
      * @Param columnMeta
@@ -208,7 +312,7 @@ public class RestfulResultSet extends AbstractResultSet {
         if (isClosed())
             throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_RESULTSET_CLOSED);
         pos++;
-        return pos <= resultSet.size() - 1;
+        return ensure(pos);
     }
 
     @Override
@@ -216,13 +320,16 @@ public class RestfulResultSet extends AbstractResultSet {
         synchronized (RestfulResultSet.class) {
             this.isClosed = true;
         }
+        synchronized (this) {
+            closeReader();
+        }
     }
 
     @Override
     public String getString(int columnIndex) throws SQLException {
-        checkAvailability(columnIndex, resultSet.get(pos).size());
+        checkAvailability(columnIndex, row().size());
 
-        Object value = resultSet.get(pos).get(columnIndex - 1);
+        Object value = row().get(columnIndex - 1);
         wasNull = value == null;
         if (value == null)
             return null;
@@ -233,9 +340,9 @@ public class RestfulResultSet extends AbstractResultSet {
 
     @Override
     public boolean getBoolean(int columnIndex) throws SQLException {
-        checkAvailability(columnIndex, resultSet.get(pos).size());
+        checkAvailability(columnIndex, row().size());
 
-        Object value = resultSet.get(pos).get(columnIndex - 1);
+        Object value = row().get(columnIndex - 1);
         wasNull = value == null;
         if (value == null)
             return false;
@@ -246,9 +353,9 @@ public class RestfulResultSet extends AbstractResultSet {
 
     @Override
     public byte getByte(int columnIndex) throws SQLException {
-        checkAvailability(columnIndex, resultSet.get(pos).size());
+        checkAvailability(columnIndex, row().size());
 
-        Object value = resultSet.get(pos).get(columnIndex - 1);
+        Object value = row().get(columnIndex - 1);
         wasNull = value == null;
         if (value == null)
             return 0;
@@ -268,9 +375,9 @@ public class RestfulResultSet extends AbstractResultSet {
 
     @Override
     public short getShort(int columnIndex) throws SQLException {
-        checkAvailability(columnIndex, resultSet.get(pos).size());
+        checkAvailability(columnIndex, row().size());
 
-        Object value = resultSet.get(pos).get(columnIndex - 1);
+        Object value = row().get(columnIndex - 1);
         wasNull = value == null;
         if (value == null)
             return 0;
@@ -284,9 +391,9 @@ public class RestfulResultSet extends AbstractResultSet {
 
     @Override
     public int getInt(int columnIndex) throws SQLException {
-        checkAvailability(columnIndex, resultSet.get(pos).size());
+        checkAvailability(columnIndex, row().size());
 
-        Object value = resultSet.get(pos).get(columnIndex - 1);
+        Object value = row().get(columnIndex - 1);
         wasNull = value == null;
         if (value == null)
             return 0;
@@ -300,9 +407,9 @@ public class RestfulResultSet extends AbstractResultSet {
 
     @Override
     public long getLong(int columnIndex) throws SQLException {
-        checkAvailability(columnIndex, resultSet.get(pos).size());
+        checkAvailability(columnIndex, row().size());
 
-        Object value = resultSet.get(pos).get(columnIndex - 1);
+        Object value = row().get(columnIndex - 1);
         wasNull = value == null;
         if (value == null)
             return 0;
@@ -331,9 +438,9 @@ public class RestfulResultSet extends AbstractResultSet {
 
     @Override
     public float getFloat(int columnIndex) throws SQLException {
-        checkAvailability(columnIndex, resultSet.get(pos).size());
+        checkAvailability(columnIndex, row().size());
 
-        Object value = resultSet.get(pos).get(columnIndex - 1);
+        Object value = row().get(columnIndex - 1);
         wasNull = value == null;
         if (value == null)
             return 0;
@@ -346,9 +453,9 @@ public class RestfulResultSet extends AbstractResultSet {
 
     @Override
     public double getDouble(int columnIndex) throws SQLException {
-        checkAvailability(columnIndex, resultSet.get(pos).size());
+        checkAvailability(columnIndex, row().size());
 
-        Object value = resultSet.get(pos).get(columnIndex - 1);
+        Object value = row().get(columnIndex - 1);
         wasNull = value == null;
         if (value == null) {
             return 0;
@@ -362,9 +469,9 @@ public class RestfulResultSet extends AbstractResultSet {
 
     @Override
     public byte[] getBytes(int columnIndex) throws SQLException {
-        checkAvailability(columnIndex, resultSet.get(pos).size());
+        checkAvailability(columnIndex, row().size());
 
-        Object value = resultSet.get(pos).get(columnIndex - 1);
+        Object value = row().get(columnIndex - 1);
         wasNull = value == null;
         if (value == null)
             return null;
@@ -386,9 +493,9 @@ public class RestfulResultSet extends AbstractResultSet {
 
     @Override
     public Date getDate(int columnIndex) throws SQLException {
-        checkAvailability(columnIndex, resultSet.get(pos).size());
+        checkAvailability(columnIndex, row().size());
 
-        Object value = resultSet.get(pos).get(columnIndex - 1);
+        Object value = row().get(columnIndex - 1);
         wasNull = value == null;
         if (value == null)
             return null;
@@ -399,9 +506,9 @@ public class RestfulResultSet extends AbstractResultSet {
 
     @Override
     public Time getTime(int columnIndex) throws SQLException {
-        checkAvailability(columnIndex, resultSet.get(pos).size());
+        checkAvailability(columnIndex, row().size());
 
-        Object value = resultSet.get(pos).get(columnIndex - 1);
+        Object value = row().get(columnIndex - 1);
         wasNull = value == null;
         if (value == null)
             return null;
@@ -417,9 +524,9 @@ public class RestfulResultSet extends AbstractResultSet {
 
     @Override
     public Timestamp getTimestamp(int columnIndex) throws SQLException {
-        checkAvailability(columnIndex, resultSet.get(pos).size());
+        checkAvailability(columnIndex, row().size());
 
-        Object value = resultSet.get(pos).get(columnIndex - 1);
+        Object value = row().get(columnIndex - 1);
         wasNull = value == null;
         if (value == null)
             return null;
@@ -451,9 +558,9 @@ public class RestfulResultSet extends AbstractResultSet {
 
     @Override
     public Object getObject(int columnIndex) throws SQLException {
-        checkAvailability(columnIndex, resultSet.get(pos).size());
+        checkAvailability(columnIndex, row().size());
 
-        Object value = resultSet.get(pos).get(columnIndex - 1);
+        Object value = row().get(columnIndex - 1);
         wasNull = value == null;
         return value;
     }
@@ -471,9 +578,9 @@ public class RestfulResultSet extends AbstractResultSet {
 
     @Override
     public BigDecimal getBigDecimal(int columnIndex) throws SQLException {
-        checkAvailability(columnIndex, resultSet.get(pos).size());
+        checkAvailability(columnIndex, row().size());
 
-        Object value = resultSet.get(pos).get(columnIndex - 1);
+        Object value = row().get(columnIndex - 1);
         wasNull = value == null;
         if (value == null)
             return null;
@@ -496,7 +603,7 @@ public class RestfulResultSet extends AbstractResultSet {
     public boolean isBeforeFirst() throws SQLException {
         if (isClosed())
             throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_RESULTSET_CLOSED);
-        return this.pos == -1 && this.resultSet.size() != 0;
+        return this.pos == -1 && ensure(0);
     }
 
     @Override
@@ -504,7 +611,8 @@ public class RestfulResultSet extends AbstractResultSet {
         if (isClosed())
             throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_RESULTSET_CLOSED);
 
-        return this.pos >= resultSet.size() && this.resultSet.size() != 0;
+        int total = total();
+        return this.pos >= total && total != 0;
     }
 
     @Override
@@ -518,9 +626,7 @@ public class RestfulResultSet extends AbstractResultSet {
     public boolean isLast() throws SQLException {
         if (isClosed())
             throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_RESULTSET_CLOSED);
-        if (this.resultSet.size() == 0)
-            return false;
-        return this.pos == (this.resultSet.size() - 1);
+        return this.pos >= 0 && ensure(this.pos) && !ensure(this.pos + 1);
     }
 
     @Override
@@ -529,7 +635,8 @@ public class RestfulResultSet extends AbstractResultSet {
             throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_RESULTSET_CLOSED);
 
         synchronized (this) {
-            if (this.resultSet.size() > 0) {
+            checkScrollable();
+            if (ensure(0)) {
                 this.pos = -1;
             }
         }
@@ -540,8 +647,9 @@ public class RestfulResultSet extends AbstractResultSet {
         if (isClosed())
             throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_RESULTSET_CLOSED);
         synchronized (this) {
-            if (this.resultSet.size() > 0) {
-                this.pos = this.resultSet.size();
+            int total = total();
+            if (total > 0) {
+                this.pos = total;
             }
         }
     }
@@ -551,10 +659,10 @@ public class RestfulResultSet extends AbstractResultSet {
         if (isClosed())
             throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_RESULTSET_CLOSED);
 
-        if (this.resultSet.size() == 0)
-            return false;
-
         synchronized (this) {
+            checkScrollable();
+            if (!ensure(0))
+                return false;
             this.pos = 0;
         }
         return true;
@@ -564,10 +672,11 @@ public class RestfulResultSet extends AbstractResultSet {
     public boolean last() throws SQLException {
         if (isClosed())
             throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_RESULTSET_CLOSED);
-        if (this.resultSet.size() == 0)
-            return false;
         synchronized (this) {
-            this.pos = this.resultSet.size() - 1;
+            int total = total();
+            if (total == 0)
+                return false;
+            this.pos = total - 1;
         }
         return true;
     }
@@ -578,7 +687,7 @@ public class RestfulResultSet extends AbstractResultSet {
             throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_RESULTSET_CLOSED);
         int row;
         synchronized (this) {
-            if (this.pos < 0 || this.pos >= this.resultSet.size())
+            if (this.pos < 0 || !ensure(this.pos))
                 return 0;
             row = this.pos + 1;
         }
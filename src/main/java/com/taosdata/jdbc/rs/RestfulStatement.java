@@ -1,9 +1,9 @@
 package com.taosdata.jdbc.rs;
 
-import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONArray;
 import com.alibaba.fastjson.JSONException;
-import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.JSONReader;
+import com.alibaba.fastjson.parser.Feature;
 import com.taosdata.jdbc.AbstractStatement;
 import com.taosdata.jdbc.TSDBDriver;
 import com.taosdata.jdbc.TSDBError;
@@ -11,6 +11,11 @@ import com.taosdata.jdbc.TSDBErrorNumbers;
 import com.taosdata.jdbc.utils.HttpClientPoolUtil;
 import com.taosdata.jdbc.utils.SqlSyntaxValidator;
 
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -71,6 +76,9 @@ public class RestfulStatement extends AbstractStatement {
             if (!isClosed())
                 this.closed = true;
         }
+        if (this.resultSet != null) {
+            this.resultSet.close();
+        }
     }
 
     @Override
@@ -85,44 +93,101 @@ public class RestfulStatement extends AbstractStatement {
 
         // 如果执行了use操作应该将当前Statement的catalog设置为新的database
         boolean result = true;
-
-        String response = HttpClientPoolUtil.execute(getUrl(), sql, this.conn.getAuth(), reqId);
-        JSONObject jsonObject = null;
+        if (this.resultSet != null) {
+            this.resultSet.close();
+            this.resultSet = null;
+        }
+        boolean useSql = SqlSyntaxValidator.isUseSql(sql);
+
+        // with a fetch size set, the response is read as it is received and the rows of a query are left in the
+        // stream for the result set, which holds the http connection until its rows are read or it is closed.
+        // otherwise the response is read whole and its connection released before parsing.
+        boolean stream = getFetchSize() > 0 && !useSql;
+        Reader source;
+        if (stream) {
+            InputStream response = HttpClientPoolUtil.executeForStream(getUrl(), sql, this.conn.getAuth(), reqId);
+            source = new InputStreamReader(response, StandardCharsets.UTF_8);
+        } else {
+            source = new StringReader(HttpClientPoolUtil.execute(getUrl(), sql, this.conn.getAuth(), reqId));
+        }
+        JSONReader reader = new JSONReader(source);
+        reader.config(Feature.AutoCloseSource, false);
+        boolean streaming = false;
+        Integer code = null;
+        String desc = null;
+        JSONArray head = null;
+        JSONArray data = null;
+        Integer rows = null;
         try {
-            jsonObject = JSON.parseObject(response);
+            reader.startObject();
+            while (reader.hasNext()) {
+                String key = reader.readString();
+                switch (key) {
+                    case "code":
+                        code = reader.readInteger();
+                        break;
+                    case "desc":
+                        desc = reader.readString();
+                        break;
+                    case "column_meta":
+                        head = reader.readObject(JSONArray.class);
+                        break;
+                    case "data":
+                        if (stream && code != null && code == 0 && head != null && !isAffectedRowsHead(head)) {
+                            this.resultSet = new RestfulResultSet(database, this, head, reader);
+                            this.affectedRows = -1;
+                            streaming = true;
+                            return true;
+                        }
+                        data = reader.readObject(JSONArray.class);
+                        break;
+                    case "rows":
+                        rows = reader.readInteger();
+                        break;
+                    default:
+                        reader.readObject();
+                        break;
+                }
+            }
+            reader.endObject();
         } catch (JSONException e) {
-            throw new JSONException(String.format("execute sql: %s, response: %s, can not cast to JSONObject.", sql, response), e);
+            throw new JSONException(String.format("execute sql: %s, can not parse the response as JSONObject.", sql), e);
+        } finally {
+            if (!streaming) {
+                reader.close();
+            }
         }
-        if (null == jsonObject) {
+        if (null == code) {
             throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_UNKNOWN, "sql: " + sql);
         }
-        if (jsonObject.getIntValue("code") != 0) {
-            throw TSDBError.createSQLException(jsonObject.getInteger("code"), "sql: " + sql + ", desc: " + jsonObject.getString("desc"));
+        if (code != 0) {
+            throw TSDBError.createSQLException(code, "sql: " + sql + ", desc: " + desc);
         }
 
-        if (SqlSyntaxValidator.isUseSql(sql)) {
+        if (useSql) {
             this.database = getDatabaseName(sql);
             this.conn.setCatalog(this.database);
             this.conn.setClientInfo(TSDBDriver.PROPERTY_KEY_DBNAME, this.database);
             result = false;
         } else {
-            JSONArray head = jsonObject.getJSONArray("column_meta");
             if (null == head) {
-                throw TSDBError.createSQLException(jsonObject.getInteger("code"), "sql: " + sql + ", desc: " + jsonObject.getString("desc") + ", head meta is null.");
+                throw TSDBError.createSQLException(code, "sql: " + sql + ", desc: " + desc + ", head meta is null.");
             }
-            Integer rows = jsonObject.getInteger("rows");
-            if (head.size() == 1 && ROW_NAME.equals(head.getJSONArray(0).getString(0)) && rows == 1) {
+            if (isAffectedRowsHead(head) && rows != null && rows == 1) {
                 this.resultSet = null;
-                this.affectedRows = getAffectedRows(jsonObject);
+                this.affectedRows = getAffectedRows(head, data);
                 return false;
             } else {
-                this.resultSet = new RestfulResultSet(database, this, jsonObject);
+                this.resultSet = new RestfulResultSet(database, this, head, data);
                 this.affectedRows = -1;
             }
         }
         return result;
     }
 
+    private static boolean isAffectedRowsHead(JSONArray head) {
+        return head.size() == 1 && ROW_NAME.equals(head.getJSONArray(0).getString(0));
+    }
 
     private String getUrl() throws SQLException {
         String dbname = conn.getClientInfo(TSDBDriver.PROPERTY_KEY_DBNAME);
@@ -150,15 +215,13 @@ public class RestfulStatement extends AbstractStatement {
         return url;
     }
 
-    private int getAffectedRows(JSONObject jsonObject) throws SQLException {
-        JSONArray head = jsonObject.getJSONArray("column_meta");
-        if (head.size() != 1 || !"affected_rows".equals(head.getJSONArray(0).getString(0)))
+    private int getAffectedRows(JSONArray head, JSONArray data) throws SQLException {
+        if (!isAffectedRowsHead(head))
             throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_INVALID_VARIABLE, "invalid variable: [" + head.toJSONString() + "]");
-        JSONArray data = jsonObject.getJSONArray("data");
         if (data != null) {
             return data.getJSONArray(0).getInteger(0);
         }
-        throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_INVALID_VARIABLE, "invalid variable: [" + jsonObject.toJSONString() + "]");
+        throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_INVALID_VARIABLE, "invalid variable: [" + head.toJSONString() + "]");
     }
 
     @Override
@@ -1,25 +1,58 @@
 package com.taosdata.jdbc.tmq;
 
 import com.taosdata.jdbc.TaosGlobalConfig;
-import com.taosdata.jdbc.utils.Utils;
 
 import java.beans.BeanInfo;
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * deserialize each row into a bean of V through its setters.
+ * the setters are resolved to method handles once, and bound to column indexes once per result schema,
+ * so a row is read by index and written without reflection or boxing of primitive properties.
+ */
 public class ReferenceDeserializer<V> implements Deserializer<V> {
+    private static final int STRING = 0;
+    private static final int INTEGER = 1;
+    private static final int INT = 2;
+    private static final int SHORT_OBJECT = 3;
+    private static final int SHORT = 4;
+    private static final int BYTE_OBJECT = 5;
+    private static final int BYTE = 6;
+    private static final int CHARACTER = 7;
+    private static final int CHAR = 8;
+    private static final int FLOAT_OBJECT = 9;
+    private static final int FLOAT = 10;
+    private static final int DOUBLE_OBJECT = 11;
+    private static final int DOUBLE = 12;
+    private static final int LONG_OBJECT = 13;
+    private static final int LONG = 14;
+    private static final int BOOLEAN_OBJECT = 15;
+    private static final int BOOLEAN = 16;
+    private static final int TIMESTAMP = 17;
+    private static final int BYTES = 18;
+
+    private MethodHandle constructor;
     private Param[] params;
+    // metadata and column labels the params are bound to
+    private ResultSetMetaData metaData;
+    private String[] columns;
 
     @Override
     public void configure(Map<?, ?> configs) {
@@ -29,118 +62,273 @@ public class ReferenceDeserializer<V> implements Deserializer<V> {
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public V deserialize(ResultSet data, String topic, String dbName) throws DeserializerException, SQLException {
+        if (params == null)
+            init(getGenericType());
+        ResultSetMetaData md = data.getMetaData();
+        if (md != metaData)
+            bind(data, md);
 
-        Class<V> clazz = getGenericType();
-        V t = null;
+        V t;
         try {
-            t = Utils.newInstance(clazz);
-            if (params == null) {
-                List<Param> lists = new ArrayList<>();
-                BeanInfo beanInfo = Introspector.getBeanInfo(clazz);
-                for (PropertyDescriptor property : beanInfo.getPropertyDescriptors()) {
-                    String name = property.getName();
-                    if ("class".equals(name))
-                        continue;
-                    Method method = property.getWriteMethod();
-                    if (null != method) {
-                        method.setAccessible(true);
-                        Param param = new Param();
-                        param.name = name;
-                        param.method = method;
-                        param.clazz = method.getParameterTypes()[0];
-                        lists.add(param);
-                    }
-                }
-                params = lists.toArray(new Param[0]);
-            }
-        } catch (IntrospectionException e) {
-            throw new SQLException(this.getClass().getSimpleName() + " get BeanInfo error!", e);
+            t = (V) constructor.invokeExact();
+        } catch (Throwable e) {
+            throw new RuntimeException("Could not instantiate class " + getGenericType().getName(), e);
         }
 
-
         for (Param param : params) {
             try {
-                // string
-                if (param.clazz.isAssignableFrom(String.class)) {
-                    String string = data.getString(param.name);
-                    param.method.invoke(t, data.wasNull() ? null : string);
-
-                    // int
-                } else if (param.clazz.isAssignableFrom(Integer.class)) {
-                    int i = data.getInt(param.name);
-                    param.method.invoke(t, data.wasNull() ? null : i);
-                } else if (param.clazz.isAssignableFrom(int.class)) {
-                    param.method.invoke(t, data.getInt(param.name));
-
-                    // short
-                } else if (param.clazz.isAssignableFrom(Short.class)) {
-                    short s = data.getShort(param.name);
-                    param.method.invoke(t, data.wasNull() ? null : s);
-                } else if (param.clazz.isAssignableFrom(short.class)) {
-                    param.method.invoke(t, data.getShort(param.name));
-
-                    // byte
-                } else if (param.clazz.isAssignableFrom(Byte.class)) {
-                    byte b = data.getByte(param.name);
-                    param.method.invoke(t, data.wasNull() ? null : b);
-                } else if (param.clazz.isAssignableFrom(byte.class)) {
-                    param.method.invoke(t, data.getByte(param.name));
-
-                    // char
-                } else if (param.clazz.isAssignableFrom(Character.class)) {
-                    char c = (char) data.getByte(param.name);
-                    param.method.invoke(t, data.wasNull() ? null : c);
-                } else if (param.clazz.isAssignableFrom(char.class)) {
-                    param.method.invoke(t, (char) data.getByte(param.name));
-
-                    // float
-                } else if (param.clazz.isAssignableFrom(Float.class)) {
-                    float f = data.getFloat(param.name);
-                    param.method.invoke(t, data.wasNull() ? null : f);
-                } else if (param.clazz.isAssignableFrom(float.class)) {
-                    param.method.invoke(t, data.getFloat(param.name));
-
-                    // double
-                } else if (param.clazz.isAssignableFrom(Double.class)) {
-                    double d = data.getDouble(param.name);
-                    param.method.invoke(t, data.wasNull() ? null : d);
-                } else if (param.clazz.isAssignableFrom(double.class)) {
-                    param.method.invoke(t, data.getDouble(param.name));
-
-                    // long
-                } else if (param.clazz.isAssignableFrom(Long.class)) {
-                    long l = data.getLong(param.name);
-                    param.method.invoke(t, data.wasNull() ? null : l);
-                } else if (param.clazz.isAssignableFrom(long.class)) {
-                    param.method.invoke(t, data.getLong(param.name));
-
-                    // boolean
-                } else if (param.clazz.isAssignableFrom(Boolean.class)) {
-                    boolean b = data.getBoolean(param.name);
-                    param.method.invoke(t, data.wasNull() ? null : b);
-                } else if (param.clazz.isAssignableFrom(boolean.class)) {
-                    param.method.invoke(t, data.getBoolean(param.name));
-
-                    // timestamp
-                } else if (param.clazz.isAssignableFrom(Timestamp.class)) {
-                    Timestamp ts = data.getTimestamp(param.name);
-                    param.method.invoke(t, data.wasNull() ? null : ts);
-
-                    // bytes
-                } else if (param.clazz.isAssignableFrom(Byte[].class)
-                        || param.clazz.isAssignableFrom(byte[].class)) {
-                    byte[] bytes = data.getBytes(param.name);
-                    param.method.invoke(t, data.wasNull() ? null : bytes);
-                }
-            } catch (IllegalAccessException | InvocationTargetException e) {
+                write(param, t, data);
+            } catch (SQLException e) {
+                throw e;
+            } catch (Throwable e) {
                 throw new SQLException(this.getClass().getSimpleName() + ": " + param.name
-                        + " through method:" + param.method.getName() +" get Data error: ", e);
+                        + " through method:" + param.methodName + " get Data error: ", e);
             }
         }
         return t;
     }
 
+    private static void write(Param param, Object t, ResultSet data) throws Throwable {
+        int col = param.column;
+        MethodHandle setter = param.setter;
+        switch (param.kind) {
+            case STRING: {
+                String string = data.getString(col);
+                setter.invokeExact(t, (String) (data.wasNull() ? null : string));
+                break;
+            }
+            case INTEGER: {
+                int i = data.getInt(col);
+                setter.invokeExact(t, (Integer) (data.wasNull() ? null : Integer.valueOf(i)));
+                break;
+            }
+            case INT:
+                setter.invokeExact(t, data.getInt(col));
+                break;
+            case SHORT_OBJECT: {
+                short s = data.getShort(col);
+                setter.invokeExact(t, (Short) (data.wasNull() ? null : Short.valueOf(s)));
+                break;
+            }
+            case SHORT:
+                setter.invokeExact(t, data.getShort(col));
+                break;
+            case BYTE_OBJECT: {
+                byte b = data.getByte(col);
+                setter.invokeExact(t, (Byte) (data.wasNull() ? null : Byte.valueOf(b)));
+                break;
+            }
+            case BYTE:
+                setter.invokeExact(t, data.getByte(col));
+                break;
+            case CHARACTER: {
+                char c = (char) data.getByte(col);
+                setter.invokeExact(t, (Character) (data.wasNull() ? null : Character.valueOf(c)));
+                break;
+            }
+            case CHAR:
+                setter.invokeExact(t, (char) data.getByte(col));
+                break;
+            case FLOAT_OBJECT: {
+                float f = data.getFloat(col);
+                setter.invokeExact(t, (Float) (data.wasNull() ? null : Float.valueOf(f)));
+                break;
+            }
+            case FLOAT:
+                setter.invokeExact(t, data.getFloat(col));
+                break;
+            case DOUBLE_OBJECT: {
+                double d = data.getDouble(col);
+                setter.invokeExact(t, (Double) (data.wasNull() ? null : Double.valueOf(d)));
+                break;
+            }
+            case DOUBLE:
+                setter.invokeExact(t, data.getDouble(col));
+                break;
+            case LONG_OBJECT: {
+                long l = data.getLong(col);
+                setter.invokeExact(t, (Long) (data.wasNull() ? null : Long.valueOf(l)));
+                break;
+            }
+            case LONG:
+                setter.invokeExact(t, data.getLong(col));
+                break;
+            case BOOLEAN_OBJECT: {
+                boolean b = data.getBoolean(col);
+                setter.invokeExact(t, (Boolean) (data.wasNull() ? null : Boolean.valueOf(b)));
+                break;
+            }
+            case BOOLEAN:
+                setter.invokeExact(t, data.getBoolean(col));
+                break;
+            case TIMESTAMP: {
+                Timestamp ts = data.getTimestamp(col);
+                setter.invokeExact(t, (Timestamp) (data.wasNull() ? null : ts));
+                break;
+            }
+            case BYTES: {
+                byte[] bytes = data.getBytes(col);
+                setter.invokeExact(t, (byte[]) (data.wasNull() ? null : bytes));
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    /**
+     * resolve the constructor and the setters of the supported properties of clazz
+     */
+    private void init(Class<V> clazz) throws SQLException {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            Constructor<V> declaredConstructor = clazz.getDeclaredConstructor();
+            declaredConstructor.setAccessible(true);
+            constructor = lookup.unreflectConstructor(declaredConstructor).asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException e) {
+            throw new RuntimeException("Could not find a public no-argument constructor for " + clazz.getName(), e);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new RuntimeException("Could not instantiate class " + clazz.getName(), e);
+        }
+
+        List<Param> lists = new ArrayList<>();
+        try {
+            BeanInfo beanInfo = Introspector.getBeanInfo(clazz);
+            for (PropertyDescriptor property : beanInfo.getPropertyDescriptors()) {
+                String name = property.getName();
+                if ("class".equals(name))
+                    continue;
+                Method method = property.getWriteMethod();
+                if (null == method)
+                    continue;
+                Class<?> type = method.getParameterTypes()[0];
+                int kind = kindOf(type);
+                if (kind < 0)
+                    continue;
+                method.setAccessible(true);
+                Param param = new Param();
+                param.name = name;
+                param.methodName = method.getName();
+                param.kind = kind;
+                param.setter = lookup.unreflect(method)
+                        .asType(MethodType.methodType(void.class, Object.class, valueType(kind)));
+                lists.add(param);
+            }
+        } catch (IntrospectionException e) {
+            throw new SQLException(this.getClass().getSimpleName() + " get BeanInfo error!", e);
+        } catch (IllegalAccessException e) {
+            throw new SQLException(this.getClass().getSimpleName() + " get setter error!", e);
+        }
+        params = lists.toArray(new Param[0]);
+    }
+
+    /**
+     * bind each param to its column, the lookup by name is only done again when the columns change
+     */
+    private void bind(ResultSet data, ResultSetMetaData md) throws SQLException {
+        String[] labels = new String[md.getColumnCount()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = md.getColumnLabel(i + 1);
+        }
+        if (!Arrays.equals(labels, columns)) {
+            for (Param param : params) {
+                param.column = data.findColumn(param.name);
+            }
+            columns = labels;
+        }
+        metaData = md;
+    }
+
+    // same order of checks as the property types were matched by reflection
+    private static int kindOf(Class<?> type) {
+        if (type.isAssignableFrom(String.class))
+            return STRING;
+        if (type.isAssignableFrom(Integer.class))
+            return INTEGER;
+        if (type.isAssignableFrom(int.class))
+            return INT;
+        if (type.isAssignableFrom(Short.class))
+            return SHORT_OBJECT;
+        if (type.isAssignableFrom(short.class))
+            return SHORT;
+        if (type.isAssignableFrom(Byte.class))
+            return BYTE_OBJECT;
+        if (type.isAssignableFrom(byte.class))
+            return BYTE;
+        if (type.isAssignableFrom(Character.class))
+            return CHARACTER;
+        if (type.isAssignableFrom(char.class))
+            return CHAR;
+        if (type.isAssignableFrom(Float.class))
+            return FLOAT_OBJECT;
+        if (type.isAssignableFrom(float.class))
+            return FLOAT;
+        if (type.isAssignableFrom(Double.class))
+            return DOUBLE_OBJECT;
+        if (type.isAssignableFrom(double.class))
+            return DOUBLE;
+        if (type.isAssignableFrom(Long.class))
+            return LONG_OBJECT;
+        if (type.isAssignableFrom(long.class))
+            return LONG;
+        if (type.isAssignableFrom(Boolean.class))
+            return BOOLEAN_OBJECT;
+        if (type.isAssignableFrom(boolean.class))
+            return BOOLEAN;
+        if (type.isAssignableFrom(Timestamp.class))
+            return TIMESTAMP;
+        if (type.isAssignableFrom(Byte[].class) || type.isAssignableFrom(byte[].class))
+            return BYTES;
+        return -1;
+    }
+
+    // static type of the value passed to the setter of each kind
+    private static Class<?> valueType(int kind) {
+        switch (kind) {
+            case STRING:
+                return String.class;
+            case INTEGER:
+                return Integer.class;
+            case INT:
+                return int.class;
+            case SHORT_OBJECT:
+                return Short.class;
+            case SHORT:
+                return short.class;
+            case BYTE_OBJECT:
+                return Byte.class;
+            case BYTE:
+                return byte.class;
+            case CHARACTER:
+                return Character.class;
+            case CHAR:
+                return char.class;
+            case FLOAT_OBJECT:
+                return Float.class;
+            case FLOAT:
+                return float.class;
+            case DOUBLE_OBJECT:
+                return Double.class;
+            case DOUBLE:
+                return double.class;
+            case LONG_OBJECT:
+                return Long.class;
+            case LONG:
+                return long.class;
+            case BOOLEAN_OBJECT:
+                return Boolean.class;
+            case BOOLEAN:
+                return boolean.class;
+            case TIMESTAMP:
+                return Timestamp.class;
+            default:
+                return byte[].class;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
     private Class<V> getGenericType() {
         Type type = getClass().getGenericSuperclass();
         if (type instanceof ParameterizedType) {
@@ -152,7 +340,9 @@ public class ReferenceDeserializer<V> implements Deserializer<V> {
 
     private static class Param {
         String name;
-        Method method;
-        Class<?> clazz;
+        String methodName;
+        int kind;
+        MethodHandle setter;
+        int column;
     }
 }
@@ -13,6 +13,8 @@ public class TMQResultSet extends AbstractResultSet {
     private final long resultSetPointer;
     private final List<ColumnMetaData> columnMetaDataList = new ArrayList<>();
     private final TSDBResultSetBlockData blockData;
+    // replaced for every block so a deserializer can tell when the columns may have changed
+    private ResultSetMetaData metaData;
 
     private boolean isClosed;
 
@@ -21,6 +23,7 @@ public class TMQResultSet extends AbstractResultSet {
         this.resultSetPointer = resultSetPointer;
         this.timestampPrecision = timestampPrecision;
         this.blockData = new TSDBResultSetBlockData(this.columnMetaDataList, timestampPrecision);
+        this.metaData = new TSDBResultSetMetaData(this.columnMetaDataList);
     }
 
     public boolean next() throws SQLException {
@@ -40,6 +43,7 @@ public class TMQResultSet extends AbstractResultSet {
             return false;
         } else {
             this.blockData.reset();
+            this.metaData = new TSDBResultSetMetaData(this.columnMetaDataList);
             return true;
         }
     }
@@ -119,7 +123,7 @@ public class TMQResultSet extends AbstractResultSet {
         if (isClosed())
             throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_RESULTSET_CLOSED);
 
-        return new TSDBResultSetMetaData(this.columnMetaDataList);
+        return this.metaData;
     }
 
     @Override
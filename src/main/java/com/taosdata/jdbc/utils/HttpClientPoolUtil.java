@@ -11,8 +11,10 @@ import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.*;
 import org.apache.http.client.protocol.HttpClientContext;
 import org.apache.http.conn.ConnectionKeepAliveStrategy;
-import org.apache.http.entity.StringEntity;
+import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultHttpRequestRetryHandler;
+import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.message.BasicHeaderElementIterator;
@@ -20,15 +22,18 @@ import org.apache.http.protocol.HTTP;
 import org.apache.http.protocol.HttpContext;
 import org.apache.http.util.EntityUtils;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 public class HttpClientPoolUtil {
 
     private static final String DEFAULT_CONTENT_TYPE = "application/json";
-    private static final int DEFAULT_MAX_RETRY_COUNT = 5;
+    public static final String DEFAULT_RETRY_COUNT = "4";
 
     public static final String DEFAULT_HTTP_KEEP_ALIVE = "true";
     public static final String DEFAULT_MAX_PER_ROUTE = "20";
@@ -56,6 +61,9 @@ public class HttpClientPoolUtil {
     private static volatile CloseableHttpClient httpClient;
     private static int connectTimeout = 0;
     private static int socketTimeout = 0;
+    private static boolean compression;
+    // sql of at least this many bytes is sent gzip encoded, 0 never
+    private static int requestCompressionSize;
 
     public static void init(Properties props) {
         int poolSize = Integer.parseInt(props.getProperty(TSDBDriver.HTTP_POOL_SIZE, HttpClientPoolUtil.DEFAULT_MAX_PER_ROUTE));
@@ -66,14 +74,33 @@ public class HttpClientPoolUtil {
             synchronized (HttpClientPoolUtil.class) {
                 if (httpClient == null) {
                     isKeepAlive = keepAlive ? HTTP.CONN_KEEP_ALIVE : HTTP.CONN_CLOSE;
-                    PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
-                    connectionManager.setMaxTotal(poolSize * 10);
+                    int maxTotal = Integer.parseInt(props.getProperty(TSDBDriver.HTTP_MAX_TOTAL, String.valueOf(poolSize * 10)));
+                    long idleTimeout = Long.parseLong(props.getProperty(TSDBDriver.HTTP_IDLE_TIMEOUT, "0"));
+                    long connectionTtl = Long.parseLong(props.getProperty(TSDBDriver.HTTP_CONNECTION_TTL, "0"));
+                    int retryCount = Integer.parseInt(props.getProperty(TSDBDriver.HTTP_RETRY_COUNT, DEFAULT_RETRY_COUNT));
+                    compression = Boolean.parseBoolean(props.getProperty(TSDBDriver.HTTP_COMPRESSION, "false"));
+                    requestCompressionSize = Integer.parseInt(props.getProperty(TSDBDriver.HTTP_REQUEST_COMPRESSION_SIZE, "0"));
+
+                    PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(connectionTtl, TimeUnit.MILLISECONDS);
+                    connectionManager.setMaxTotal(maxTotal);
                     connectionManager.setDefaultMaxPerRoute(poolSize);
-                    httpClient = HttpClients.custom()
+                    // the responses are decoded by HttpCompression, which counts the bytes saved
+                    HttpClientBuilder builder = HttpClients.custom()
                             .setKeepAliveStrategy(DEFAULT_KEEP_ALIVE_STRATEGY)
                             .setConnectionManager(connectionManager)
-                            .setRetryHandler((exception, executionCount, httpContext) -> executionCount < DEFAULT_MAX_RETRY_COUNT)
-                            .build();
+                            .disableContentCompression()
+                            // timeouts, unknown hosts and refused connections are not retried
+                            .setRetryHandler(new DefaultHttpRequestRetryHandler(retryCount, true));
+                    if (compression) {
+                        builder.addInterceptorFirst(HttpCompression.RESPONSE_INTERCEPTOR);
+                    }
+                    if (idleTimeout > 0) {
+                        builder.evictIdleConnections(idleTimeout, TimeUnit.MILLISECONDS);
+                    }
+                    if (connectionTtl > 0) {
+                        builder.evictExpiredConnections();
+                    }
+                    httpClient = builder.build();
                 }
             }
         }
@@ -109,21 +136,7 @@ public class HttpClientPoolUtil {
 
     /*** execute POST request ***/
     public static String execute(String uri, String data, String auth, Long reqId) throws SQLException {
-
-        if (reqId != null) {
-            if (uri.contains("?"))
-                uri = uri + "&reqId=" + reqId;
-            else
-                uri = uri + "?reqId=" + reqId;
-        }
-
-        HttpEntityEnclosingRequestBase method = (HttpEntityEnclosingRequestBase) getRequest(uri, HttpPost.METHOD_NAME);
-        method.setHeader(HTTP.CONTENT_TYPE, "text/plain");
-        method.setHeader(HTTP.CONN_DIRECTIVE, isKeepAlive);
-        if (auth != null) {
-            method.setHeader("Authorization", auth);
-        }
-        method.setEntity(new StringEntity(data, StandardCharsets.UTF_8));
+        HttpEntityEnclosingRequestBase method = postRequest(uri, data, auth, reqId);
         HttpContext context = HttpClientContext.create();
 
         HttpEntity httpEntity = null;
@@ -146,6 +159,91 @@ public class HttpClientPoolUtil {
         return responseBody;
     }
 
+    /**
+     * execute POST request and return the response body as it is received.
+     * the http connection is returned to the pool once the stream is read to the end,
+     * closing the stream before that closes the connection instead of reading the rest of the body.
+     */
+    public static InputStream executeForStream(String uri, String data, String auth, Long reqId) throws SQLException {
+        HttpEntityEnclosingRequestBase method = postRequest(uri, data, auth, reqId);
+        HttpContext context = HttpClientContext.create();
+
+        CloseableHttpResponse httpResponse = null;
+        try {
+            httpResponse = httpClient.execute(method, context);
+            HttpEntity httpEntity = httpResponse.getEntity();
+            if (httpEntity == null) {
+                throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_HTTP_ENTITY_IS_NULL, "httpEntity is null, sql: " + data);
+            }
+            CloseableHttpResponse response = httpResponse;
+            return new FilterInputStream(httpEntity.getContent()) {
+                @Override
+                public void close() throws IOException {
+                    response.close();
+                }
+            };
+        } catch (ClientProtocolException e) {
+            closeQuietly(httpResponse);
+            throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_RESTFul_Client_Protocol_Exception, e.getMessage());
+        } catch (IOException exception) {
+            closeQuietly(httpResponse);
+            throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_RESTFul_Client_IOException, exception.getMessage());
+        } catch (SQLException e) {
+            closeQuietly(httpResponse);
+            throw e;
+        }
+    }
+
+    private static void closeQuietly(CloseableHttpResponse httpResponse) {
+        if (httpResponse == null)
+            return;
+        try {
+            httpResponse.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static HttpEntityEnclosingRequestBase postRequest(String uri, String data, String auth, Long reqId) {
+        if (reqId != null) {
+            if (uri.contains("?"))
+                uri = uri + "&reqId=" + reqId;
+            else
+                uri = uri + "?reqId=" + reqId;
+        }
+
+        HttpEntityEnclosingRequestBase method = (HttpEntityEnclosingRequestBase) getRequest(uri, HttpPost.METHOD_NAME);
+        method.setHeader(HTTP.CONTENT_TYPE, "text/plain");
+        method.setHeader(HTTP.CONN_DIRECTIVE, isKeepAlive);
+        if (auth != null) {
+            method.setHeader("Authorization", auth);
+        }
+        byte[] body = data.getBytes(StandardCharsets.UTF_8);
+        if (requestCompressionSize > 0 && body.length >= requestCompressionSize) {
+            try {
+                method.setEntity(HttpCompression.gzip(body));
+            } catch (IOException e) {
+                method.setEntity(new ByteArrayEntity(body));
+            }
+        } else {
+            method.setEntity(new ByteArrayEntity(body));
+        }
+        return method;
+    }
+
+    /**
+     * @return bytes not received because responses were compressed, since the driver was loaded
+     */
+    public static long getResponseBytesSaved() {
+        return HttpCompression.getResponseBytesSaved();
+    }
+
+    /**
+     * @return bytes not sent because sql was compressed, since the driver was loaded
+     */
+    public static long getRequestBytesSaved() {
+        return HttpCompression.getRequestBytesSaved();
+    }
+
     /*** create http request ***/
     private static HttpRequestBase getRequest(String uri, String methodName) {
         HttpRequestBase method;
@@ -166,6 +264,9 @@ public class HttpClientPoolUtil {
         }
         method.addHeader(HTTP.CONTENT_TYPE, DEFAULT_CONTENT_TYPE);
         method.addHeader("Accept", DEFAULT_CONTENT_TYPE);
+        if (compression) {
+            method.addHeader("Accept-Encoding", HttpCompression.ACCEPT_ENCODING);
+        }
         method.setConfig(requestConfig);
         return method;
     }
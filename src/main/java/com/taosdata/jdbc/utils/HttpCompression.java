@@ -0,0 +1,156 @@
+package com.taosdata.jdbc.utils;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.client.entity.DeflateInputStream;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * gzip and deflate of REST request and response bodies, counting the bytes they save on the wire
+ */
+class HttpCompression {
+    static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    private static final LongAdder responseBytesSaved = new LongAdder();
+    private static final LongAdder requestBytesSaved = new LongAdder();
+
+    private HttpCompression() {
+    }
+
+    /**
+     * decode the body of a gzip or deflate encoded response as it is read
+     */
+    static final HttpResponseInterceptor RESPONSE_INTERCEPTOR = (HttpResponse response, HttpContext context) -> {
+        HttpEntity entity = response.getEntity();
+        if (entity == null || entity.getContentLength() == 0)
+            return;
+        Header encoding = entity.getContentEncoding();
+        if (encoding == null)
+            return;
+        String value = encoding.getValue().trim().toLowerCase(Locale.ROOT);
+        if ("gzip".equals(value) || "x-gzip".equals(value)) {
+            response.setEntity(new DecodingEntity(entity, true));
+        } else if ("deflate".equals(value)) {
+            response.setEntity(new DecodingEntity(entity, false));
+        } else {
+            return;
+        }
+        response.removeHeaders("Content-Length");
+        response.removeHeaders("Content-Encoding");
+        response.removeHeaders("Content-MD5");
+    };
+
+    /**
+     * @return a gzip entity of body
+     */
+    static HttpEntity gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        byte[] compressed = out.toByteArray();
+        requestBytesSaved.add(body.length - compressed.length);
+        ByteArrayEntity entity = new ByteArrayEntity(compressed);
+        entity.setContentEncoding("gzip");
+        return entity;
+    }
+
+    static long getResponseBytesSaved() {
+        return responseBytesSaved.sum();
+    }
+
+    static long getRequestBytesSaved() {
+        return requestBytesSaved.sum();
+    }
+
+    private static class DecodingEntity extends HttpEntityWrapper {
+        private final boolean gzip;
+        private InputStream content;
+
+        DecodingEntity(HttpEntity entity, boolean gzip) {
+            super(entity);
+            this.gzip = gzip;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            if (content == null) {
+                InputStream wire = new CountingInputStream(wrappedEntity.getContent(), -1);
+                content = new CountingInputStream(gzip ? new GZIPInputStream(wire) : new DeflateInputStream(wire), 1);
+            }
+            return content;
+        }
+
+        @Override
+        public Header getContentEncoding() {
+            return null;
+        }
+
+        @Override
+        public long getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public void writeTo(OutputStream outStream) throws IOException {
+            try (InputStream in = getContent()) {
+                byte[] buffer = new byte[4096];
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    outStream.write(buffer, 0, n);
+                }
+            }
+        }
+    }
+
+    /**
+     * adds the bytes read times sign to the response bytes saved,
+     * so decoded bytes count up and the bytes received count down
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        private final int sign;
+
+        CountingInputStream(InputStream in, int sign) {
+            super(in);
+            this.sign = sign;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1)
+                responseBytesSaved.add(sign);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0)
+                responseBytesSaved.add((long) sign * n);
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            if (skipped > 0)
+                responseBytesSaved.add(sign * skipped);
+            return skipped;
+        }
+    }
+}
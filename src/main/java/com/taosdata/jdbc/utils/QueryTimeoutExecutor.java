@@ -0,0 +1,67 @@
+package com.taosdata.jdbc.utils;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * driver-wide threads running the JNI queries which have a query timeout, so the caller can stop waiting.
+ * a timed out JNI query can't be stopped and keeps its thread until it returns, so the number of threads
+ * is bounded and queries beyond it wait in a queue, which counts against their timeout.
+ * threads are reused by later queries and exit after being idle for a minute.
+ */
+public class QueryTimeoutExecutor {
+    static final int MAX_THREADS = Math.max(16, Runtime.getRuntime().availableProcessors() * 4);
+    private static final AtomicInteger threadIndex = new AtomicInteger();
+    private static final ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS,
+            60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+        Thread t = new Thread(r);
+        t.setDaemon(true);
+        t.setName("taos-query-" + threadIndex.incrementAndGet());
+        return t;
+    });
+
+    static {
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    private QueryTimeoutExecutor() {
+    }
+
+    /**
+     * @return the largest number of threads that have run at once
+     */
+    static int getLargestPoolSize() {
+        return executor.getLargestPoolSize();
+    }
+
+    /**
+     * run task in the background, cancelling the returned future only stops waiting for it.
+     * a task still queued when the future is done is skipped.
+     *
+     * @param discard given the result of a task completing after the future is done, so it can be freed.
+     *                may be null.
+     */
+    public static <T> CompletableFuture<T> submit(Callable<T> task, Consumer<? super T> discard) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            if (future.isDone())
+                return;
+            T result;
+            try {
+                result = task.call();
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+                return;
+            }
+            if (!future.complete(result) && discard != null && result != null) {
+                discard.accept(result);
+            }
+        });
+        return future;
+    }
+}
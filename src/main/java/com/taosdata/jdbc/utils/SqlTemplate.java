@@ -0,0 +1,121 @@
+package com.taosdata.jdbc.utils;
+
+import com.google.common.collect.Range;
+import com.google.common.collect.RangeSet;
+import com.google.common.collect.TreeRangeSet;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * a sql with '?' placeholders, parsed once into the literal segments between placeholders
+ * and whether each placeholder is inside a tags, where or values clause.
+ * immutable, the same template can be shared by statements of the same sql.
+ */
+public class SqlTemplate {
+
+    private static final Pattern[] CLAUSE_PATTERNS = {
+            Pattern.compile("tags\\s*\\([\\s\\S]*?\\)"),
+            Pattern.compile("where[\\s\\S]*")
+    };
+    private static final Pattern VALUES_PATTERN = Pattern.compile("(values||,)\\s*(\\([^)]*\\))");
+
+    private final String rawSql;
+    // literal sql between placeholders, same as rawSql.split("\\?")
+    private final String[] segments;
+    // string parameters of placeholders in a clause are quoted
+    private final boolean[] quoted;
+
+    private SqlTemplate(String rawSql, String[] segments, boolean[] quoted) {
+        this.rawSql = rawSql;
+        this.segments = segments;
+        this.quoted = quoted;
+    }
+
+    public static SqlTemplate compile(String rawSql) {
+        if (!rawSql.contains("?")) {
+            return new SqlTemplate(rawSql, null, null);
+        }
+        // toLowerCase
+        String preparedSql = rawSql.trim().toLowerCase();
+        List<Integer> placeholderPositions = new ArrayList<>();
+        for (int i = preparedSql.indexOf('?'); i >= 0; i = preparedSql.indexOf('?', i + 1)) {
+            placeholderPositions.add(i);
+        }
+        RangeSet<Integer> clauseRangeSet = TreeRangeSet.create();
+        // find tags and where clause's position
+        for (Pattern pattern : CLAUSE_PATTERNS) {
+            Matcher matcher = pattern.matcher(preparedSql);
+            while (matcher.find()) {
+                clauseRangeSet.add(Range.closedOpen(matcher.start(), matcher.end()));
+            }
+        }
+        // find values clause's position
+        Matcher matcher = VALUES_PATTERN.matcher(preparedSql);
+        while (matcher.find()) {
+            clauseRangeSet.add(Range.closedOpen(matcher.start(2), matcher.end(2)));
+        }
+
+        boolean[] quoted = new boolean[placeholderPositions.size()];
+        for (int i = 0; i < quoted.length; i++) {
+            quoted[i] = clauseRangeSet.contains(placeholderPositions.get(i));
+        }
+        return new SqlTemplate(rawSql, rawSql.split("\\?"), quoted);
+    }
+
+    public String getRawSql() {
+        return rawSql;
+    }
+
+    /**
+     * substitute parameters into the sql
+     */
+    public String getNativeSql(Object[] parameters) {
+        if (parameters == null || segments == null)
+            return rawSql;
+        StringBuilder sb = new StringBuilder(rawSql.length() + parameters.length * 8);
+        appendNativeSql(sb, parameters);
+        return sb.toString();
+    }
+
+    /**
+     * append the sql with parameters substituted to sb, sb can be reused across executions
+     */
+    public void appendNativeSql(StringBuilder sb, Object[] parameters) {
+        if (parameters == null || segments == null) {
+            sb.append(rawSql);
+            return;
+        }
+        for (int index = 0; index < segments.length; index++) {
+            sb.append(segments[index]);
+            if (index >= parameters.length)
+                continue;
+
+            Object para = parameters[index];
+            if (para == null) {
+                sb.append("NULL");
+                continue;
+            }
+            // if para is timestamp or String or byte[] need to translate ' character
+            if (para instanceof Timestamp || para instanceof String || para instanceof byte[]) {
+                String paraStr = para instanceof byte[]
+                        ? new String((byte[]) para, StandardCharsets.UTF_8)
+                        : para.toString();
+                if (paraStr.indexOf('\'') >= 0) {
+                    paraStr = Utils.escapeSingleQuota(paraStr);
+                }
+                if (index < quoted.length && quoted[index]) {
+                    sb.append('\'').append(paraStr).append('\'');
+                } else {
+                    sb.append(paraStr);
+                }
+            } else {
+                sb.append(para);
+            }
+        }
+    }
+}
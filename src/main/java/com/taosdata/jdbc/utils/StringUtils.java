@@ -75,6 +75,12 @@ public class StringUtils {
             }
             url = url.substring(0, indexOfSlash);
         }
+        // parse endpoints, the first one is also the host and port
+        int indexOfComma = url.indexOf(",");
+        if (indexOfComma != -1) {
+            urlProps.setProperty(TSDBDriver.PROPERTY_KEY_ENDPOINTS, url);
+            url = url.substring(0, indexOfComma);
+        }
         // parse port
         int indexOfColon = url.indexOf(":");
         if (indexOfColon != -1) {
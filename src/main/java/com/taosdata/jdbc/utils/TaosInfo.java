@@ -10,6 +10,8 @@ public class TaosInfo implements TaosInfoMBean {
     private final AtomicLong connect_open = new AtomicLong();
     private final AtomicLong connect_close = new AtomicLong();
     private final AtomicLong statement_count = new AtomicLong();
+    private final AtomicLong query_timeout = new AtomicLong();
+    private final AtomicLong query_cancel = new AtomicLong();
 
     static {
         try {
@@ -41,6 +43,16 @@ public class TaosInfo implements TaosInfoMBean {
         return statement_count.get();
     }
 
+    @Override
+    public long getQuery_timeout() {
+        return query_timeout.get();
+    }
+
+    @Override
+    public long getQuery_cancel() {
+        return query_cancel.get();
+    }
+
     /*******************************************************/
 
     public void conn_open_increment() {
@@ -55,6 +67,14 @@ public class TaosInfo implements TaosInfoMBean {
         statement_count.incrementAndGet();
     }
 
+    public void query_timeout_increment() {
+        query_timeout.incrementAndGet();
+    }
+
+    public void query_cancel_increment() {
+        query_cancel.incrementAndGet();
+    }
+
     /********************************************************************************/
     private TaosInfo() {
     }
@@ -10,4 +10,8 @@ public interface TaosInfoMBean {
 
     long getStatement_count();
 
+    long getQuery_timeout();
+
+    long getQuery_cancel();
+
 }
@@ -1,11 +1,6 @@
 package com.taosdata.jdbc.utils;
 
-import com.google.common.collect.Range;
-import com.google.common.collect.RangeSet;
-import com.google.common.collect.TreeRangeSet;
-
 import java.lang.reflect.Constructor;
-import java.nio.charset.StandardCharsets;
 import java.sql.Date;
 import java.sql.Time;
 import java.sql.Timestamp;
@@ -13,12 +8,8 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
 import java.time.format.DateTimeParseException;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 public class Utils {
 
@@ -101,90 +92,7 @@ public class Utils {
     public static String getNativeSql(String rawSql, Object[] parameters) {
         if (parameters == null || !rawSql.contains("?"))
             return rawSql;
-        // toLowerCase
-        String preparedSql = rawSql.trim().toLowerCase();
-        String[] clause = new String[]{"tags\\s*\\([\\s\\S]*?\\)", "where[\\s\\S]*"};
-        Map<Integer, Integer> placeholderPositions = new HashMap<>();
-        RangeSet<Integer> clauseRangeSet = TreeRangeSet.create();
-        findPlaceholderPosition(preparedSql, placeholderPositions);
-        // find tags and where clause's position
-        findClauseRangeSet(preparedSql, clause, clauseRangeSet);
-        // find values clause's position
-        findValuesClauseRangeSet(preparedSql, clauseRangeSet);
-
-        return transformSql(rawSql, parameters, placeholderPositions, clauseRangeSet);
-    }
-
-    private static void findValuesClauseRangeSet(String preparedSql, RangeSet<Integer> clauseRangeSet) {
-        Matcher matcher = Pattern.compile("(values||,)\\s*(\\([^)]*\\))").matcher(preparedSql);
-        while (matcher.find()) {
-            int start = matcher.start(2);
-            int end = matcher.end(2);
-            clauseRangeSet.add(Range.closedOpen(start, end));
-        }
-    }
-
-    private static void findClauseRangeSet(String preparedSql, String[] regexArr, RangeSet<Integer> clauseRangeSet) {
-        clauseRangeSet.clear();
-        for (String regex : regexArr) {
-            Matcher matcher = Pattern.compile(regex).matcher(preparedSql);
-            while (matcher.find()) {
-                int start = matcher.start();
-                int end = matcher.end();
-                clauseRangeSet.add(Range.closedOpen(start, end));
-            }
-        }
-    }
-
-    private static void findPlaceholderPosition(String preparedSql, Map<Integer, Integer> placeholderPosition) {
-        placeholderPosition.clear();
-        Matcher matcher = Pattern.compile("\\?").matcher(preparedSql);
-        int index = 0;
-        while (matcher.find()) {
-            int pos = matcher.start();
-            placeholderPosition.put(index, pos);
-            index++;
-        }
-    }
-
-    /***
-     *
-     * @param rawSql
-     * @param paramArr
-     * @param placeholderPosition
-     * @param clauseRangeSet
-     * @return
-     */
-    private static String transformSql(String rawSql, Object[] paramArr, Map<Integer, Integer> placeholderPosition, RangeSet<Integer> clauseRangeSet) {
-        String[] sqlArr = rawSql.split("\\?");
-
-        return IntStream.range(0, sqlArr.length).mapToObj(index -> {
-            if (index == paramArr.length)
-                return sqlArr[index];
-
-            Object para = paramArr[index];
-            String paraStr;
-            if (para != null) {
-                if (para instanceof byte[]) {
-                    paraStr = new String((byte[]) para, StandardCharsets.UTF_8);
-                } else {
-                    paraStr = para.toString();
-                }
-                // if para is timestamp or String or byte[] need to translate ' character
-                if (para instanceof Timestamp || para instanceof String || para instanceof byte[]) {
-                    paraStr = Utils.escapeSingleQuota(paraStr);
-
-                    Integer pos = placeholderPosition.get(index);
-                    boolean contains = clauseRangeSet.contains(pos);
-                    if (contains) {
-                        paraStr = "'" + paraStr + "'";
-                    }
-                }
-            } else {
-                paraStr = "NULL";
-            }
-            return sqlArr[index] + paraStr;
-        }).collect(Collectors.joining());
+        return SqlTemplate.compile(rawSql).getNativeSql(parameters);
     }
 
     public static ClassLoader getClassLoader() {
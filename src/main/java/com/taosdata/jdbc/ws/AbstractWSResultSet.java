@@ -3,17 +3,25 @@ package com.taosdata.jdbc.ws;
 import com.taosdata.jdbc.AbstractResultSet;
 import com.taosdata.jdbc.TSDBError;
 import com.taosdata.jdbc.TSDBErrorNumbers;
+import com.taosdata.jdbc.common.BlockData;
 import com.taosdata.jdbc.enums.DataType;
 import com.taosdata.jdbc.rs.RestfulResultSet;
 import com.taosdata.jdbc.rs.RestfulResultSetMetaData;
 import com.taosdata.jdbc.ws.entity.*;
 
+import java.nio.ByteBuffer;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 public abstract class AbstractWSResultSet extends AbstractResultSet {
     protected final Statement statement;
@@ -28,18 +36,29 @@ public abstract class AbstractWSResultSet extends AbstractResultSet {
     protected final List<String> columnNames;
     protected List<Integer> fieldLength;
     // data
-    protected List<List<Object>> result = new ArrayList<>();
+    protected BlockData result;
 
     protected int numOfRows = 0;
     protected int rowIndex = 0;
-    private boolean isCompleted;
+    private volatile boolean isCompleted;
+
+    // requests chained on a response are sent from here, not from the thread delivering the response,
+    // which would block in InFlightRequest.put while the responses freeing a slot wait for it
+    private static final Executor FETCH_EXECUTOR = ForkJoinPool.commonPool();
+
+    // blocks requested ahead of the one being read, at most prefetchBlocks
+    private final int prefetchBlocks;
+    private final Deque<CompletableFuture<FetchedBlock>> prefetched = new ConcurrentLinkedDeque<>();
+    // block requested by nextBlockAsync
+    private volatile CompletableFuture<?> pendingFetch;
 
     protected AbstractWSResultSet(Statement statement, Transport transport,
-                               QueryResp response, String database) throws SQLException {
+                                  QueryResp response, String database, int prefetchBlocks) throws SQLException {
         this.statement = statement;
         this.transport = transport;
         this.queryId = response.getId();
         this.reqId = response.getReqId();
+        this.prefetchBlocks = prefetchBlocks;
         columnNames = Arrays.asList(response.getFieldsNames());
         for (int i = 0; i < response.getFieldsCount(); i++) {
             String colName = response.getFieldsNames()[i];
@@ -74,6 +93,10 @@ public abstract class AbstractWSResultSet extends AbstractResultSet {
             return true;
         }
 
+        if (prefetchBlocks > 0) {
+            return nextPrefetched();
+        }
+
         Request request = RequestFactory.generateFetch(queryId, reqId);
         FetchResp fetchResp = (FetchResp)transport.send(request);
         if (Code.SUCCESS.getCode() != fetchResp.getCode()) {
@@ -86,23 +109,126 @@ public abstract class AbstractWSResultSet extends AbstractResultSet {
         }
         fieldLength = Arrays.asList(fetchResp.getLengths());
         this.numOfRows = fetchResp.getRows();
-        this.result = fetchJsonData();
+        this.result = fetchBlockData();
         return true;
     }
 
-    public abstract List<List<Object>> fetchJsonData() throws SQLException;
+    private boolean nextPrefetched() throws SQLException {
+        // keep the block to read now plus prefetchBlocks more requested
+        while (prefetched.size() <= prefetchBlocks) {
+            CompletableFuture<FetchedBlock> last = prefetched.peekLast();
+            if (last == null) {
+                prefetched.addLast(fetchAsync());
+            } else {
+                prefetched.addLast(last.thenComposeAsync(block -> block == FetchedBlock.END || isClosed
+                        ? CompletableFuture.completedFuture(FetchedBlock.END)
+                        : fetchAsync(), FETCH_EXECUTOR));
+            }
+        }
+
+        FetchedBlock block;
+        try {
+            block = prefetched.pollFirst().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_UNKNOWN, "fetch block has been interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_RESTFul_Client_IOException, e.getMessage());
+        }
+        this.reset();
+        if (block == FetchedBlock.END) {
+            this.isCompleted = true;
+            prefetched.clear();
+            return false;
+        }
+        fieldLength = block.lengths;
+        this.numOfRows = block.data.getNumOfRows();
+        this.result = block.data;
+        return true;
+    }
+
+    /**
+     * request the next FETCH and its FETCH_BLOCK without waiting for the responses
+     */
+    private CompletableFuture<FetchedBlock> fetchAsync() {
+        Request request = RequestFactory.generateFetch(queryId, reqId);
+        return transport.sendAsync(request).thenComposeAsync(response -> {
+            FetchResp fetchResp = (FetchResp) response;
+            if (Code.SUCCESS.getCode() != fetchResp.getCode()) {
+                CompletableFuture<FetchedBlock> failed = new CompletableFuture<>();
+                failed.completeExceptionally(
+                        TSDBError.createSQLException(TSDBErrorNumbers.ERROR_UNKNOWN, fetchResp.getMessage()));
+                return failed;
+            }
+            if (fetchResp.isCompleted() || fetchResp.getRows() == 0) {
+                this.isCompleted = true;
+                return CompletableFuture.completedFuture(FetchedBlock.END);
+            }
+            if (isClosed) {
+                return CompletableFuture.completedFuture(FetchedBlock.END);
+            }
+            int rows = fetchResp.getRows();
+            List<Integer> lengths = Arrays.asList(fetchResp.getLengths());
+            return transport.sendAsync(RequestFactory.generateFetchBlock(queryId)).thenApply(blockResp -> {
+                ByteBuffer buffer = ((FetchBlockResp) blockResp).getBuffer();
+                return new FetchedBlock(lengths, parseBlockData(buffer, rows));
+            });
+        }, FETCH_EXECUTOR);
+    }
+
+    /**
+     * fetch the next block without blocking and make it the current one.
+     * completed with false when the result is exhausted.
+     */
+    CompletableFuture<Boolean> nextBlockAsync() {
+        CompletableFuture<FetchedBlock> fetch = CompletableFuture.supplyAsync(this::fetchAsync, FETCH_EXECUTOR)
+                .thenCompose(f -> f);
+        pendingFetch = fetch;
+        return fetch.thenApply(block -> {
+            this.reset();
+            if (block == FetchedBlock.END) {
+                this.isCompleted = true;
+                this.numOfRows = 0;
+                return false;
+            }
+            fieldLength = block.lengths;
+            this.numOfRows = block.data.getNumOfRows();
+            this.result = block.data;
+            return true;
+        });
+    }
+
+    public BlockData fetchBlockData() throws SQLException {
+        Request blockRequest = RequestFactory.generateFetchBlock(queryId);
+        FetchBlockResp resp = (FetchBlockResp) transport.send(blockRequest);
+        if (resp.getBuffer() == null) {
+            throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_UNKNOWN, "fetch block response has no data");
+        }
+        return parseBlockData(resp.getBuffer(), numOfRows);
+    }
+
+    protected abstract BlockData parseBlockData(ByteBuffer buffer, int rows);
 
     @Override
     public void close() throws SQLException {
         synchronized (this) {
             if (!this.isClosed) {
                 this.isClosed = true;
-                if (result != null && !result.isEmpty() && !isCompleted) {
-                    FetchReq closeReq = new FetchReq();
-                    closeReq.setReqId(queryId);
-                    closeReq.setId(queryId);
-                    transport.sendWithoutRep(new Request(Action.FREE_RESULT.getAction(), closeReq));
+                // pending fetches see isClosed and stop before requesting another block,
+                // the result is freed once they are done so no FETCH or FETCH_BLOCK follows FREE_RESULT
+                List<CompletableFuture<?>> pending = new ArrayList<>(prefetched);
+                prefetched.clear();
+                if (pendingFetch != null) {
+                    pending.add(pendingFetch);
                 }
+                CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).whenComplete((v, e) -> {
+                    if (!isCompleted) {
+                        transport.sendWithoutRep(RequestFactory.generateFreeResult(queryId));
+                    }
+                });
             }
         }
     }
@@ -118,4 +244,16 @@ public abstract class AbstractWSResultSet extends AbstractResultSet {
     public boolean isClosed() throws SQLException {
         return isClosed;
     }
+
+    private static class FetchedBlock {
+        static final FetchedBlock END = new FetchedBlock(null, null);
+
+        private final List<Integer> lengths;
+        private final BlockData data;
+
+        FetchedBlock(List<Integer> lengths, BlockData data) {
+            this.lengths = lengths;
+            this.data = data;
+        }
+    }
 }
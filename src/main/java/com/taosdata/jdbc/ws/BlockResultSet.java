@@ -6,199 +6,44 @@ import com.google.common.primitives.Shorts;
 import com.taosdata.jdbc.TSDBError;
 import com.taosdata.jdbc.TSDBErrorNumbers;
 import com.taosdata.jdbc.TaosGlobalConfig;
+import com.taosdata.jdbc.common.BlockData;
 import com.taosdata.jdbc.enums.TimestampPrecision;
 import com.taosdata.jdbc.utils.Utils;
-import com.taosdata.jdbc.ws.entity.FetchBlockResp;
 import com.taosdata.jdbc.ws.entity.QueryResp;
-import com.taosdata.jdbc.ws.entity.Request;
-import com.taosdata.jdbc.ws.entity.RequestFactory;
 
 import java.io.UnsupportedEncodingException;
 import java.math.BigDecimal;
 import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.sql.*;
 import java.time.Instant;
 import java.time.format.DateTimeParseException;
-import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.List;
 
 import static com.taosdata.jdbc.TSDBConstants.*;
 import static com.taosdata.jdbc.utils.UnsignedDataUtils.*;
 
 public class BlockResultSet extends AbstractWSResultSet {
 
+    private final int[] taosTypes;
+
     public BlockResultSet(Statement statement, Transport transport,
                           QueryResp response, String database) throws SQLException {
-        super(statement, transport, response, database);
+        this(statement, transport, response, database, 0);
     }
 
-    @Override
-    public List<List<Object>> fetchJsonData() throws SQLException {
-        Request blockRequest = RequestFactory.generateFetchBlock(queryId);
-        FetchBlockResp resp = (FetchBlockResp) transport.send(blockRequest);
-        ByteBuffer buffer = resp.getBuffer();
-        List<List<Object>> list = new ArrayList<>();
-        if (resp.getBuffer() != null) {
-            int bitMapOffset = BitmapLen(numOfRows);
-            // 10 = 4 + 6
-            int pHeader = buffer.position() + 28 + fields.size() * 5;
-            buffer.position(pHeader);
-
-            List<Integer> lengths = new ArrayList<>(fields.size());
-            for (int i = 0; i < fields.size(); i++) {
-                lengths.add(buffer.getInt());
-            }
-            pHeader = buffer.position();
-            int length = 0;
-            for (int i = 0; i < fields.size(); i++) {
-                List<Object> col = new ArrayList<>(numOfRows);
-                int type = fields.get(i).getTaosType();
-                switch (type) {
-                    case TSDB_DATA_TYPE_BOOL:
-                    case TSDB_DATA_TYPE_TINYINT:
-                    case TSDB_DATA_TYPE_UTINYINT: {
-                        length = bitMapOffset;
-                        byte[] tmp = new byte[bitMapOffset];
-                        buffer.get(tmp);
-                        for (int j = 0; j < numOfRows; j++) {
-                            byte b = buffer.get();
-                            if (isNull(tmp, j)) {
-                                col.add(null);
-                            } else {
-                                col.add(b);
-                            }
-                        }
-                        break;
-                    }
-                    case TSDB_DATA_TYPE_SMALLINT:
-                    case TSDB_DATA_TYPE_USMALLINT: {
-                        length = bitMapOffset;
-                        byte[] tmp = new byte[bitMapOffset];
-                        buffer.get(tmp);
-                        for (int j = 0; j < numOfRows; j++) {
-                            short s = buffer.getShort();
-                            if (isNull(tmp, j)) {
-                                col.add(null);
-                            } else {
-                                col.add(s);
-                            }
-                        }
-                        break;
-                    }
-                    case TSDB_DATA_TYPE_INT:
-                    case TSDB_DATA_TYPE_UINT: {
-                        length = bitMapOffset;
-                        byte[] tmp = new byte[bitMapOffset];
-                        buffer.get(tmp);
-                        for (int j = 0; j < numOfRows; j++) {
-                            int in = buffer.getInt();
-                            if (isNull(tmp, j)) {
-                                col.add(null);
-                            } else {
-                                col.add(in);
-                            }
-                        }
-                        break;
-                    }
-                    case TSDB_DATA_TYPE_BIGINT:
-                    case TSDB_DATA_TYPE_UBIGINT:
-                    case TSDB_DATA_TYPE_TIMESTAMP: {
-                        length = bitMapOffset;
-                        byte[] tmp = new byte[bitMapOffset];
-                        buffer.get(tmp);
-                        for (int j = 0; j < numOfRows; j++) {
-                            long l = buffer.getLong();
-                            if (isNull(tmp, j)) {
-                                col.add(null);
-                            } else {
-                                col.add(l);
-                            }
-                        }
-                        break;
-                    }
-                    case TSDB_DATA_TYPE_FLOAT: {
-                        length = bitMapOffset;
-                        byte[] tmp = new byte[bitMapOffset];
-                        buffer.get(tmp);
-                        for (int j = 0; j < numOfRows; j++) {
-                            float f = buffer.getFloat();
-                            if (isNull(tmp, j)) {
-                                col.add(null);
-                            } else {
-                                col.add(f);
-                            }
-                        }
-                        break;
-                    }
-                    case TSDB_DATA_TYPE_DOUBLE: {
-                        length = bitMapOffset;
-                        byte[] tmp = new byte[bitMapOffset];
-                        buffer.get(tmp);
-                        for (int j = 0; j < numOfRows; j++) {
-                            double d = buffer.getDouble();
-                            if (isNull(tmp, j)) {
-                                col.add(null);
-                            } else {
-                                col.add(d);
-                            }
-                        }
-                        break;
-                    }
-                    case TSDB_DATA_TYPE_BINARY:
-                    case TSDB_DATA_TYPE_JSON: {
-                        length = numOfRows * 4;
-                        List<Integer> offset = new ArrayList<>(numOfRows);
-                        for (int m = 0; m < numOfRows; m++) {
-                            offset.add(buffer.getInt());
-                        }
-                        int start = buffer.position();
-                        for (int m = 0; m < numOfRows; m++) {
-                            if (-1 == offset.get(m)) {
-                                col.add(null);
-                                continue;
-                            }
-                            buffer.position(start + offset.get(m));
-                            short len = buffer.getShort();
-                            byte[] tmp = new byte[len];
-                            buffer.get(tmp);
-                            col.add(tmp);
-                        }
-                        break;
-                    }
-                    case TSDB_DATA_TYPE_NCHAR: {
-                        length = numOfRows * 4;
-                        List<Integer> offset = new ArrayList<>(numOfRows);
-                        for (int m = 0; m < numOfRows; m++) {
-                            offset.add(buffer.getInt());
-                        }
-                        int start = buffer.position();
-                        for (int m = 0; m < numOfRows; m++) {
-                            if (-1 == offset.get(m)) {
-                                col.add(null);
-                                continue;
-                            }
-                            buffer.position(start + offset.get(m));
-                            int len = buffer.getShort() / 4;
-                            int[] tmp = new int[len];
-                            for (int n = 0; n < len; n++) {
-                                tmp[n] = buffer.getInt();
-                            }
-                            col.add(tmp);
-                        }
-                        break;
-                    }
-                    default:
-                        // unknown type, do nothing
-                        col.add(null);
-                        break;
-                }
-                pHeader += length + lengths.get(i);
-                buffer.position(pHeader);
-                list.add(col);
-            }
+    public BlockResultSet(Statement statement, Transport transport,
+                          QueryResp response, String database, int prefetchBlocks) throws SQLException {
+        super(statement, transport, response, database, prefetchBlocks);
+        taosTypes = new int[fields.size()];
+        for (int i = 0; i < fields.size(); i++) {
+            taosTypes[i] = fields.get(i).getTaosType();
         }
-        return list;
+    }
+
+    @Override
+    protected BlockData parseBlockData(ByteBuffer buffer, int rows) {
+        return BlockData.parse(buffer, taosTypes, rows);
     }
 
     private Timestamp parseTimestampColumnData(long value) {
@@ -219,50 +64,53 @@ public class BlockResultSet extends AbstractWSResultSet {
     }
 
     public Object parseValue(int columnIndex) {
-        Object source = result.get(columnIndex - 1).get(rowIndex);
-        if (null == source)
+        int col = columnIndex - 1;
+        if (result.isNull(col, rowIndex))
             return null;
 
-        int type = fields.get(columnIndex - 1).getTaosType();
+        int type = taosTypes[col];
         switch (type) {
             case TSDB_DATA_TYPE_BOOL: {
-                byte val = (byte) source;
+                byte val = result.getByte(col, rowIndex);
                 return (val == 0x0) ? Boolean.FALSE : Boolean.TRUE;
             }
             case TSDB_DATA_TYPE_UTINYINT: {
-                byte val = (byte) source;
+                byte val = result.getByte(col, rowIndex);
                 return parseUTinyInt(val);
             }
             case TSDB_DATA_TYPE_TINYINT:
+                return result.getByte(col, rowIndex);
             case TSDB_DATA_TYPE_SMALLINT:
+                return result.getShort(col, rowIndex);
             case TSDB_DATA_TYPE_INT:
+                return result.getInt(col, rowIndex);
             case TSDB_DATA_TYPE_BIGINT:
+                return result.getLong(col, rowIndex);
             case TSDB_DATA_TYPE_FLOAT:
+                return result.getFloat(col, rowIndex);
             case TSDB_DATA_TYPE_DOUBLE:
+                return result.getDouble(col, rowIndex);
             case TSDB_DATA_TYPE_BINARY:
-            case TSDB_DATA_TYPE_JSON: {
-                return source;
-            }
+            case TSDB_DATA_TYPE_JSON:
+                return result.getBytes(col, rowIndex);
             case TSDB_DATA_TYPE_USMALLINT: {
-                short val = (short) source;
+                short val = result.getShort(col, rowIndex);
                 return parseUSmallInt(val);
             }
             case TSDB_DATA_TYPE_UINT: {
-                int val = (int) source;
+                int val = result.getInt(col, rowIndex);
                 return parseUInteger(val);
             }
             case TSDB_DATA_TYPE_TIMESTAMP: {
-                long val = (long) source;
+                long val = result.getLong(col, rowIndex);
                 return parseTimestampColumnData(val);
             }
             case TSDB_DATA_TYPE_UBIGINT: {
-                long val = (long) source;
+                long val = result.getLong(col, rowIndex);
                 return parseUBigInt(val);
             }
-            case TSDB_DATA_TYPE_NCHAR: {
-                int[] tmp = (int[]) source;
-                return new String(tmp, 0, tmp.length);
-            }
+            case TSDB_DATA_TYPE_NCHAR:
+                return result.getNString(col, rowIndex);
             default:
                 // unknown type, do nothing
                 return null;
@@ -273,6 +121,13 @@ public class BlockResultSet extends AbstractWSResultSet {
     public String getString(int columnIndex) throws SQLException {
         checkAvailability(columnIndex, fields.size());
 
+        int col = columnIndex - 1;
+        int type = taosTypes[col];
+        if (type == TSDB_DATA_TYPE_BINARY || type == TSDB_DATA_TYPE_JSON) {
+            wasNull = result.isNull(col, rowIndex);
+            return wasNull ? null : result.getString(col, rowIndex, Charset.forName(TaosGlobalConfig.getCharset()));
+        }
+
         Object value = parseValue(columnIndex);
         if (value == null) {
             wasNull = true;
@@ -519,6 +374,21 @@ public class BlockResultSet extends AbstractWSResultSet {
     public int getInt(int columnIndex) throws SQLException {
         checkAvailability(columnIndex, fields.size());
 
+        int col = columnIndex - 1;
+        switch (taosTypes[col]) {
+            case TSDB_DATA_TYPE_TINYINT:
+                wasNull = result.isNull(col, rowIndex);
+                return wasNull ? 0 : result.getByte(col, rowIndex);
+            case TSDB_DATA_TYPE_SMALLINT:
+                wasNull = result.isNull(col, rowIndex);
+                return wasNull ? 0 : result.getShort(col, rowIndex);
+            case TSDB_DATA_TYPE_INT:
+                wasNull = result.isNull(col, rowIndex);
+                return wasNull ? 0 : result.getInt(col, rowIndex);
+            default:
+                break;
+        }
+
         Object value = parseValue(columnIndex);
         if (value == null) {
             wasNull = true;
@@ -588,6 +458,26 @@ public class BlockResultSet extends AbstractWSResultSet {
     public long getLong(int columnIndex) throws SQLException {
         checkAvailability(columnIndex, fields.size());
 
+        int col = columnIndex - 1;
+        switch (taosTypes[col]) {
+            case TSDB_DATA_TYPE_TINYINT:
+                wasNull = result.isNull(col, rowIndex);
+                return wasNull ? 0 : result.getByte(col, rowIndex);
+            case TSDB_DATA_TYPE_SMALLINT:
+                wasNull = result.isNull(col, rowIndex);
+                return wasNull ? 0 : result.getShort(col, rowIndex);
+            case TSDB_DATA_TYPE_INT:
+                wasNull = result.isNull(col, rowIndex);
+                return wasNull ? 0 : result.getInt(col, rowIndex);
+            case TSDB_DATA_TYPE_BIGINT:
+            case TSDB_DATA_TYPE_TIMESTAMP:
+                // timestamp is stored in the precision of the database
+                wasNull = result.isNull(col, rowIndex);
+                return wasNull ? 0 : result.getLong(col, rowIndex);
+            default:
+                break;
+        }
+
         Object value = parseValue(columnIndex);
         if (value == null) {
             wasNull = true;
@@ -677,6 +567,12 @@ public class BlockResultSet extends AbstractWSResultSet {
     public float getFloat(int columnIndex) throws SQLException {
         checkAvailability(columnIndex, fields.size());
 
+        int col = columnIndex - 1;
+        if (taosTypes[col] == TSDB_DATA_TYPE_FLOAT) {
+            wasNull = result.isNull(col, rowIndex);
+            return wasNull ? 0 : result.getFloat(col, rowIndex);
+        }
+
         Object value = parseValue(columnIndex);
         if (value == null) {
             wasNull = true;
@@ -736,6 +632,12 @@ public class BlockResultSet extends AbstractWSResultSet {
     public double getDouble(int columnIndex) throws SQLException {
         checkAvailability(columnIndex, fields.size());
 
+        int col = columnIndex - 1;
+        if (taosTypes[col] == TSDB_DATA_TYPE_DOUBLE) {
+            wasNull = result.isNull(col, rowIndex);
+            return wasNull ? 0 : result.getDouble(col, rowIndex);
+        }
+
         Object value = parseValue(columnIndex);
         if (value == null) {
             wasNull = true;
@@ -853,6 +755,12 @@ public class BlockResultSet extends AbstractWSResultSet {
     public Timestamp getTimestamp(int columnIndex) throws SQLException {
         checkAvailability(columnIndex, fields.size());
 
+        int col = columnIndex - 1;
+        if (taosTypes[col] == TSDB_DATA_TYPE_TIMESTAMP) {
+            wasNull = result.isNull(col, rowIndex);
+            return wasNull ? null : parseTimestampColumnData(result.getLong(col, rowIndex));
+        }
+
         Object value = parseValue(columnIndex);
         if (value == null) {
             wasNull = true;
@@ -1083,15 +991,4 @@ public class BlockResultSet extends AbstractWSResultSet {
     public Timestamp getTimestamp(int columnIndex, Calendar cal) throws SQLException {
         return getTimestamp(columnIndex);
     }
-
-    //    ceil(numOfRows/8.0)
-    private int BitmapLen(int n) {
-        return (n + 0x7) >> 3;
-    }
-
-    private boolean isNull(byte[] c, int n) {
-        int position = n >>> 3;
-        int index = n & 0x7;
-        return (c[position] & (1 << (7 - index))) == (1 << (7 - index));
-    }
 }
@@ -0,0 +1,51 @@
+package com.taosdata.jdbc.ws;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * little endian buffers reused to encode binary messages.
+ * buffers larger than maxRetained are not kept so a single huge message does not stay in memory.
+ */
+class ByteBufferPool {
+    private final int maxPooled;
+    private final int maxRetained;
+    private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    ByteBufferPool(int maxPooled, int maxRetained) {
+        this.maxPooled = maxPooled;
+        this.maxRetained = maxRetained;
+    }
+
+    /**
+     * a buffer with at least capacity bytes remaining from position 0, its content is undefined
+     */
+    ByteBuffer acquire(int capacity) {
+        ByteBuffer buffer = buffers.poll();
+        if (buffer != null) {
+            size.decrementAndGet();
+            if (buffer.capacity() >= capacity) {
+                buffer.clear();
+                buffer.limit(capacity);
+                return buffer;
+            }
+        }
+        buffer = ByteBuffer.allocate(capacity);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    void release(ByteBuffer buffer) {
+        if (buffer.capacity() > maxRetained)
+            return;
+        if (size.incrementAndGet() > maxPooled) {
+            size.decrementAndGet();
+            return;
+        }
+        buffers.offer(buffer);
+    }
+}
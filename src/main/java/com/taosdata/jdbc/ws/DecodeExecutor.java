@@ -0,0 +1,101 @@
+package com.taosdata.jdbc.ws;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * decode stage of websocket messages, so the read thread of a websocket connection only pulls frames.
+ * a message runs on the lane selected by its reqId, each lane is a single thread,
+ * so messages of the same reqId are decoded in the order they are received.
+ */
+public class DecodeExecutor {
+    private static volatile DecodeExecutor shared;
+
+    private final ThreadPoolExecutor[] lanes;
+    private final boolean closeable;
+
+    private DecodeExecutor(int threads, boolean closeable) {
+        this.lanes = new ThreadPoolExecutor[threads];
+        this.closeable = closeable;
+        for (int i = 0; i < threads; i++) {
+            lanes[i] = new ThreadPoolExecutor(1, 1,
+                    0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(),
+                    r -> {
+                        Thread t = new Thread(r);
+                        t.setName("parse-message-" + t.getId());
+                        t.setDaemon(!closeable);
+                        return t;
+                    },
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+        }
+    }
+
+    /**
+     * @param threads number of lanes of a websocket connection, 0 to use the lanes shared by the driver,
+     *                one per available processor.
+     */
+    public static DecodeExecutor getInstance(int threads) {
+        if (threads > 0)
+            return new DecodeExecutor(threads, true);
+        if (shared == null) {
+            synchronized (DecodeExecutor.class) {
+                if (shared == null) {
+                    shared = new DecodeExecutor(Runtime.getRuntime().availableProcessors(), false);
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * run task on the lane of reqId. an exception thrown by task, e.g. for a malformed message, is passed to the
+     * uncaught exception handler of the lane and doesn't stop the lane.
+     */
+    public void execute(long reqId, Runnable task) {
+        int h = (int) (reqId ^ (reqId >>> 32));
+        h ^= h >>> 16;
+        lanes[(h & Integer.MAX_VALUE) % lanes.length].execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        });
+    }
+
+    /**
+     * stop the lanes of a websocket connection, the shared lanes are kept
+     */
+    public void shutdown() {
+        if (!closeable)
+            return;
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+    }
+
+    /**
+     * @return the reqId of a text message, 0 if it has none.
+     * only the digits after the first "req_id" key are read, the message is decoded on its lane.
+     */
+    static long textReqId(String message) {
+        int i = message.indexOf("\"req_id\"");
+        if (i < 0)
+            return 0L;
+        i += 8;
+        int length = message.length();
+        while (i < length && (message.charAt(i) == ':' || message.charAt(i) == ' '))
+            i++;
+        long id = 0L;
+        for (; i < length; i++) {
+            char c = message.charAt(i);
+            if (c < '0' || c > '9')
+                break;
+            id = id * 10 + (c - '0');
+        }
+        return id;
+    }
+}
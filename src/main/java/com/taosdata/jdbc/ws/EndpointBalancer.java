@@ -0,0 +1,181 @@
+package com.taosdata.jdbc.ws;
+
+import com.taosdata.jdbc.TSDBError;
+import com.taosdata.jdbc.TSDBErrorNumbers;
+import com.taosdata.jdbc.rs.ConnectionParam;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * websocket connections of a url with several taosAdapter endpoints, e.g. jdbc:TAOS-RS://host1:6041,host2:6041/db.
+ * a connection is opened to the endpoint with the fewest in-flight requests, then the fewest open connections,
+ * counted over the websocket connections opened through this balancer.
+ * an endpoint failing to connect, or losing a connection, is ejected for a time doubling with each failure
+ * in a row, and is tried again once the time is over.
+ */
+public class EndpointBalancer {
+    private static final Map<String, EndpointBalancer> balancers = new ConcurrentHashMap<>();
+    static final long MIN_EJECT_MS = 1_000;
+    static final long MAX_EJECT_MS = 60_000;
+
+    private final Endpoint[] endpoints;
+
+    EndpointBalancer(String endpoints, String defaultPort) {
+        String[] list = endpoints.split(",");
+        List<Endpoint> parsed = new ArrayList<>(list.length);
+        for (String endpoint : list) {
+            endpoint = endpoint.trim();
+            if (endpoint.isEmpty())
+                continue;
+            int colon = endpoint.indexOf(':');
+            if (colon < 0) {
+                parsed.add(new Endpoint(endpoint, defaultPort));
+            } else {
+                parsed.add(new Endpoint(endpoint.substring(0, colon), endpoint.substring(colon + 1)));
+            }
+        }
+        this.endpoints = parsed.toArray(new Endpoint[0]);
+    }
+
+    /**
+     * @param endpoints comma separated host:port list, an endpoint without port uses defaultPort
+     */
+    public static EndpointBalancer getInstance(String endpoints, String defaultPort) {
+        return balancers.computeIfAbsent(endpoints + "|" + defaultPort, k -> new EndpointBalancer(endpoints, defaultPort));
+    }
+
+    /**
+     * open a websocket connection to the best endpoint, and to the next one if it can't be reached.
+     * the host and port of param are set to the endpoint before factory is called.
+     */
+    public Transport open(ConnectionParam param, TransportPool.TransportFactory factory) throws SQLException {
+        if (endpoints.length == 0)
+            throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_INVALID_VARIABLE,
+                    "no endpoint in endpoints: " + param.getEndpoints());
+        List<Endpoint> tried = new ArrayList<>(endpoints.length);
+        SQLException error = null;
+        for (int i = 0; i < endpoints.length; i++) {
+            Endpoint endpoint = select(tried, System.currentTimeMillis());
+            tried.add(endpoint);
+            param.setHost(endpoint.host);
+            param.setPort(endpoint.port);
+            Transport transport;
+            try {
+                transport = factory.create();
+            } catch (SQLException e) {
+                // an endpoint refusing the user is not unhealthy, the other ones would refuse too
+                if (e.getErrorCode() != TSDBErrorNumbers.ERROR_CONNECTION_TIMEOUT)
+                    throw e;
+                eject(endpoint, System.currentTimeMillis());
+                error = e;
+                continue;
+            }
+            admit(endpoint, transport);
+            return transport;
+        }
+        throw error;
+    }
+
+    /**
+     * @return the healthy endpoint with the least load not in tried,
+     * or the one re-admitted soonest if they are all ejected
+     */
+    synchronized Endpoint select(List<Endpoint> tried, long now) {
+        Endpoint best = null;
+        Endpoint soonest = null;
+        for (Endpoint endpoint : endpoints) {
+            if (tried.contains(endpoint))
+                continue;
+            endpoint.prune(now);
+            if (endpoint.ejectedUntil > now) {
+                if (soonest == null || endpoint.ejectedUntil < soonest.ejectedUntil)
+                    soonest = endpoint;
+                continue;
+            }
+            if (best == null || endpoint.compareLoad(best) < 0)
+                best = endpoint;
+        }
+        return best != null ? best : soonest;
+    }
+
+    synchronized void admit(Endpoint endpoint, Transport transport) {
+        endpoint.failures = 0;
+        endpoint.ejectedUntil = 0;
+        endpoint.transports.add(transport);
+        transport.setCloseListener(() -> forget(endpoint, transport));
+    }
+
+    private synchronized void forget(Endpoint endpoint, Transport transport) {
+        endpoint.transports.remove(transport);
+    }
+
+    synchronized void eject(Endpoint endpoint, long now) {
+        endpoint.eject(now);
+    }
+
+    Endpoint[] getEndpoints() {
+        return endpoints;
+    }
+
+    static class Endpoint {
+        private final String host;
+        private final String port;
+        private final List<Transport> transports = new ArrayList<>();
+        private int failures;
+        private long ejectedUntil;
+
+        Endpoint(String host, String port) {
+            this.host = host;
+            this.port = port;
+        }
+
+        String getHost() {
+            return host;
+        }
+
+        String getPort() {
+            return port;
+        }
+
+        /**
+         * forget closed connections, a lost one ejects the endpoint
+         */
+        private void prune(long now) {
+            boolean broken = false;
+            for (int i = transports.size() - 1; i >= 0; i--) {
+                Transport transport = transports.get(i);
+                if (transport.isBroken()) {
+                    broken = true;
+                    transports.remove(i);
+                } else if (transport.isClosed()) {
+                    transports.remove(i);
+                }
+            }
+            if (broken) {
+                eject(now);
+            }
+        }
+
+        private void eject(long now) {
+            failures++;
+            ejectedUntil = now + Math.min(MIN_EJECT_MS << Math.min(failures - 1, 16), MAX_EJECT_MS);
+        }
+
+        private int inFlight() {
+            int sum = 0;
+            for (Transport transport : transports) {
+                sum += transport.inFlight();
+            }
+            return sum;
+        }
+
+        private int compareLoad(Endpoint other) {
+            int c = Integer.compare(inFlight(), other.inFlight());
+            return c != 0 ? c : Integer.compare(transports.size(), other.transports.size());
+        }
+    }
+}
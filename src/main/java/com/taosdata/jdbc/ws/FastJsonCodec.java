@@ -0,0 +1,171 @@
+package com.taosdata.jdbc.ws;
+
+import com.alibaba.fastjson.JSON;
+import com.taosdata.jdbc.ws.entity.FetchReq;
+import com.taosdata.jdbc.ws.entity.Payload;
+import com.taosdata.jdbc.ws.entity.QueryReq;
+import com.taosdata.jdbc.ws.entity.Request;
+import com.taosdata.jdbc.ws.entity.Response;
+import com.taosdata.jdbc.ws.stmt.entity.AddBatchReq;
+import com.taosdata.jdbc.ws.stmt.entity.CloseReq;
+import com.taosdata.jdbc.ws.stmt.entity.ExecReq;
+import com.taosdata.jdbc.ws.stmt.entity.InitReq;
+import com.taosdata.jdbc.ws.stmt.entity.PrepareReq;
+import com.taosdata.jdbc.ws.stmt.entity.SetTableNameReq;
+
+import java.util.function.Function;
+
+/**
+ * default codec.
+ * query, fetch and stmt requests are written by hand, other requests are serialized by fastjson.
+ * responses are bound to their class in one pass, the action is located by scanning the message.
+ */
+public class FastJsonCodec implements MessageCodec {
+
+    public static final FastJsonCodec INSTANCE = new FastJsonCodec();
+
+    private static final String ACTION_KEY = "\"action\"";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    @Override
+    public String encode(Request request) {
+        Payload args = request.getArgs();
+        StringBuilder sb;
+        if (args instanceof QueryReq) {
+            String sql = ((QueryReq) args).getSql();
+            sb = begin(request, sql == null ? 0 : sql.length());
+            field(sb, "sql", sql);
+        } else if (args instanceof FetchReq) {
+            sb = begin(request, 0);
+            field(sb, "id", ((FetchReq) args).getId());
+        } else if (args instanceof PrepareReq) {
+            PrepareReq req = (PrepareReq) args;
+            sb = begin(request, req.getSql() == null ? 0 : req.getSql().length());
+            field(sb, "sql", req.getSql());
+            field(sb, "stmt_id", req.getStmtId());
+        } else if (args instanceof SetTableNameReq) {
+            SetTableNameReq req = (SetTableNameReq) args;
+            sb = begin(request, 0);
+            field(sb, "name", req.getName());
+            field(sb, "stmt_id", req.getStmtId());
+        } else if (args instanceof AddBatchReq) {
+            sb = begin(request, 0);
+            field(sb, "stmt_id", ((AddBatchReq) args).getStmtId());
+        } else if (args instanceof ExecReq) {
+            sb = begin(request, 0);
+            field(sb, "stmt_id", ((ExecReq) args).getStmtId());
+        } else if (args instanceof CloseReq) {
+            sb = begin(request, 0);
+            field(sb, "stmt_id", ((CloseReq) args).getStmtId());
+        } else if (args instanceof InitReq) {
+            sb = begin(request, 0);
+        } else {
+            return JSON.toJSONString(request);
+        }
+        return sb.append("}}").toString();
+    }
+
+    @Override
+    public Response decode(String message, Function<String, Class<? extends Response>> responseClass) {
+        String action = scanAction(message);
+        if (action == null) {
+            action = JSON.parseObject(message).getString("action");
+        }
+        Class<? extends Response> clazz = responseClass.apply(action);
+        if (clazz == null) {
+            return null;
+        }
+        return JSON.parseObject(message, clazz);
+    }
+
+    /**
+     * value of the top-level action field, or null if it can't be located without parsing
+     */
+    static String scanAction(String message) {
+        int i = message.indexOf(ACTION_KEY);
+        // the key must not be inside a nested object or a string value
+        if (i < 0 || message.lastIndexOf('{', i) != 0) {
+            return null;
+        }
+        i += ACTION_KEY.length();
+        int len = message.length();
+        while (i < len && Character.isWhitespace(message.charAt(i))) i++;
+        if (i >= len || message.charAt(i) != ':') {
+            return null;
+        }
+        i++;
+        while (i < len && Character.isWhitespace(message.charAt(i))) i++;
+        if (i >= len || message.charAt(i) != '"') {
+            return null;
+        }
+        int start = i + 1;
+        for (int j = start; j < len; j++) {
+            char c = message.charAt(j);
+            if (c == '"') {
+                return message.substring(start, j);
+            }
+            if (c == '\\') {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    // fields are written in the same order as fastjson: action, args, then args in alphabetic order
+    private static StringBuilder begin(Request request, int extra) {
+        StringBuilder sb = new StringBuilder(64 + extra + (extra >> 3));
+        sb.append("{\"action\":");
+        string(sb, request.getAction());
+        sb.append(",\"args\":{\"req_id\":").append(request.getArgs().getReqId());
+        return sb;
+    }
+
+    private static void field(StringBuilder sb, String name, long value) {
+        sb.append(",\"").append(name).append("\":").append(value);
+    }
+
+    private static void field(StringBuilder sb, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        sb.append(",\"").append(name).append("\":");
+        string(sb, value);
+    }
+
+    private static void string(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0, len = value.length(); i < len; i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                case '\b':
+                    sb.append("\\b");
+                    break;
+                case '\f':
+                    sb.append("\\f");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+}
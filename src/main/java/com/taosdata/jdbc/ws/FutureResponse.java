@@ -3,17 +3,25 @@ package com.taosdata.jdbc.ws;
 import com.taosdata.jdbc.ws.entity.Response;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 public class FutureResponse implements Comparable<FutureResponse> {
     private final String action;
-    private final Long id;
+    private final long id;
     private final CompletableFuture<Response> future;
     private final long timestamp;
+    // milliseconds to wait for the response, negative to wait forever
+    private final long timeout;
 
-    public FutureResponse(String action, Long id, CompletableFuture<Response> future) {
+    public FutureResponse(String action, long id, CompletableFuture<Response> future) {
+        this(action, id, future, -1);
+    }
+
+    public FutureResponse(String action, long id, CompletableFuture<Response> future, long timeout) {
         this.action = action;
         this.id = id;
         this.future = future;
+        this.timeout = timeout;
         timestamp = System.nanoTime();
     }
 
@@ -21,7 +29,7 @@ public class FutureResponse implements Comparable<FutureResponse> {
         return action;
     }
 
-    public Long getId() {
+    public long getId() {
         return id;
     }
 
@@ -33,6 +41,14 @@ public class FutureResponse implements Comparable<FutureResponse> {
         return timestamp;
     }
 
+    long getTimeout() {
+        return timeout;
+    }
+
+    boolean isExpired(long now) {
+        return timeout >= 0 && now - timestamp >= TimeUnit.MILLISECONDS.toNanos(timeout);
+    }
+
     @Override
     public int compareTo(FutureResponse fr) {
         long r = this.timestamp - fr.timestamp;
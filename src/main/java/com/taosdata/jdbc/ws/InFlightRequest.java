@@ -1,75 +1,223 @@
 package com.taosdata.jdbc.ws;
 
-import com.taosdata.jdbc.ws.entity.Action;
-import com.taosdata.jdbc.ws.schemaless.SchemalessAction;
-import com.taosdata.jdbc.ws.stmt.entity.STMTAction;
-import com.taosdata.jdbc.ws.tmq.ConsumerAction;
-
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Semaphore;
+import com.taosdata.jdbc.TSDBError;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.taosdata.jdbc.TSDBErrorNumbers.ERROR_QUERY_TIMEOUT;
 
 /**
- * Unfinished execution
+ * Unfinished execution.
+ * requests are kept in an open-addressing table indexed by reqId, slots are claimed and freed by CAS,
+ * and the number of requests is bounded by an atomic counter, so a put and a remove don't lock or
+ * allocate. the action of a request is only compared to match a response with its request.
+ * a freed slot is marked as removed, and made free again once the slot after it is free, so a lookup of
+ * an unknown reqId stops at the end of its cluster instead of scanning the whole table.
+ * requests with a timeout are checked by a periodic sweep and completed exceptionally once expired,
+ * so no timer task is scheduled per request.
  */
 public class InFlightRequest {
+    // expired requests are completed at most one interval after their timeout
+    private static final long SWEEP_INTERVAL_MS = 100;
+    private static final ScheduledThreadPoolExecutor SWEEPER;
+    // marks a freed slot, lookups continue past it and puts reuse it
+    private static final FutureResponse REMOVED = new FutureResponse(null, 0L, null);
+
+    static {
+        SWEEPER = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "taos-inflight-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        SWEEPER.setRemoveOnCancelPolicy(true);
+    }
+
     private final int timeout;
-    private final Semaphore semaphore;
-    private final Map<String, ConcurrentHashMap<Long, FutureResponse>> futureMap = new HashMap<>();
+    private final int maxRequest;
+    private final AtomicInteger count = new AtomicInteger();
+    // puts probing the table, removed slots are only made free while there is none
+    private final AtomicInteger putting = new AtomicInteger();
+    // threads waiting in put for a request to finish, only touched while holding the monitor of this
+    private volatile int waiters;
+    // at least twice the max number of requests, so a put always finds a free slot
+    private final AtomicReferenceArray<FutureResponse> slots;
+    private final int mask;
+    private volatile ScheduledFuture<?> sweepTask;
+    private volatile boolean closed;
 
     public InFlightRequest(int timeout, int concurrentNum) {
         this.timeout = timeout;
-        this.semaphore = new Semaphore(concurrentNum);
-        for (Action value : Action.values()) {
-            String action = value.getAction();
-            futureMap.put(action, new ConcurrentHashMap<>());
+        this.maxRequest = concurrentNum;
+        int capacity = 16;
+        while (capacity < concurrentNum * 2L && capacity < 1 << 30) {
+            capacity <<= 1;
         }
-        for (ConsumerAction value : ConsumerAction.values()) {
-            String action = value.getAction();
-            futureMap.put(action, new ConcurrentHashMap<>());
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    public void put(FutureResponse rf) throws InterruptedException, TimeoutException {
+        if (!acquire()) {
+            throw new TimeoutException("websocket connection reached the max number of concurrent requests");
         }
-        for (SchemalessAction value : SchemalessAction.values()) {
-            String action = value.getAction();
-            futureMap.put(action, new ConcurrentHashMap<>());
+        if (sweepTask == null && rf.getTimeout() >= 0) {
+            startSweep();
         }
-        for (STMTAction value : STMTAction.values()) {
-            String action = value.getAction();
-            futureMap.put(action, new ConcurrentHashMap<>());
+        putting.incrementAndGet();
+        try {
+            for (int i = index(rf.getId()); ; ) {
+                FutureResponse slot = slots.get(i);
+                if (slot != null && slot != REMOVED) {
+                    i = (i + 1) & mask;
+                } else if (slots.compareAndSet(i, slot, rf)) {
+                    return;
+                }
+                // a removed slot made free meanwhile is taken on the next try, never skipped
+            }
+        } finally {
+            putting.decrementAndGet();
         }
     }
 
-    public void put(FutureResponse rf) throws InterruptedException, TimeoutException {
-        if (semaphore.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
-            futureMap.get(rf.getAction()).put(rf.getId(), rf);
-        } else {
-            throw new TimeoutException("websocket connection reached the max number of concurrent requests");
+    public FutureResponse remove(String action, long id) {
+        int start = index(id);
+        int i = start;
+        do {
+            FutureResponse slot = slots.get(i);
+            if (slot == null)
+                return null;
+            if (slot != REMOVED && slot.getId() == id && slot.getAction().equals(action)
+                    && slots.compareAndSet(i, slot, REMOVED)) {
+                reclaim(i);
+                release();
+                return slot;
+            }
+            i = (i + 1) & mask;
+        } while (i != start);
+        return null;
+    }
+
+    /**
+     * make the removed slot at i, and the removed slots before it, free if the slot after them is free.
+     * a put that passed a slot while it was in use may be about to take the slot after it, so this is only
+     * done while no put is probing. a put starting later stops at the removed slot, and takes it whether
+     * it is removed or free by then.
+     */
+    private void reclaim(int i) {
+        while (putting.get() == 0 && slots.get((i + 1) & mask) == null && slots.compareAndSet(i, REMOVED, null)) {
+            i = (i - 1) & mask;
+        }
+    }
+
+    /**
+     * number of removed slots not made free yet
+     */
+    int removedSlots() {
+        int removed = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) == REMOVED)
+                removed++;
+        }
+        return removed;
+    }
+
+    private int index(long id) {
+        int h = (int) (id ^ (id >>> 32));
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private boolean acquire() throws InterruptedException {
+        if (tryAcquire())
+            return true;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        synchronized (this) {
+            waiters++;
+            try {
+                while (!tryAcquire()) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0)
+                        return false;
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+                return true;
+            } finally {
+                waiters--;
+            }
         }
     }
 
-    public FutureResponse remove(String action, Long id) {
-        FutureResponse future = futureMap.get(action).remove(id);
-        if (null != future) {
-            semaphore.release();
+    private boolean tryAcquire() {
+        for (; ; ) {
+            int c = count.get();
+            if (c >= maxRequest)
+                return false;
+            if (count.compareAndSet(c, c + 1))
+                return true;
+        }
+    }
+
+    private void release() {
+        count.decrementAndGet();
+        if (waiters > 0) {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    private synchronized void startSweep() {
+        if (sweepTask == null && !closed) {
+            sweepTask = SWEEPER.scheduleWithFixedDelay(this::sweep, SWEEP_INTERVAL_MS, SWEEP_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * remove expired requests and complete them with a timeout exception
+     */
+    void sweep() {
+        if (count.get() == 0)
+            return;
+        long now = System.nanoTime();
+        for (int i = 0; i < slots.length(); i++) {
+            FutureResponse rf = slots.get(i);
+            // a response arriving at the same time wins if it removes the request first
+            if (rf != null && rf != REMOVED && rf.isExpired(now) && slots.compareAndSet(i, rf, REMOVED)) {
+                reclaim(i);
+                release();
+                rf.getFuture().completeExceptionally(TSDBError.createTimeoutException(ERROR_QUERY_TIMEOUT,
+                        "failed to complete the task:action:" + rf.getAction() + ", reqId:" + rf.getId()
+                                + " within the specified time : " + rf.getTimeout() + "," + TimeUnit.MILLISECONDS));
+            }
         }
-        return future;
     }
 
     public void close() {
-        futureMap.keySet().stream()
-                .flatMap(k -> {
-                    ConcurrentHashMap<Long, FutureResponse> futures = futureMap.get(k);
-                    futureMap.put(k, new ConcurrentHashMap<>());
-                    return futures.values().stream();
-                })
-                .parallel().map(FutureResponse::getFuture)
-                .forEach(e -> e.completeExceptionally(new Exception("close all inFlightRequest")));
+        synchronized (this) {
+            closed = true;
+            if (sweepTask != null) {
+                sweepTask.cancel(false);
+            }
+        }
+        for (int i = 0; i < slots.length(); i++) {
+            FutureResponse rf = slots.get(i);
+            if (rf != null && rf != REMOVED && slots.compareAndSet(i, rf, REMOVED)) {
+                reclaim(i);
+                release();
+                rf.getFuture().completeExceptionally(new Exception("close all inFlightRequest"));
+            }
+        }
     }
 
     public boolean hasInFlightRequest() {
-        return futureMap.keySet().stream()
-                .filter(k -> !futureMap.get(k).isEmpty()).findAny().orElse(null) != null;
+        return count.get() > 0;
+    }
+
+    public int size() {
+        return count.get();
     }
 }
@@ -0,0 +1,23 @@
+package com.taosdata.jdbc.ws;
+
+import com.taosdata.jdbc.ws.entity.Request;
+import com.taosdata.jdbc.ws.entity.Response;
+
+import java.util.function.Function;
+
+/**
+ * encode requests to and decode responses from the text messages of taosAdapter
+ */
+public interface MessageCodec {
+
+    String encode(Request request);
+
+    /**
+     * decode a text message into the response class of its action
+     *
+     * @param message       text message from taosAdapter
+     * @param responseClass response class of an action, or null for an unknown action
+     * @return the response, or null if the action is unknown
+     */
+    Response decode(String message, Function<String, Class<? extends Response>> responseClass);
+}
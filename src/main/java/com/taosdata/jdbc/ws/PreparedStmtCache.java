@@ -0,0 +1,109 @@
+package com.taosdata.jdbc.ws;
+
+import com.taosdata.jdbc.utils.ReqId;
+import com.taosdata.jdbc.ws.stmt.entity.RequestFactory;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+
+/**
+ * server-side stmt handles of closed prepared statements of a connection, keyed by database and sql.
+ * a statement preparing the same sql takes the handle instead of sending INIT and PREPARE,
+ * the least recently used handles are closed when there are more than size.
+ */
+class PreparedStmtCache {
+    private final int size;
+    private final LinkedHashMap<Key, Handle> handles = new LinkedHashMap<>(16, 0.75f, true);
+
+    PreparedStmtCache(int size) {
+        this.size = size;
+    }
+
+    /**
+     * remove and return the handle of sql prepared on transport, null if there is none
+     */
+    synchronized Handle take(String database, String sql, Transport transport) {
+        Handle handle = handles.remove(new Key(database, sql));
+        if (handle == null)
+            return null;
+        if (handle.transport != transport || handle.transport.isClosed()) {
+            close(handle);
+            return null;
+        }
+        return handle;
+    }
+
+    /**
+     * keep the handle of a closed statement, or close it when the cache is disabled
+     */
+    synchronized void put(String database, String sql, Handle handle) {
+        if (size <= 0) {
+            close(handle);
+            return;
+        }
+        Handle old = handles.put(new Key(database, sql), handle);
+        if (old != null) {
+            close(old);
+        }
+        Iterator<Handle> it = handles.values().iterator();
+        while (handles.size() > size && it.hasNext()) {
+            close(it.next());
+            it.remove();
+        }
+    }
+
+    synchronized void clear() {
+        handles.values().forEach(PreparedStmtCache::close);
+        handles.clear();
+    }
+
+    static void close(Handle handle) {
+        if (!handle.transport.isClosed()) {
+            handle.transport.sendWithoutRep(RequestFactory.generateClose(handle.stmtId, ReqId.getReqID()));
+        }
+    }
+
+    static class Handle {
+        private final Transport transport;
+        private final long stmtId;
+        private final int precision;
+
+        Handle(Transport transport, long stmtId, int precision) {
+            this.transport = transport;
+            this.stmtId = stmtId;
+            this.precision = precision;
+        }
+
+        long getStmtId() {
+            return stmtId;
+        }
+
+        int getPrecision() {
+            return precision;
+        }
+    }
+
+    private static class Key {
+        private final String database;
+        private final String sql;
+
+        Key(String database, String sql) {
+            this.database = database;
+            this.sql = sql;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(database, key.database) && sql.equals(key.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(database, sql);
+        }
+    }
+}
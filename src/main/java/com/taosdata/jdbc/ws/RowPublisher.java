@@ -0,0 +1,155 @@
+package com.taosdata.jdbc.ws;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * publish the rows of a websocket query result with backpressure.
+ * each row is an array of the values returned by {@link BlockResultSet#parseValue(int)}, the same values
+ * as getObject(int) without its column check and wasNull tracking.
+ * a block is only fetched when the subscriber has requested rows that the current block can not satisfy,
+ * and the server side result is released when the subscription is cancelled.
+ * the result set is owned by the publisher: it must not be iterated by next() and allows one subscriber.
+ */
+public class RowPublisher implements Publisher<Object[]> {
+    private final BlockResultSet resultSet;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    public RowPublisher(BlockResultSet resultSet) {
+        this.resultSet = resultSet;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super Object[]> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber is null");
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                    // do nothing
+                }
+
+                @Override
+                public void cancel() {
+                    // do nothing
+                }
+            });
+            subscriber.onError(new IllegalStateException("RowPublisher allows only one subscriber"));
+            return;
+        }
+        subscriber.onSubscribe(new RowSubscription(subscriber));
+    }
+
+    private class RowSubscription implements Subscription {
+        private final Subscriber<? super Object[]> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private volatile boolean cancelled;
+        private volatile boolean fetching;
+        private volatile boolean end;
+        private volatile Throwable error;
+        private boolean done;
+
+        RowSubscription(Subscriber<? super Object[]> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("request must be positive, but was: " + n);
+            } else {
+                demand.getAndUpdate(d -> d + n < 0 ? Long.MAX_VALUE : d + n);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        // only one thread emits at a time, signals arriving meanwhile are replayed by that thread
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                if (!done) {
+                    emit();
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void emit() {
+            if (cancelled) {
+                finish();
+                return;
+            }
+            if (error != null) {
+                finish();
+                subscriber.onError(error);
+                return;
+            }
+            if (fetching) {
+                return;
+            }
+            int numOfCols = resultSet.fields.size();
+            while (demand.get() > 0 && resultSet.rowIndex < resultSet.numOfRows) {
+                if (cancelled) {
+                    finish();
+                    return;
+                }
+                Object[] row = new Object[numOfCols];
+                for (int i = 0; i < numOfCols; i++) {
+                    row[i] = resultSet.parseValue(i + 1);
+                }
+                resultSet.rowIndex++;
+                demand.decrementAndGet();
+                subscriber.onNext(row);
+            }
+            if (resultSet.rowIndex < resultSet.numOfRows) {
+                return;
+            }
+            if (end) {
+                finish();
+                subscriber.onComplete();
+                return;
+            }
+            if (demand.get() > 0) {
+                fetching = true;
+                resultSet.nextBlockAsync().whenComplete((hasMore, throwable) -> {
+                    if (throwable != null) {
+                        error = throwable instanceof CompletionException && throwable.getCause() != null
+                                ? throwable.getCause() : throwable;
+                    } else if (!hasMore) {
+                        end = true;
+                    }
+                    fetching = false;
+                    drain();
+                });
+            }
+        }
+
+        private void finish() {
+            done = true;
+            try {
+                resultSet.close();
+            } catch (SQLException e) {
+                // ignore
+            }
+        }
+    }
+}
@@ -4,13 +4,15 @@ import com.taosdata.jdbc.TSDBConstants;
 import com.taosdata.jdbc.TSDBError;
 import com.taosdata.jdbc.TSDBErrorNumbers;
 import com.taosdata.jdbc.TSDBParameterMetaData;
+import com.taosdata.jdbc.common.BindColumn;
+import com.taosdata.jdbc.common.ColumnAccumulator;
 import com.taosdata.jdbc.common.ColumnInfo;
 import com.taosdata.jdbc.common.SerializeBlock;
 import com.taosdata.jdbc.enums.BindType;
 import com.taosdata.jdbc.enums.TimestampPrecision;
 import com.taosdata.jdbc.rs.ConnectionParam;
 import com.taosdata.jdbc.utils.ReqId;
-import com.taosdata.jdbc.utils.Utils;
+import com.taosdata.jdbc.utils.SqlTemplate;
 import com.taosdata.jdbc.ws.entity.Code;
 import com.taosdata.jdbc.ws.entity.Request;
 import com.taosdata.jdbc.ws.entity.Response;
@@ -19,7 +21,6 @@ import com.taosdata.jdbc.ws.stmt.entity.RequestFactory;
 import com.taosdata.jdbc.ws.stmt.entity.STMTAction;
 import com.taosdata.jdbc.ws.stmt.entity.StmtResp;
 
-import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.math.BigDecimal;
@@ -28,6 +29,8 @@ import java.nio.charset.StandardCharsets;
 import java.sql.Date;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -37,31 +40,68 @@ import static com.taosdata.jdbc.utils.SqlSyntaxValidator.getDatabaseName;
 import static com.taosdata.jdbc.utils.SqlSyntaxValidator.isUseSql;
 
 public class TSWSPreparedStatement extends WSStatement implements PreparedStatement {
+    private static final int TAG_CACHE_SIZE = 10_000;
     private static final Pattern INSERT_PATTERN = Pattern.compile("insert\\s+into\\s+(\\w+|\\?)\\s+(using\\s+(\\w+)\\s+tags\\s*\\(.*\\))?\\s*values\\s*\\(.*\\)");
     private final ConnectionParam param;
     private Transport prepareTransport;
     private long reqId;
     private long stmtId;
     private final String rawSql;
+    private final String database;
+    private final SqlTemplate sqlTemplate;
+    // reused by every execution to build the sql with parameters
+    private final StringBuilder nativeSql = new StringBuilder();
 
     private int queryTimeout = 0;
     private int precision = TimestampPrecision.MS;
+    // closed handles are kept here for statements preparing the same sql, null when not cached
+    private PreparedStmtCache stmtCache;
+    // the server-side stmt failed and must be prepared again before next use
+    private boolean needPrepare;
+    // requests were sent since the last successful execution
+    private boolean dirty;
 
     private final Map<Integer, Column> column = new HashMap<>();
 
     private final Map<Integer, Column> tag = new HashMap<>();
-    private final List<ColumnInfo> data = new ArrayList<>();
+    private final List<BindColumn> data = new ArrayList<>();
 
     private final PriorityQueue<ColumnInfo> queue = new PriorityQueue<>();
+    // sub-tables added by addTableBatch, sent by executeTableBatch
+    private final List<TableBatch> tableBatches = new ArrayList<>();
+    // tag block last set for each sub-table of this stmt, least recently used evicted
+    private final Map<String, byte[]> tagCache = new LinkedHashMap<String, byte[]>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+            return size() > TAG_CACHE_SIZE;
+        }
+    };
 
     public TSWSPreparedStatement(Transport transport, Transport prepareTransport, ConnectionParam param, String database, Connection connection, String sql) throws SQLException {
-        super(transport, database, connection);
+        this(transport, prepareTransport, param, database, connection, sql, null);
+    }
+
+    TSWSPreparedStatement(Transport transport, Transport prepareTransport, ConnectionParam param, String database, Connection connection, String sql, PreparedStmtCache stmtCache) throws SQLException {
+        super(transport, database, connection, param.getPrefetchBlocks());
         this.prepareTransport = prepareTransport;
         this.rawSql = sql;
+        this.sqlTemplate = SqlTemplate.compile(sql);
         this.param = param;
+        this.database = database;
+        this.stmtCache = stmtCache;
         if (!sql.contains("?"))
             return;
 
+        if (stmtCache != null) {
+            PreparedStmtCache.Handle handle = stmtCache.take(database, sql, prepareTransport);
+            if (handle != null) {
+                reqId = ReqId.getReqID();
+                stmtId = handle.getStmtId();
+                precision = handle.getPrecision();
+                return;
+            }
+        }
+
         String useDb = null;
         Matcher matcher = INSERT_PATTERN.matcher(sql);
         if (matcher.find()) {
@@ -91,20 +131,48 @@ public class TSWSPreparedStatement extends WSStatement implements PreparedStatem
             }
         }
 
+        prepare();
+    }
+
+    /**
+     * init a server-side stmt and prepare the sql on it
+     */
+    private void prepare() throws SQLException {
         reqId = ReqId.getReqID();
         Request request = RequestFactory.generateInit(reqId);
         StmtResp resp = (StmtResp) prepareTransport.send(request);
         if (Code.SUCCESS.getCode() != resp.getCode()) {
-            throw new SQLException("0x" + Integer.toHexString(resp.getCode()) + ":" + resp.getMessage());
+            throw stmtError(resp.getCode(), resp.getMessage());
         }
         stmtId = resp.getStmtId();
-        Request prepare = RequestFactory.generatePrepare(stmtId, reqId, sql);
+        needPrepare = false;
+        dirty = false;
+        tagCache.clear();
+        Request prepare = RequestFactory.generatePrepare(stmtId, reqId, rawSql);
         StmtResp prepareResp = (StmtResp) prepareTransport.send(prepare);
         if (Code.SUCCESS.getCode() != prepareResp.getCode()) {
-            throw new SQLException("0x" + Integer.toHexString(prepareResp.getCode()) + ":" + prepareResp.getMessage());
+            throw stmtError(prepareResp.getCode(), prepareResp.getMessage());
         }
     }
 
+    /**
+     * the server-side stmt is kept between executions, it is only closed and prepared again after a failure
+     */
+    private void ensurePrepared() throws SQLException {
+        if (!needPrepare)
+            return;
+        prepareTransport.sendWithoutRep(RequestFactory.generateClose(stmtId, reqId));
+        prepare();
+    }
+
+    /**
+     * the state of the server-side stmt is unknown after a failed request, so it is prepared again before next use
+     */
+    private SQLException stmtError(int code, String message) {
+        needPrepare = true;
+        return new SQLException("0x" + Integer.toHexString(code) + ":" + message);
+    }
+
     @Override
     public int getQueryTimeout() throws SQLException {
         return queryTimeout;
@@ -139,18 +207,9 @@ public class TSWSPreparedStatement extends WSStatement implements PreparedStatem
                     }
                 }
 
-                reqId = ReqId.getReqID();
-                Request request = RequestFactory.generateInit(reqId);
-                StmtResp resp = (StmtResp) prepareTransport.send(request);
-                if (Code.SUCCESS.getCode() != resp.getCode()) {
-                    throw new SQLException("0x" + Integer.toHexString(resp.getCode()) + ":" + resp.getMessage());
-                }
-                stmtId = resp.getStmtId();
-                Request prepare = RequestFactory.generatePrepare(stmtId, reqId, rawSql);
-                StmtResp prepareResp = (StmtResp) prepareTransport.send(prepare);
-                if (Code.SUCCESS.getCode() != prepareResp.getCode()) {
-                    throw new SQLException("0x" + Integer.toHexString(prepareResp.getCode()) + ":" + prepareResp.getMessage());
-                }
+                // handles in the cache belong to the transport of the connection
+                stmtCache = null;
+                prepare();
             }
         }
     }
@@ -179,7 +238,7 @@ public class TSWSPreparedStatement extends WSStatement implements PreparedStatem
         Object[] parameters = list.toArray(new Object[0]);
         this.clearParameters();
 
-        final String sql = Utils.getNativeSql(this.rawSql, parameters);
+        final String sql = getNativeSql(parameters);
         return executeQuery(sql);
     }
 
@@ -190,66 +249,68 @@ public class TSWSPreparedStatement extends WSStatement implements PreparedStatem
         if (!data.isEmpty())
             throw TSDBError.undeterminedExecutionError();
 
-        //set tag
-        if (!tag.isEmpty()) {
-            List<ColumnInfo> collect = tag.keySet().stream().sorted().map(i -> {
-                Column col = this.tag.get(i);
+        try {
+            ensurePrepared();
+            dirty = true;
+            //set tag
+            if (!tag.isEmpty()) {
+                List<ColumnInfo> collect = tag.keySet().stream().sorted().map(i -> {
+                    Column col = this.tag.get(i);
+                    return new ColumnInfo(i, col.data, col.type);
+                }).collect(Collectors.toList());
+                StmtResp bindResp = (StmtResp) prepareTransport.send(STMTAction.SET_TAGS.getAction(),
+                        reqId, stmtId, BindType.TAG.get(), collect, precision);
+                if (Code.SUCCESS.getCode() != bindResp.getCode()) {
+                    throw stmtError(bindResp.getCode(), bindResp.getMessage());
+                }
+            }
+            // bind
+            List<ColumnInfo> collect = column.keySet().stream().sorted().map(i -> {
+                Column col = this.column.get(i);
                 return new ColumnInfo(i, col.data, col.type);
             }).collect(Collectors.toList());
-            byte[] tagBlock;
-            try {
-                tagBlock = SerializeBlock.getRawBlock(collect, precision);
-            } catch (IOException e) {
-                throw new SQLException("data serialize error!", e);
-            }
-            StmtResp bindResp = (StmtResp) prepareTransport.send(STMTAction.SET_TAGS.getAction(),
-                    reqId, stmtId, BindType.TAG.get(), tagBlock);
+            StmtResp bindResp = (StmtResp) prepareTransport.send(STMTAction.BIND.getAction(),
+                    reqId, stmtId, BindType.BIND.get(), collect, precision);
             if (Code.SUCCESS.getCode() != bindResp.getCode()) {
-                throw new SQLException("0x" + Integer.toHexString(bindResp.getCode()) + ":" + bindResp.getMessage());
+                throw stmtError(bindResp.getCode(), bindResp.getMessage());
             }
+            // add batch
+            Request batch = RequestFactory.generateBatch(stmtId, reqId);
+            Response send = prepareTransport.send(batch);
+            StmtResp batchResp = (StmtResp) send;
+            if (Code.SUCCESS.getCode() != batchResp.getCode()) {
+                throw stmtError(batchResp.getCode(), batchResp.getMessage());
+            }
+            this.clearParameters();
+            // send
+            Request request = RequestFactory.generateExec(stmtId, reqId);
+            ExecResp resp = (ExecResp) prepareTransport.send(request);
+            if (Code.SUCCESS.getCode() != resp.getCode()) {
+                throw stmtError(resp.getCode(), resp.getMessage());
+            }
+            dirty = false;
+            return resp.getAffected();
+        } catch (SQLException | RuntimeException e) {
+            // the server-side stmt may be half bound
+            needPrepare = true;
+            throw e;
         }
-        // bind
-        List<ColumnInfo> collect = column.keySet().stream().sorted().map(i -> {
-            Column col = this.column.get(i);
-            return new ColumnInfo(i, col.data, col.type);
-        }).collect(Collectors.toList());
-        byte[] rawBlock;
-        try {
-            rawBlock = SerializeBlock.getRawBlock(collect, precision);
-        } catch (IOException e) {
-            throw new SQLException("data serialize error!", e);
-        }
-        StmtResp bindResp = (StmtResp) prepareTransport.send(STMTAction.BIND.getAction(),
-                reqId, stmtId, BindType.BIND.get(), rawBlock);
-        if (Code.SUCCESS.getCode() != bindResp.getCode()) {
-            throw new SQLException("0x" + Integer.toHexString(bindResp.getCode()) + ":" + bindResp.getMessage());
-        }
-        // add batch
-        Request batch = RequestFactory.generateBatch(stmtId, reqId);
-        Response send = prepareTransport.send(batch);
-        StmtResp batchResp = (StmtResp) send;
-        if (Code.SUCCESS.getCode() != batchResp.getCode()) {
-            throw new SQLException("0x" + Integer.toHexString(batchResp.getCode()) + ":" + batchResp.getMessage());
-        }
-        this.clearParameters();
-        // send
-        Request request = RequestFactory.generateExec(stmtId, reqId);
-        ExecResp resp = (ExecResp) prepareTransport.send(request);
-        if (Code.SUCCESS.getCode() != resp.getCode()) {
-            throw new SQLException("0x" + Integer.toHexString(resp.getCode()) + ":" + resp.getMessage());
-        }
-        // close
-        Request close = RequestFactory.generateClose(stmtId, reqId);
-        prepareTransport.sendWithoutRep(close);
-        return resp.getAffected();
     }
 
     // set sub-table name
     public void setTableName(String name) throws SQLException {
-        Request request = RequestFactory.generateSetTableName(stmtId, reqId, name);
-        StmtResp resp = (StmtResp) prepareTransport.send(request);
-        if (Code.SUCCESS.getCode() != resp.getCode()) {
-            throw new SQLException("0x" + Integer.toHexString(resp.getCode()) + ":" + resp.getMessage());
+        try {
+            ensurePrepared();
+            dirty = true;
+            Request request = RequestFactory.generateSetTableName(stmtId, reqId, name);
+            StmtResp resp = (StmtResp) prepareTransport.send(request);
+            if (Code.SUCCESS.getCode() != resp.getCode()) {
+                throw stmtError(resp.getCode(), resp.getMessage());
+            }
+        } catch (SQLException | RuntimeException e) {
+            // the server-side stmt may be half bound
+            needPrepare = true;
+            throw e;
         }
     }
 
@@ -610,7 +671,7 @@ public class TSWSPreparedStatement extends WSStatement implements PreparedStatem
         }
         Object[] parameters = list.toArray(new Object[0]);
         this.clearParameters();
-        final String sql = Utils.getNativeSql(this.rawSql, parameters);
+        final String sql = getNativeSql(parameters);
         return execute(sql);
     }
 
@@ -619,7 +680,9 @@ public class TSWSPreparedStatement extends WSStatement implements PreparedStatem
         List<Column> collect = column.keySet().stream().sorted().map(column::get).collect(Collectors.toList());
         if (data.isEmpty()) {
             for (Column col : collect) {
-                data.add(new ColumnInfo(col.index, col.data, col.type));
+                ColumnAccumulator accumulator = new ColumnAccumulator(col.index, col.type, precision);
+                accumulator.add(col.data);
+                data.add(accumulator);
             }
         } else {
             if (collect.size() != data.size()) {
@@ -628,14 +691,17 @@ public class TSWSPreparedStatement extends WSStatement implements PreparedStatem
 
             for (int i = 0; i < collect.size(); i++) {
                 Column col = collect.get(i);
-                ColumnInfo columnInfo = data.get(i);
-                if (columnInfo.getIndex() != col.index) {
-                    throw new SQLException("batch add column index not match, expected: " + columnInfo.getIndex() + ", actual: " + col.index);
+                BindColumn bound = data.get(i);
+                if (!(bound instanceof ColumnAccumulator)) {
+                    throw new SQLException("batch add can't be mixed with columnDataAddBatch");
+                }
+                if (bound.getIndex() != col.index) {
+                    throw new SQLException("batch add column index not match, expected: " + bound.getIndex() + ", actual: " + col.index);
                 }
-                if (columnInfo.getType() != col.type) {
-                    throw new SQLException("batch add column type not match, expected type: " + columnInfo.getType() + ", actual type: " + col.type);
+                if (bound.getType() != col.type) {
+                    throw new SQLException("batch add column type not match, expected type: " + bound.getType() + ", actual type: " + col.type);
                 }
-                columnInfo.add(col.data);
+                ((ColumnAccumulator) bound).add(col.data);
             }
         }
     }
@@ -645,60 +711,63 @@ public class TSWSPreparedStatement extends WSStatement implements PreparedStatem
         if (column.isEmpty())
             throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_BATCH_IS_EMPTY);
 
-        //set tag
-        if (!tag.isEmpty()) {
-            List<ColumnInfo> collect = tag.keySet().stream().sorted().map(i -> {
-                Column col = this.tag.get(i);
-                return new ColumnInfo(i, col.data, col.type);
-            }).collect(Collectors.toList());
-            byte[] tagBlock;
-            try {
-                tagBlock = SerializeBlock.getRawBlock(collect, precision);
-            } catch (IOException e) {
-                throw new SQLException("data serialize error!", e);
+        try {
+            ensurePrepared();
+            dirty = true;
+            //set tag
+            if (!tag.isEmpty()) {
+                List<ColumnInfo> collect = tag.keySet().stream().sorted().map(i -> {
+                    Column col = this.tag.get(i);
+                    return new ColumnInfo(i, col.data, col.type);
+                }).collect(Collectors.toList());
+                StmtResp bindResp = (StmtResp) prepareTransport.send(STMTAction.SET_TAGS.getAction(),
+                        reqId, stmtId, BindType.TAG.get(), collect, precision);
+                if (Code.SUCCESS.getCode() != bindResp.getCode()) {
+                    throw stmtError(bindResp.getCode(), bindResp.getMessage());
+                }
             }
-            StmtResp bindResp = (StmtResp) prepareTransport.send(STMTAction.SET_TAGS.getAction(),
-                    reqId, stmtId, BindType.TAG.get(), tagBlock);
+            // bind
+            StmtResp bindResp = (StmtResp) prepareTransport.send(STMTAction.BIND.getAction(),
+                    reqId, stmtId, BindType.BIND.get(), data, precision);
             if (Code.SUCCESS.getCode() != bindResp.getCode()) {
-                throw new SQLException("0x" + Integer.toHexString(bindResp.getCode()) + ":" + bindResp.getMessage());
+                throw stmtError(bindResp.getCode(), bindResp.getMessage());
+            }
+            // add batch
+            Request batch = RequestFactory.generateBatch(stmtId, reqId);
+            Response send = prepareTransport.send(batch);
+            StmtResp batchResp = (StmtResp) send;
+            if (Code.SUCCESS.getCode() != batchResp.getCode()) {
+                throw stmtError(batchResp.getCode(), batchResp.getMessage());
             }
-        }
-        // bind
-        byte[] rawBlock;
-        try {
-            rawBlock = SerializeBlock.getRawBlock(data, precision);
-        } catch (IOException e) {
-            throw new SQLException("data serialize error!", e);
-        }
-        StmtResp bindResp = (StmtResp) prepareTransport.send(STMTAction.BIND.getAction(),
-                reqId, stmtId, BindType.BIND.get(), rawBlock);
-        if (Code.SUCCESS.getCode() != bindResp.getCode()) {
-            throw new SQLException("0x" + Integer.toHexString(bindResp.getCode()) + ":" + bindResp.getMessage());
-        }
-        // add batch
-        Request batch = RequestFactory.generateBatch(stmtId, reqId);
-        Response send = prepareTransport.send(batch);
-        StmtResp batchResp = (StmtResp) send;
-        if (Code.SUCCESS.getCode() != batchResp.getCode()) {
-            throw new SQLException("0x" + Integer.toHexString(batchResp.getCode()) + ":" + batchResp.getMessage());
-        }
 
-        this.clearParameters();
-        // send
-        Request request = RequestFactory.generateExec(stmtId, reqId);
-        ExecResp resp = (ExecResp) prepareTransport.send(request);
-        if (Code.SUCCESS.getCode() != resp.getCode()) {
-            throw new SQLException("0x" + Integer.toHexString(resp.getCode()) + ":" + resp.getMessage());
+            this.clearParameters();
+            // send
+            Request request = RequestFactory.generateExec(stmtId, reqId);
+            ExecResp resp = (ExecResp) prepareTransport.send(request);
+            if (Code.SUCCESS.getCode() != resp.getCode()) {
+                throw stmtError(resp.getCode(), resp.getMessage());
+            }
+            dirty = false;
+            int[] ints = new int[resp.getAffected()];
+            for (int i = 0, len = ints.length; i < len; i++)
+                ints[i] = SUCCESS_NO_INFO;
+            return ints;
+        } catch (SQLException | RuntimeException e) {
+            // the server-side stmt may be half bound
+            needPrepare = true;
+            throw e;
         }
-        int[] ints = new int[resp.getAffected()];
-        for (int i = 0, len = ints.length; i < len; i++)
-            ints[i] = SUCCESS_NO_INFO;
-        return ints;
     }
 
     @Override
     public void close() throws SQLException {
+        if (isClosed())
+            return;
         super.close();
+        if (stmtCache != null && stmtId != 0 && !needPrepare && !dirty) {
+            stmtCache.put(database, rawSql, new PreparedStmtCache.Handle(prepareTransport, stmtId, precision));
+            return;
+        }
         Request close = RequestFactory.generateClose(stmtId, reqId);
         prepareTransport.sendWithoutRep(close);
     }
@@ -1000,6 +1069,102 @@ public class TSWSPreparedStatement extends WSStatement implements PreparedStatem
         setValueImpl(columnIndex, list, TSDBConstants.TSDB_DATA_TYPE_NCHAR, size * Integer.BYTES);
     }
 
+    // bind a column from an array, the array is read when the batch is executed.
+    // a row is null if it is set in nulls, nulls may be null when no row is null.
+
+    public void setBoolean(int columnIndex, boolean[] values, BitSet nulls) throws SQLException {
+        setArrayImpl(columnIndex, values, values.length, nulls, TSDBConstants.TSDB_DATA_TYPE_BOOL);
+    }
+
+    public void setByte(int columnIndex, byte[] values, BitSet nulls) throws SQLException {
+        setArrayImpl(columnIndex, values, values.length, nulls, TSDBConstants.TSDB_DATA_TYPE_TINYINT);
+    }
+
+    public void setShort(int columnIndex, short[] values, BitSet nulls) throws SQLException {
+        setArrayImpl(columnIndex, values, values.length, nulls, TSDBConstants.TSDB_DATA_TYPE_SMALLINT);
+    }
+
+    public void setInt(int columnIndex, int[] values, BitSet nulls) throws SQLException {
+        setArrayImpl(columnIndex, values, values.length, nulls, TSDBConstants.TSDB_DATA_TYPE_INT);
+    }
+
+    public void setLong(int columnIndex, long[] values, BitSet nulls) throws SQLException {
+        setArrayImpl(columnIndex, values, values.length, nulls, TSDBConstants.TSDB_DATA_TYPE_BIGINT);
+    }
+
+    public void setFloat(int columnIndex, float[] values, BitSet nulls) throws SQLException {
+        setArrayImpl(columnIndex, values, values.length, nulls, TSDBConstants.TSDB_DATA_TYPE_FLOAT);
+    }
+
+    public void setDouble(int columnIndex, double[] values, BitSet nulls) throws SQLException {
+        setArrayImpl(columnIndex, values, values.length, nulls, TSDBConstants.TSDB_DATA_TYPE_DOUBLE);
+    }
+
+    // note: timestamps are in the precision of the database, not milliseconds
+    public void setTimestamp(int columnIndex, long[] values, BitSet nulls) throws SQLException {
+        setArrayImpl(columnIndex, values, values.length, nulls, TSDBConstants.TSDB_DATA_TYPE_TIMESTAMP);
+    }
+
+    public void setBoolean(int columnIndex, boolean[] values) throws SQLException {
+        setBoolean(columnIndex, values, null);
+    }
+
+    public void setByte(int columnIndex, byte[] values) throws SQLException {
+        setByte(columnIndex, values, null);
+    }
+
+    public void setShort(int columnIndex, short[] values) throws SQLException {
+        setShort(columnIndex, values, null);
+    }
+
+    public void setInt(int columnIndex, int[] values) throws SQLException {
+        setInt(columnIndex, values, null);
+    }
+
+    public void setLong(int columnIndex, long[] values) throws SQLException {
+        setLong(columnIndex, values, null);
+    }
+
+    public void setFloat(int columnIndex, float[] values) throws SQLException {
+        setFloat(columnIndex, values, null);
+    }
+
+    public void setDouble(int columnIndex, double[] values) throws SQLException {
+        setDouble(columnIndex, values, null);
+    }
+
+    public void setTimestamp(int columnIndex, long[] values) throws SQLException {
+        setTimestamp(columnIndex, values, null);
+    }
+
+    // null elements are null rows, size is the max bytes of a value
+    public void setString(int columnIndex, String[] values, int size) throws SQLException {
+        byte[][] bytes = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                bytes[i] = values[i].getBytes(StandardCharsets.UTF_8);
+                if (bytes[i].length > size) {
+                    throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_UNKNOWN, "string data too long");
+                }
+            }
+        }
+        setArrayImpl(columnIndex, bytes, bytes.length, null, TSDBConstants.TSDB_DATA_TYPE_BINARY);
+    }
+
+    // size is the max characters of a value
+    public void setNString(int columnIndex, String[] values, int size) throws SQLException {
+        for (String value : values) {
+            if (value != null && value.codePointCount(0, value.length()) > size) {
+                throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_UNKNOWN, "string data too long");
+            }
+        }
+        setArrayImpl(columnIndex, values, values.length, null, TSDBConstants.TSDB_DATA_TYPE_NCHAR);
+    }
+
+    private void setArrayImpl(int columnIndex, Object values, int rows, BitSet nulls, int type) {
+        queue.add(new ColumnInfo(columnIndex, values, rows, nulls, type));
+    }
+
     public <T> void setValueImpl(int columnIndex, List<T> list, int type, int bytes) throws SQLException {
         List<Object> listObject = list.stream()
                 .map(Object.class::cast)
@@ -1009,60 +1174,169 @@ public class TSWSPreparedStatement extends WSStatement implements PreparedStatem
     }
 
     public void columnDataAddBatch() throws SQLException {
+        // check every column before moving any, so a mismatch leaves the queue and the bound data as they were
+        if (!data.isEmpty() && data.get(0) instanceof ColumnAccumulator) {
+            throw new SQLException("batch add can't be mixed with columnDataAddBatch");
+        }
+        int rows = data.isEmpty() ? -1 : data.get(0).getRows();
+        for (ColumnInfo columnInfo : queue) {
+            if (rows == -1) {
+                rows = columnInfo.getRows();
+            } else if (rows != columnInfo.getRows()) {
+                throw new SQLException("column data rows not match, expected: " + rows + ", actual: " + columnInfo.getRows());
+            }
+        }
         while (!queue.isEmpty()) {
             data.add(queue.poll());
         }
     }
 
     public void columnDataExecuteBatch() throws SQLException {
-        //set tag
+        try {
+            ensurePrepared();
+            dirty = true;
+            //set tag
+            if (!tag.isEmpty()) {
+                List<ColumnInfo> collect = tag.keySet().stream().sorted().map(i -> {
+                    Column col = this.tag.get(i);
+                    return new ColumnInfo(i, col.data, col.type);
+                }).collect(Collectors.toList());
+                StmtResp bindResp = (StmtResp) prepareTransport.send(STMTAction.SET_TAGS.getAction(),
+                        reqId, stmtId, BindType.TAG.get(), collect, precision);
+                if (Code.SUCCESS.getCode() != bindResp.getCode()) {
+                    throw stmtError(bindResp.getCode(), bindResp.getMessage());
+                }
+            }
+            // bind
+            StmtResp bindResp = (StmtResp) prepareTransport.send(STMTAction.BIND.getAction(),
+                    reqId, stmtId, BindType.BIND.get(), data, precision);
+            if (Code.SUCCESS.getCode() != bindResp.getCode()) {
+                throw stmtError(bindResp.getCode(), bindResp.getMessage());
+            }
+            // add batch
+            Request batch = RequestFactory.generateBatch(stmtId, reqId);
+            Response send = prepareTransport.send(batch);
+            StmtResp batchResp = (StmtResp) send;
+            if (Code.SUCCESS.getCode() != batchResp.getCode()) {
+                throw stmtError(batchResp.getCode(), batchResp.getMessage());
+            }
+
+            this.clearParameters();
+            // send
+            Request request = RequestFactory.generateExec(stmtId, reqId);
+            ExecResp resp = (ExecResp) prepareTransport.send(request);
+            if (Code.SUCCESS.getCode() != resp.getCode()) {
+                throw stmtError(resp.getCode(), resp.getMessage());
+            }
+            dirty = false;
+        } catch (SQLException | RuntimeException e) {
+            // the server-side stmt may be half bound
+            needPrepare = true;
+            throw e;
+        }
+    }
+
+    public void columnDataCloseBatch() throws SQLException {
+        this.close();
+    }
+
+    /**
+     * keep the tags and the batch bound so far for sub-table tableName, then start binding the next sub-table.
+     * nothing is sent until executeTableBatch.
+     */
+    public void addTableBatch(String tableName) throws SQLException {
+        if (data.isEmpty())
+            throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_BATCH_IS_EMPTY);
+
+        byte[] tagBlock = null;
         if (!tag.isEmpty()) {
             List<ColumnInfo> collect = tag.keySet().stream().sorted().map(i -> {
                 Column col = this.tag.get(i);
                 return new ColumnInfo(i, col.data, col.type);
             }).collect(Collectors.toList());
-            byte[] tagBlock;
+            tagBlock = SerializeBlock.getRawBlock(collect, precision);
+        }
+        tableBatches.add(new TableBatch(tableName, tagBlock, new ArrayList<>(data)));
+        this.clearParameters();
+    }
+
+    /**
+     * send the batches of all sub-tables added by addTableBatch without waiting between requests,
+     * then execute them at once. tags are only sent when they differ from the tags last set for the sub-table.
+     *
+     * @return affected rows
+     */
+    public int executeTableBatch() throws SQLException {
+        if (tableBatches.isEmpty())
+            throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_BATCH_IS_EMPTY);
+
+        try {
+            // nothing is sent if the stmt can't be prepared, the batches are kept for a retry
+            ensurePrepared();
+            List<CompletableFuture<Response>> futures = new ArrayList<>();
+            Map<String, byte[]> sentTags = new HashMap<>();
             try {
-                tagBlock = SerializeBlock.getRawBlock(collect, precision);
-            } catch (IOException e) {
-                throw new SQLException("data serialize error!", e);
+                dirty = true;
+                for (TableBatch batch : tableBatches) {
+                    futures.add(prepareTransport.sendAsync(
+                            RequestFactory.generateSetTableName(stmtId, ReqId.getReqID(), batch.tableName)));
+                    if (batch.tagBlock != null && !Arrays.equals(batch.tagBlock, sentTags.get(batch.tableName))
+                            && !Arrays.equals(batch.tagBlock, tagCache.get(batch.tableName))) {
+                        futures.add(prepareTransport.sendAsync(STMTAction.SET_TAGS.getAction(),
+                                ReqId.getReqID(), stmtId, BindType.TAG.get(), batch.tagBlock));
+                        sentTags.put(batch.tableName, batch.tagBlock);
+                    }
+                    futures.add(prepareTransport.sendAsync(STMTAction.BIND.getAction(),
+                            ReqId.getReqID(), stmtId, BindType.BIND.get(), batch.columns, precision));
+                    futures.add(prepareTransport.sendAsync(RequestFactory.generateBatch(stmtId, ReqId.getReqID())));
+                }
+            } finally {
+                tableBatches.clear();
             }
-            StmtResp bindResp = (StmtResp) prepareTransport.send(STMTAction.SET_TAGS.getAction(),
-                    reqId, stmtId, BindType.TAG.get(), tagBlock);
-            if (Code.SUCCESS.getCode() != bindResp.getCode()) {
-                throw new SQLException("0x" + Integer.toHexString(bindResp.getCode()) + ":" + bindResp.getMessage());
+            ExecResp resp = (ExecResp) prepareTransport.send(RequestFactory.generateExec(stmtId, reqId));
+
+            for (CompletableFuture<Response> future : futures) {
+                StmtResp stmtResp;
+                try {
+                    stmtResp = (StmtResp) future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_UNKNOWN, "execute table batch has been interrupted");
+                } catch (ExecutionException e) {
+                    throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_RESTFul_Client_IOException, e.getMessage());
+                }
+                if (Code.SUCCESS.getCode() != stmtResp.getCode()) {
+                    throw stmtError(stmtResp.getCode(), stmtResp.getMessage());
+                }
             }
+            if (Code.SUCCESS.getCode() != resp.getCode()) {
+                throw stmtError(resp.getCode(), resp.getMessage());
+            }
+            dirty = false;
+            tagCache.putAll(sentTags);
+            return resp.getAffected();
+        } catch (SQLException | RuntimeException e) {
+            // the server-side stmt may be half bound
+            needPrepare = true;
+            throw e;
         }
-        // bind
-        byte[] rawBlock;
-        try {
-            rawBlock = SerializeBlock.getRawBlock(data, precision);
-        } catch (IOException e) {
-            throw new SQLException("data serialize error!", e);
-        }
-        StmtResp bindResp = (StmtResp) prepareTransport.send(STMTAction.BIND.getAction(),
-                reqId, stmtId, BindType.BIND.get(), rawBlock);
-        if (Code.SUCCESS.getCode() != bindResp.getCode()) {
-            throw new SQLException("0x" + Integer.toHexString(bindResp.getCode()) + ":" + bindResp.getMessage());
-        }
-        // add batch
-        Request batch = RequestFactory.generateBatch(stmtId, reqId);
-        Response send = prepareTransport.send(batch);
-        StmtResp batchResp = (StmtResp) send;
-        if (Code.SUCCESS.getCode() != batchResp.getCode()) {
-            throw new SQLException("0x" + Integer.toHexString(batchResp.getCode()) + ":" + batchResp.getMessage());
-        }
+    }
 
-        this.clearParameters();
-        // send
-        Request request = RequestFactory.generateExec(stmtId, reqId);
-        ExecResp resp = (ExecResp) prepareTransport.send(request);
-        if (Code.SUCCESS.getCode() != resp.getCode()) {
-            throw new SQLException("0x" + Integer.toHexString(resp.getCode()) + ":" + resp.getMessage());
+    static class TableBatch {
+        private final String tableName;
+        private final byte[] tagBlock;
+        private final List<BindColumn> columns;
+
+        TableBatch(String tableName, byte[] tagBlock, List<BindColumn> columns) {
+            this.tableName = tableName;
+            this.tagBlock = tagBlock;
+            this.columns = columns;
         }
     }
 
-    public void columnDataCloseBatch() throws SQLException {
-        this.close();
+    private String getNativeSql(Object[] parameters) {
+        nativeSql.setLength(0);
+        sqlTemplate.appendNativeSql(nativeSql, parameters);
+        return nativeSql.toString();
     }
 }
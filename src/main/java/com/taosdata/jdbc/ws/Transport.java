@@ -2,19 +2,21 @@ package com.taosdata.jdbc.ws;
 
 import com.taosdata.jdbc.TSDBError;
 import com.taosdata.jdbc.TSDBErrorNumbers;
+import com.taosdata.jdbc.common.BindColumn;
 import com.taosdata.jdbc.common.SerializeBlock;
 import com.taosdata.jdbc.enums.WSFunction;
 import com.taosdata.jdbc.rs.ConnectionParam;
-import com.taosdata.jdbc.utils.CompletableFutureTimeout;
+import com.taosdata.jdbc.ws.entity.FetchBlockResp;
 import com.taosdata.jdbc.ws.entity.Request;
 import com.taosdata.jdbc.ws.entity.Response;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.concurrent.*;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 import static com.taosdata.jdbc.TSDBErrorNumbers.ERROR_CONNECTION_TIMEOUT;
 
@@ -24,22 +26,142 @@ import static com.taosdata.jdbc.TSDBErrorNumbers.ERROR_CONNECTION_TIMEOUT;
 public class Transport implements AutoCloseable {
 
     public static final int DEFAULT_MESSAGE_WAIT_TIMEOUT = 60_000;
+    // reqId, stmtId and bind type before the raw block of a stmt binary message
+    private static final int STMT_HEADER_LENGTH = 24;
 
     private final WSClient client;
     private final InFlightRequest inFlightRequest;
     private long timeout;
+    // complete requests on the common pool instead of the decode lane of the message
+    private final boolean asyncComplete;
     private boolean closed = false;
+    private MessageCodec codec = FastJsonCodec.INSTANCE;
+    private final ByteBufferPool bufferPool;
+    // not null for a transport sharing the websocket connection of another one
+    private final Runnable release;
+    // takes the shared websocket connection out of its pool
+    private final Runnable detach;
+    private volatile Runnable closeListener;
 
     public Transport(WSFunction function, ConnectionParam param, InFlightRequest inFlightRequest) throws SQLException {
         this.client = WSClient.getInstance(param, function);
         this.inFlightRequest = inFlightRequest;
         this.timeout = param.getRequestTimeout();
+        this.asyncComplete = param.isAsyncComplete();
+        this.bufferPool = new ByteBufferPool(4, 16 * 1024 * 1024);
+        this.release = null;
+        this.detach = null;
+    }
+
+    private Transport(Transport shared, Runnable release, Runnable detach) {
+        this.client = shared.client;
+        this.inFlightRequest = shared.inFlightRequest;
+        this.timeout = shared.timeout;
+        this.asyncComplete = shared.asyncComplete;
+        this.codec = shared.codec;
+        this.bufferPool = shared.bufferPool;
+        this.release = release;
+        this.detach = detach;
+    }
+
+    /**
+     * a transport sending through the websocket connection of this one, with its own timeout and closed state.
+     * closing it runs release instead of closing the connection, changing its session runs detach.
+     */
+    Transport share(Runnable release, Runnable detach) {
+        return new Transport(this, release, detach);
+    }
+
+    /**
+     * the session state of the websocket connection, e.g. its database, was changed by a request of this transport
+     */
+    public void sessionChanged() {
+        if (detach != null) {
+            detach.run();
+        }
+    }
+
+    boolean isConnected() {
+        return !closed && client.isOpen();
+    }
+
+    /**
+     * @return true if the websocket connection was lost without closing this transport
+     */
+    boolean isBroken() {
+        return !closed && client.isClosed();
+    }
+
+    int inFlight() {
+        return inFlightRequest.size();
+    }
+
+    /**
+     * run once this transport is closed, e.g. to stop counting its websocket connection
+     */
+    void setCloseListener(Runnable closeListener) {
+        this.closeListener = closeListener;
+    }
+
+    private void notifyClosed() {
+        Runnable listener = closeListener;
+        if (listener != null) {
+            closeListener = null;
+            listener.run();
+        }
     }
 
     public void setTextMessageHandler(Consumer<String> textMessageHandler) {
         client.setTextMessageHandler(textMessageHandler);
     }
 
+    /**
+     * decode each text message into the response class of its action and complete the matching request
+     */
+    public void setTextResponseHandler(Function<String, Class<? extends Response>> responseClass) {
+        client.setTextMessageHandler(message -> {
+            Response response = codec.decode(message, responseClass);
+            if (null == response) {
+                return;
+            }
+            FutureResponse remove = inFlightRequest.remove(response.getAction(), response.getReqId());
+            if (null != remove) {
+                complete(remove, response);
+            }
+        });
+    }
+
+    /**
+     * complete the fetch block request of each binary message, whose reqId follows the 8 bytes header
+     *
+     * @param action      action of the fetch block requests
+     * @param blockOffset position of the block in the message
+     */
+    public void setFetchBlockHandler(String action, int blockOffset) {
+        client.setBinaryMessageHandler(byteBuffer -> {
+            byteBuffer.order(ByteOrder.LITTLE_ENDIAN);
+            byteBuffer.position(8);
+            long id = byteBuffer.getLong();
+            byteBuffer.position(blockOffset);
+            FutureResponse remove = inFlightRequest.remove(action, id);
+            if (null != remove) {
+                complete(remove, new FetchBlockResp(id, byteBuffer));
+            }
+        });
+    }
+
+    private void complete(FutureResponse request, Response response) {
+        if (asyncComplete) {
+            ForkJoinPool.commonPool().execute(() -> request.getFuture().complete(response));
+        } else {
+            request.getFuture().complete(response);
+        }
+    }
+
+    public void setCodec(MessageCodec codec) {
+        this.codec = codec;
+    }
+
     public void setBinaryMessageHandler(Consumer<ByteBuffer> binaryMessageHandler) {
         client.setBinaryMessageHandler(binaryMessageHandler);
     }
@@ -53,17 +175,15 @@ public class Transport implements AutoCloseable {
 
         Response response = null;
         CompletableFuture<Response> completableFuture = new CompletableFuture<>();
-        String reqString = request.toString();
+        String reqString = codec.encode(request);
         try {
-            inFlightRequest.put(new FutureResponse(request.getAction(), request.id(), completableFuture));
+            inFlightRequest.put(new FutureResponse(request.getAction(), request.id(), completableFuture, timeout));
             client.send(reqString);
         } catch (InterruptedException | TimeoutException e) {
             throw new SQLException(e);
         }
-        CompletableFuture<Response> responseFuture = CompletableFutureTimeout.orTimeout(
-                completableFuture, timeout, TimeUnit.MILLISECONDS, reqString);
         try {
-            response = responseFuture.get();
+            response = completableFuture.get();
         } catch (InterruptedException | ExecutionException e) {
             inFlightRequest.remove(request.getAction(), request.id());
             throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_RESTFul_Client_IOException, e.getMessage());
@@ -71,29 +191,100 @@ public class Transport implements AutoCloseable {
         return response;
     }
 
+    /**
+     * send a request without waiting for its response.
+     * the returned future is completed by the message handler, or exceptionally on timeout.
+     */
+    public CompletableFuture<Response> sendAsync(Request request) {
+        CompletableFuture<Response> completableFuture = new CompletableFuture<>();
+        String reqString = codec.encode(request);
+        try {
+            inFlightRequest.put(new FutureResponse(request.getAction(), request.id(), completableFuture, timeout));
+            client.send(reqString);
+        } catch (InterruptedException | TimeoutException e) {
+            completableFuture.completeExceptionally(new SQLException(e));
+        }
+        return completableFuture;
+    }
+
     public Response send(String action, long reqId, long stmtId, long type, byte[] rawData) throws SQLException {
-        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        ByteBuffer frame = bufferPool.acquire(STMT_HEADER_LENGTH + rawData.length);
+        try {
+            frame.putLong(reqId).putLong(stmtId).putLong(type).put(rawData);
+            frame.flip();
+            return send(action, reqId, frame);
+        } finally {
+            bufferPool.release(frame);
+        }
+    }
+
+    /**
+     * encode the raw block of columns right after the stmt header into a pooled buffer and send it
+     */
+    public Response send(String action, long reqId, long stmtId, long type, List<? extends BindColumn> columns, int precision) throws SQLException {
+        ByteBuffer frame = bufferPool.acquire(STMT_HEADER_LENGTH + SerializeBlock.getRawBlockLength(columns));
+        try {
+            frame.putLong(reqId).putLong(stmtId).putLong(type);
+            SerializeBlock.writeRawBlock(frame, columns, precision);
+            frame.flip();
+            return send(action, reqId, frame);
+        } finally {
+            bufferPool.release(frame);
+        }
+    }
+
+    /**
+     * send a stmt binary message without waiting for its response
+     */
+    public CompletableFuture<Response> sendAsync(String action, long reqId, long stmtId, long type, byte[] rawData) {
+        ByteBuffer frame = bufferPool.acquire(STMT_HEADER_LENGTH + rawData.length);
         try {
-            buffer.write(SerializeBlock.longToBytes(reqId));
-            buffer.write(SerializeBlock.longToBytes(stmtId));
-            buffer.write(SerializeBlock.longToBytes(type));
-            buffer.write(rawData);
-        } catch (IOException e) {
-            throw new SQLException("data serialize error!", e);
+            frame.putLong(reqId).putLong(stmtId).putLong(type).put(rawData);
+            frame.flip();
+            return sendAsync(action, reqId, frame);
+        } finally {
+            bufferPool.release(frame);
         }
+    }
 
+    /**
+     * encode the raw block of columns and send it without waiting for its response
+     */
+    public CompletableFuture<Response> sendAsync(String action, long reqId, long stmtId, long type, List<? extends BindColumn> columns, int precision) throws SQLException {
+        ByteBuffer frame = bufferPool.acquire(STMT_HEADER_LENGTH + SerializeBlock.getRawBlockLength(columns));
+        try {
+            frame.putLong(reqId).putLong(stmtId).putLong(type);
+            SerializeBlock.writeRawBlock(frame, columns, precision);
+            frame.flip();
+            return sendAsync(action, reqId, frame);
+        } finally {
+            bufferPool.release(frame);
+        }
+    }
+
+    private CompletableFuture<Response> sendAsync(String action, long reqId, ByteBuffer frame) {
+        CompletableFuture<Response> completableFuture = new CompletableFuture<>();
+        try {
+            inFlightRequest.put(new FutureResponse(action, reqId, completableFuture, timeout));
+            client.send(frame);
+        } catch (InterruptedException | TimeoutException e) {
+            completableFuture.completeExceptionally(new SQLException(e));
+        }
+        return completableFuture;
+    }
+
+    private Response send(String action, long reqId, ByteBuffer frame) throws SQLException {
         Response response = null;
         CompletableFuture<Response> completableFuture = new CompletableFuture<>();
         try {
-            inFlightRequest.put(new FutureResponse(action, reqId, completableFuture));
-            client.send(buffer.toByteArray());
+            inFlightRequest.put(new FutureResponse(action, reqId, completableFuture, timeout));
+            // the frame is copied into the websocket frame before send returns, so it can be reused afterwards
+            client.send(frame);
         } catch (InterruptedException | TimeoutException e) {
             throw new SQLException(e);
         }
-        String reqString = "action:" + action + ", reqId:" + reqId + ", stmtId:" + stmtId + ", bindType" + type;
-        CompletableFuture<Response> responseFuture = CompletableFutureTimeout.orTimeout(completableFuture, timeout, TimeUnit.MILLISECONDS, reqString);
         try {
-            response = responseFuture.get();
+            response = completableFuture.get();
         } catch (InterruptedException | ExecutionException e) {
             inFlightRequest.remove(action, reqId);
             throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_RESTFul_Client_IOException, e.getMessage());
@@ -102,7 +293,7 @@ public class Transport implements AutoCloseable {
     }
 
     public void sendWithoutRep(Request request) {
-        client.send(request.toString());
+        client.send(codec.encode(request));
     }
 
     public boolean isClosed() {
@@ -111,9 +302,22 @@ public class Transport implements AutoCloseable {
 
     @Override
     public void close() {
+        if (release != null) {
+            releaseShared();
+            return;
+        }
         closed = true;
         inFlightRequest.close();
         client.close();
+        notifyClosed();
+    }
+
+    private synchronized void releaseShared() {
+        if (!closed) {
+            closed = true;
+            release.run();
+            notifyClosed();
+        }
     }
 
     public static void checkConnection(Transport transport, int connectTimeout) throws SQLException {
@@ -131,6 +335,10 @@ public class Transport implements AutoCloseable {
     }
 
     public void shutdown() {
+        if (release != null) {
+            releaseShared();
+            return;
+        }
         closed = true;
         if (inFlightRequest.hasInFlightRequest()) {
             CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
@@ -0,0 +1,156 @@
+package com.taosdata.jdbc.ws;
+
+import com.taosdata.jdbc.TSDBError;
+import com.taosdata.jdbc.TSDBErrorNumbers;
+import com.taosdata.jdbc.enums.WSFunction;
+import com.taosdata.jdbc.rs.ConnectionParam;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * websocket connections shared by the connections of the same server, user and database.
+ * a pool opens up to wsTransportPoolSize websocket connections and hands out the least used one,
+ * so sockets and message threads don't grow with the number of jdbc connections.
+ * connections sharing a websocket connection share its session, e.g. the database changed by "use".
+ * a websocket connection whose database was changed is no longer handed out, it is closed once its
+ * transports are closed.
+ */
+public class TransportPool {
+    private static final Map<String, TransportPool> pools = new ConcurrentHashMap<>();
+
+    private final int size;
+    private final List<Entry> entries = new ArrayList<>();
+    // websocket connections being opened outside the lock, counted against size
+    private int opening;
+
+    private TransportPool(int size) {
+        this.size = size;
+    }
+
+    public interface TransportFactory {
+        /**
+         * open and authenticate a websocket connection
+         */
+        Transport create() throws SQLException;
+    }
+
+    /**
+     * @return a transport of a shared websocket connection, closing it doesn't close the websocket connection
+     * until all transports of it are closed.
+     */
+    public static Transport acquire(WSFunction function, ConnectionParam param, String database, TransportFactory factory) throws SQLException {
+        String key = function.getFunction() + "://" + param.getHost() + ":" + param.getPort()
+                + "/" + database + "?credentials=" + credentials(param)
+                + "&ssl=" + param.isUseSsl() + "&endpoints=" + param.getEndpoints();
+        TransportPool pool = pools.computeIfAbsent(key, k -> new TransportPool(param.getTransportPoolSize()));
+        return pool.acquire(factory);
+    }
+
+    /**
+     * the pools live as long as the jvm, so they are keyed by a digest of the credentials instead of the password
+     */
+    private static String credentials(ConnectionParam param) throws SQLException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new SQLException(e);
+        }
+        String credentials = param.getUser() + '\0' + param.getPassword() + '\0' + param.getCloudToken();
+        StringBuilder sb = new StringBuilder(64);
+        for (byte b : digest.digest(credentials.getBytes(StandardCharsets.UTF_8))) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    private Transport acquire(TransportFactory factory) throws SQLException {
+        synchronized (this) {
+            Entry least = select();
+            if (least != null) {
+                least.references++;
+                return share(least);
+            }
+            opening++;
+        }
+        // opening a websocket connection waits for the connect and the auth round trip, other callers go on
+        Transport transport;
+        try {
+            transport = factory.create();
+        } catch (SQLException | RuntimeException e) {
+            synchronized (this) {
+                opening--;
+                notifyAll();
+            }
+            throw e;
+        }
+        synchronized (this) {
+            opening--;
+            notifyAll();
+            Entry entry = new Entry(transport);
+            entry.references++;
+            entries.add(entry);
+            return share(entry);
+        }
+    }
+
+    /**
+     * @return the least used websocket connection to share, null if a new one is to be opened by the caller.
+     * waits while all of the pool is being opened.
+     */
+    private Entry select() throws SQLException {
+        while (true) {
+            // broken connections are closed when the last transport of them is closed
+            entries.removeIf(e -> !e.transport.isConnected());
+
+            Entry least = null;
+            for (Entry entry : entries) {
+                if (least == null || entry.references < least.references) {
+                    least = entry;
+                }
+            }
+            boolean room = entries.size() + opening < size;
+            if (least != null && (least.references == 0 || !room))
+                return least;
+            if (room)
+                return null;
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_UNKNOWN, "acquire websocket connection has been interrupted");
+            }
+        }
+    }
+
+    private Transport share(Entry entry) {
+        return entry.transport.share(() -> release(entry), () -> detach(entry));
+    }
+
+    private synchronized void detach(Entry entry) {
+        entries.remove(entry);
+    }
+
+    private synchronized void release(Entry entry) {
+        if (--entry.references == 0) {
+            detach(entry);
+            entry.transport.shutdown();
+        }
+    }
+
+    private static class Entry {
+        private final Transport transport;
+        private int references;
+
+        Entry(Transport transport) {
+            this.transport = transport;
+        }
+    }
+}
@@ -9,16 +9,16 @@ import org.java_websocket.handshake.ServerHandshake;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.sql.SQLException;
 import java.util.HashMap;
-import java.util.concurrent.LinkedBlockingDeque;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 public class WSClient extends WebSocketClient implements AutoCloseable {
+    // reqId of a binary message follows its 8 bytes header
+    private static final int BINARY_REQ_ID_OFFSET = 8;
 
-    ThreadPoolExecutor executor;
+    private final DecodeExecutor executor;
 
     private Consumer<String> textMessageHandler;
     private Consumer<ByteBuffer> binaryMessageHandler;
@@ -35,18 +35,11 @@ public class WSClient extends WebSocketClient implements AutoCloseable {
      * create websocket connection client
      *
      * @param serverUri connection url
+     * @param executor  decode stage the messages are handled on
      */
-    public WSClient(URI serverUri) {
+    public WSClient(URI serverUri, DecodeExecutor executor) {
         super(serverUri, new HashMap<>());
-        executor = new ThreadPoolExecutor(1, 1,
-                0L, TimeUnit.MILLISECONDS,
-                new LinkedBlockingDeque<>(),
-                r -> {
-                    Thread t = new Thread(r);
-                    t.setName("parse-message-" + t.getId());
-                    return t;
-                },
-                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor = executor;
     }
 
     @Override
@@ -57,13 +50,16 @@ public class WSClient extends WebSocketClient implements AutoCloseable {
     @Override
     public void onMessage(String message) {
         if (!"".equals(message)) {
-            executor.submit(() -> textMessageHandler.accept(message));
+            executor.execute(DecodeExecutor.textReqId(message), () -> textMessageHandler.accept(message));
         }
     }
 
     @Override
     public void onMessage(ByteBuffer bytes) {
-        binaryMessageHandler.accept(bytes);
+        // the payload of each frame is a buffer of its own, so it is handed over to the decode stage as is
+        long reqId = bytes.limit() >= BINARY_REQ_ID_OFFSET + Long.BYTES
+                ? bytes.order(ByteOrder.LITTLE_ENDIAN).getLong(BINARY_REQ_ID_OFFSET) : 0L;
+        executor.execute(reqId, () -> binaryMessageHandler.accept(bytes));
     }
 
     @Override
@@ -111,6 +107,6 @@ public class WSClient extends WebSocketClient implements AutoCloseable {
         } catch (URISyntaxException e) {
             throw new SQLException("Websocket url parse error: " + loginUrl, e);
         }
-        return new WSClient(urlPath);
+        return new WSClient(urlPath, DecodeExecutor.getInstance(params.getDecodeThreads()));
     }
 }
@@ -1,7 +1,5 @@
 package com.taosdata.jdbc.ws;
 
-import com.alibaba.fastjson.JSON;
-import com.alibaba.fastjson.JSONObject;
 import com.taosdata.jdbc.AbstractConnection;
 import com.taosdata.jdbc.TSDBDriver;
 import com.taosdata.jdbc.TSDBError;
@@ -12,16 +10,17 @@ import com.taosdata.jdbc.rs.RestfulDatabaseMetaData;
 import com.taosdata.jdbc.utils.ReqId;
 import com.taosdata.jdbc.ws.entity.Code;
 import com.taosdata.jdbc.ws.entity.Request;
-import com.taosdata.jdbc.ws.entity.Response;
 import com.taosdata.jdbc.ws.stmt.entity.ConnReq;
 import com.taosdata.jdbc.ws.stmt.entity.ConnResp;
 import com.taosdata.jdbc.ws.stmt.entity.STMTAction;
 
 import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 public class WSConnection extends AbstractConnection {
@@ -32,6 +31,7 @@ public class WSConnection extends AbstractConnection {
 
     // prepare statement
     private Transport prepareTransport;
+    private final PreparedStmtCache stmtCache;
 
     CopyOnWriteArrayList<Statement> statementList = new CopyOnWriteArrayList<>();
 
@@ -40,6 +40,7 @@ public class WSConnection extends AbstractConnection {
         this.transport = transport;
         this.database = param.getDatabase();
         this.param = param;
+        this.stmtCache = new PreparedStmtCache(param.getPrepStmtCacheSize());
         this.metaData = new RestfulDatabaseMetaData(url, properties.getProperty(TSDBDriver.PROPERTY_KEY_USER), this);
     }
 
@@ -50,7 +51,7 @@ public class WSConnection extends AbstractConnection {
 
         if (this.getClientInfo(TSDBDriver.PROPERTY_KEY_DBNAME) != null)
             database = this.getClientInfo(TSDBDriver.PROPERTY_KEY_DBNAME);
-        WSStatement statement = new WSStatement(transport, database, this);
+        WSStatement statement = new WSStatement(transport, database, this, param.getPrefetchBlocks());
 
         statementList.add(statement);
         return statement;
@@ -65,26 +66,57 @@ public class WSConnection extends AbstractConnection {
             database = this.getClientInfo(TSDBDriver.PROPERTY_KEY_DBNAME);
 
         if (prepareTransport != null && !prepareTransport.isClosed()) {
-            return new TSWSPreparedStatement(transport, prepareTransport, param, database, this, sql);
+            return new TSWSPreparedStatement(transport, prepareTransport, param, database, this, sql, stmtCache);
         } else {
             synchronized (this) {
                 if (prepareTransport != null && !prepareTransport.isClosed()) {
-                    return new TSWSPreparedStatement(transport, prepareTransport, param, database, this, sql);
+                    return new TSWSPreparedStatement(transport, prepareTransport, param, database, this, sql, stmtCache);
                 } else {
                     this.prepareTransport = WSConnection.initPrepareTransport(param, database);
                 }
             }
         }
-        TSWSPreparedStatement preparedStatement = new TSWSPreparedStatement(transport, prepareTransport, param, database, this, sql);
+        TSWSPreparedStatement preparedStatement = new TSWSPreparedStatement(transport, prepareTransport, param, database, this, sql, stmtCache);
         statementList.add(preparedStatement);
         return preparedStatement;
     }
 
+    public CompletableFuture<ResultSet> executeQueryAsync(String sql) {
+        try {
+            return asyncStatement().executeQueryAsync(sql);
+        } catch (SQLException e) {
+            CompletableFuture<ResultSet> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+    }
+
+    public CompletableFuture<Integer> executeUpdateAsync(String sql) {
+        try {
+            return asyncStatement().executeUpdateAsync(sql);
+        } catch (SQLException e) {
+            CompletableFuture<Integer> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+    }
+
+    private WSStatement asyncStatement() throws SQLException {
+        if (isClosed())
+            throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_CONNECTION_CLOSED);
+
+        if (this.getClientInfo(TSDBDriver.PROPERTY_KEY_DBNAME) != null)
+            database = this.getClientInfo(TSDBDriver.PROPERTY_KEY_DBNAME);
+        // not kept in statementList, result sets of async queries are closed by the caller
+        return new WSStatement(transport, database, this, param.getPrefetchBlocks());
+    }
+
     @Override
     public void close() throws SQLException {
         for (Statement statement : statementList) {
             statement.close();
         }
+        stmtCache.clear();
         transport.close();
         if (prepareTransport != null) {
             prepareTransport.close();
@@ -105,17 +137,19 @@ public class WSConnection extends AbstractConnection {
     }
 
     public static Transport initPrepareTransport(ConnectionParam param, String db) throws SQLException {
+        if (param.getTransportPoolSize() > 0) {
+            return TransportPool.acquire(WSFunction.STMT, param, db, () -> openPrepareTransport(param, db));
+        }
+        return openPrepareTransport(param, db);
+    }
+
+    private static Transport openPrepareTransport(ConnectionParam param, String db) throws SQLException {
         InFlightRequest inFlightRequest = new InFlightRequest(param.getRequestTimeout(), param.getMaxRequest());
         Transport ts = new Transport(WSFunction.STMT, param, inFlightRequest);
 
-        ts.setTextMessageHandler(message -> {
-            JSONObject jsonObject = JSON.parseObject(message);
-            STMTAction action = STMTAction.of(jsonObject.getString("action"));
-            Response response = jsonObject.toJavaObject(action.getClazz());
-            FutureResponse remove = inFlightRequest.remove(response.getAction(), response.getReqId());
-            if (null != remove) {
-                remove.getFuture().complete(response);
-            }
+        ts.setTextResponseHandler(name -> {
+            STMTAction action = STMTAction.of(name);
+            return null == action ? null : action.getClazz();
         });
 
         Transport.checkConnection(ts, param.getConnectTimeout());
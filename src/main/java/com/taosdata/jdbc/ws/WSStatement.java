@@ -11,13 +11,23 @@ import com.taosdata.jdbc.ws.entity.*;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import static com.taosdata.jdbc.utils.SqlSyntaxValidator.getDatabaseName;
 
 public class WSStatement extends AbstractStatement {
+    // async futures are completed from here, not from the thread delivering the response, which
+    // a continuation reading the result set would block while the fetch response waits for it
+    private static final Executor ASYNC_EXECUTOR = ForkJoinPool.commonPool();
+
     private final Transport transport;
-    private String database;
+    // changed by "use", which may complete on the message handler of the transport
+    private volatile String database;
     private final Connection connection;
+    private final int prefetchBlocks;
 
     private boolean closed;
     private ResultSet resultSet;
@@ -25,9 +35,14 @@ public class WSStatement extends AbstractStatement {
     private int queryTimeout = 0;
 
     public WSStatement(Transport transport, String database, Connection connection) {
+        this(transport, database, connection, 0);
+    }
+
+    public WSStatement(Transport transport, String database, Connection connection, int prefetchBlocks) {
         this.transport = transport;
         this.database = database;
         this.connection = connection;
+        this.prefetchBlocks = prefetchBlocks;
     }
 
     @Override
@@ -84,22 +99,112 @@ public class WSStatement extends AbstractStatement {
         if (Code.SUCCESS.getCode() != queryResp.getCode()) {
             throw TSDBError.createSQLException(queryResp.getCode(), queryResp.getMessage());
         }
-        if (SqlSyntaxValidator.isUseSql(sql)) {
-            this.database = getDatabaseName(sql);
-            this.connection.setCatalog(this.database);
-            this.connection.setClientInfo(TSDBDriver.PROPERTY_KEY_DBNAME, this.database);
-        }
+        switchDatabase(sql);
         if (queryResp.isUpdate()) {
             this.resultSet = null;
             this.affectedRows = queryResp.getAffectedRows();
             return false;
         } else {
-            this.resultSet = new BlockResultSet(this, this.transport, queryResp, this.database);
+            this.resultSet = new BlockResultSet(this, this.transport, queryResp, this.database, prefetchBlocks);
             this.affectedRows = -1;
             return true;
         }
     }
 
+    private synchronized void switchDatabase(String sql) throws SQLException {
+        if (SqlSyntaxValidator.isUseSql(sql)) {
+            this.database = getDatabaseName(sql);
+            transport.sessionChanged();
+            this.connection.setCatalog(this.database);
+            this.connection.setClientInfo(TSDBDriver.PROPERTY_KEY_DBNAME, this.database);
+        }
+    }
+
+    public CompletableFuture<ResultSet> executeQueryAsync(String sql) {
+        return executeQueryAsync(sql, null);
+    }
+
+    /**
+     * execute a query asynchronously. the caller only blocks while maxConcurrentRequest requests are in
+     * flight. the future is completed on the common fork join pool, so the result set can be read in a
+     * continuation of the future. the result set is not managed by this statement and must be closed by the caller.
+     * the server side result is freed if the result set can't be created, or if the returned future is
+     * cancelled before it is completed.
+     */
+    public CompletableFuture<ResultSet> executeQueryAsync(String sql, Long reqId) {
+        CompletableFuture<ResultSet> future = new CompletableFuture<>();
+        executeAsync(sql, reqId).whenComplete((queryResp, throwable) -> {
+            if (throwable != null) {
+                future.completeExceptionally(throwable instanceof CompletionException && throwable.getCause() != null
+                        ? throwable.getCause() : throwable);
+                return;
+            }
+            if (queryResp.isUpdate()) {
+                future.completeExceptionally(TSDBError.createSQLException(TSDBErrorNumbers.ERROR_INVALID_WITH_EXECUTEQUERY));
+                return;
+            }
+            BlockResultSet resultSet;
+            try {
+                resultSet = new BlockResultSet(this, this.transport, queryResp, this.database, prefetchBlocks);
+            } catch (SQLException | RuntimeException e) {
+                transport.sendWithoutRep(RequestFactory.generateFreeResult(queryResp.getId()));
+                future.completeExceptionally(e);
+                return;
+            }
+            if (!future.complete(resultSet)) {
+                // cancelled by the caller, nobody will close the result set
+                try {
+                    resultSet.close();
+                } catch (SQLException e) {
+                    // ignore
+                }
+            }
+        });
+        return future;
+    }
+
+    public CompletableFuture<Integer> executeUpdateAsync(String sql) {
+        return executeUpdateAsync(sql, null);
+    }
+
+    /**
+     * execute an update asynchronously, the future is completed with the affected rows on the common
+     * fork join pool. the caller only blocks while maxConcurrentRequest requests are in flight.
+     */
+    public CompletableFuture<Integer> executeUpdateAsync(String sql, Long reqId) {
+        return executeAsync(sql, reqId).thenApply(queryResp -> {
+            if (!queryResp.isUpdate()) {
+                transport.sendWithoutRep(RequestFactory.generateFreeResult(queryResp.getId()));
+                throw new CompletionException(TSDBError.createSQLException(TSDBErrorNumbers.ERROR_INVALID_WITH_EXECUTEUPDATE));
+            }
+            return queryResp.getAffectedRows();
+        });
+    }
+
+    private CompletableFuture<QueryResp> executeAsync(String sql, Long reqId) {
+        CompletableFuture<QueryResp> future = new CompletableFuture<>();
+        if (closed) {
+            future.completeExceptionally(TSDBError.createSQLException(TSDBErrorNumbers.ERROR_STATEMENT_CLOSED));
+            return future;
+        }
+
+        if (null == reqId)
+            reqId = ReqId.getReqID();
+        Request request = RequestFactory.generateQuery(sql, reqId);
+        return transport.sendAsync(request).thenApplyAsync(response -> {
+            QueryResp queryResp = (QueryResp) response;
+            try {
+                if (Code.SUCCESS.getCode() != queryResp.getCode()) {
+                    throw TSDBError.createSQLException(queryResp.getCode(), queryResp.getMessage());
+                }
+                switchDatabase(sql);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+            return queryResp;
+        }, ASYNC_EXECUTOR);
+    }
+
     @Override
     public int getQueryTimeout() throws SQLException {
         return queryTimeout;
@@ -28,4 +28,11 @@ public class RequestFactory {
         fetchReq.setId(id);
         return new Request(Action.FETCH_BLOCK.getAction(), fetchReq);
     }
+
+    public static Request generateFreeResult(long id) {
+        FetchReq fetchReq = new FetchReq();
+        fetchReq.setReqId(id);
+        fetchReq.setId(id);
+        return new Request(Action.FREE_RESULT.getAction(), fetchReq);
+    }
 }
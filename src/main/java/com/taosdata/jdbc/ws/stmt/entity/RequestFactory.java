@@ -67,7 +67,7 @@ public class RequestFactory {
         CloseReq req = new CloseReq();
         req.setReqId(reqId);
         req.setStmtId(stmtId);
-        return new Request(STMTAction.EXEC.getAction(), req);
+        return new Request(STMTAction.CLOSE.getAction(), req);
     }
 
 }
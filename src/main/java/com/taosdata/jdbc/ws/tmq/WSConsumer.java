@@ -1,22 +1,16 @@
 package com.taosdata.jdbc.ws.tmq;
 
-import com.alibaba.fastjson.JSON;
-import com.alibaba.fastjson.JSONObject;
 import com.taosdata.jdbc.TSDBError;
 import com.taosdata.jdbc.TSDBErrorNumbers;
 import com.taosdata.jdbc.common.Consumer;
 import com.taosdata.jdbc.enums.WSFunction;
 import com.taosdata.jdbc.tmq.*;
-import com.taosdata.jdbc.ws.FutureResponse;
 import com.taosdata.jdbc.ws.InFlightRequest;
 import com.taosdata.jdbc.ws.Transport;
 import com.taosdata.jdbc.ws.entity.Code;
-import com.taosdata.jdbc.ws.entity.FetchBlockResp;
 import com.taosdata.jdbc.ws.entity.Request;
-import com.taosdata.jdbc.ws.entity.Response;
 import com.taosdata.jdbc.ws.tmq.entity.*;
 
-import java.nio.ByteOrder;
 import java.sql.SQLException;
 import java.time.Duration;
 import java.util.*;
@@ -37,27 +31,11 @@ public class WSConsumer<V> implements Consumer<V> {
                 , param.getConnectionParam().getMaxRequest());
         transport = new Transport(WSFunction.TMQ, param.getConnectionParam(), inFlightRequest);
 
-        transport.setTextMessageHandler(message -> {
-            JSONObject jsonObject = JSON.parseObject(message);
-            ConsumerAction action = ConsumerAction.of(jsonObject.getString("action"));
-            Response response = jsonObject.toJavaObject(action.getResponseClazz());
-            FutureResponse remove = inFlightRequest.remove(response.getAction(), response.getReqId());
-            if (null != remove) {
-                remove.getFuture().complete(response);
-            }
-        });
-        transport.setBinaryMessageHandler(byteBuffer -> {
-            byteBuffer.order(ByteOrder.LITTLE_ENDIAN);
-            byteBuffer.position(8);
-            // request_id
-            long id = byteBuffer.getLong();
-            byteBuffer.position(24);
-            FutureResponse remove = inFlightRequest.remove(ConsumerAction.FETCH_BLOCK.getAction(), id);
-            if (null != remove) {
-                FetchBlockResp fetchBlockResp = new FetchBlockResp(id, byteBuffer);
-                remove.getFuture().complete(fetchBlockResp);
-            }
+        transport.setTextResponseHandler(name -> {
+            ConsumerAction action = ConsumerAction.of(name);
+            return null == action ? null : action.getResponseClazz();
         });
+        transport.setFetchBlockHandler(ConsumerAction.FETCH_BLOCK.getAction(), 24);
 
         Transport.checkConnection(transport, param.getConnectionParam().getConnectTimeout());
     }
@@ -1216,6 +1216,42 @@ public class TSDBPreparedStatementTest {
 
     }
 
+    @Test
+    public void prepStmtCacheReusesNativeStmt() throws SQLException {
+        String url = SpecifyAddress.getInstance().getJniUrl();
+        if (url == null) {
+            url = "jdbc:TAOS://" + host + ":6030/?user=root&password=taosdata";
+        }
+        Properties properties = new Properties();
+        properties.setProperty(TSDBDriver.PROPERTY_KEY_PREP_STMT_CACHE_SIZE, "2");
+        long now = System.currentTimeMillis();
+        try (TSDBConnection connection = (TSDBConnection) DriverManager.getConnection(url, properties);
+             Statement stmt = connection.createStatement()) {
+            stmt.execute("use " + dbname);
+            stmt.execute("drop table if exists cache_test");
+            stmt.execute("create table cache_test(ts timestamp, f1 int)");
+            for (int round = 0; round < 3; round++) {
+                try (TSDBPreparedStatement s = (TSDBPreparedStatement) connection.prepareStatement("insert into ? values(?, ?)")) {
+                    s.setTableName("cache_test");
+                    ArrayList<Long> ts = new ArrayList<>();
+                    ts.add(now + round);
+                    s.setTimestamp(0, ts);
+                    ArrayList<Integer> f1 = new ArrayList<>();
+                    f1.add(round);
+                    s.setInt(1, f1);
+                    s.columnDataAddBatch();
+                    s.columnDataExecuteBatch();
+                }
+            }
+            Assert.assertEquals(1, connection.getPrepStmtCacheMisses());
+            Assert.assertEquals(2, connection.getPrepStmtCacheHits());
+
+            ResultSet rs = stmt.executeQuery("select count(*) from cache_test");
+            rs.next();
+            Assert.assertEquals(3, rs.getLong(1));
+        }
+    }
+
     @BeforeClass
     public static void beforeClass() {
         try {
@@ -0,0 +1,81 @@
+package com.taosdata.jdbc.common;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import static com.taosdata.jdbc.TSDBConstants.*;
+
+public class BlockDataTest {
+
+    private static final int[] TYPES = {TSDB_DATA_TYPE_TIMESTAMP, TSDB_DATA_TYPE_INT, TSDB_DATA_TYPE_DOUBLE,
+            TSDB_DATA_TYPE_BINARY, TSDB_DATA_TYPE_NCHAR};
+
+    @Test
+    public void parse() {
+        // given
+        ByteBuffer buffer = rawBlock(16);
+
+        // when
+        BlockData block = BlockData.parse(buffer, TYPES, 3);
+
+        // then
+        Assert.assertEquals(3, block.getNumOfRows());
+        Assert.assertEquals(5, block.getNumOfCols());
+
+        Assert.assertEquals(1000L, block.getLong(0, 0));
+        Assert.assertEquals(3000L, block.getLong(0, 2));
+
+        Assert.assertEquals(1, block.getInt(1, 0));
+        Assert.assertTrue(block.isNull(1, 1));
+        Assert.assertEquals(3, block.getInt(1, 2));
+
+        Assert.assertEquals(1.5, block.getDouble(2, 0), 0);
+        Assert.assertEquals(3.5, block.getDouble(2, 2), 0);
+
+        Assert.assertEquals("ab", block.getString(3, 0, StandardCharsets.UTF_8));
+        Assert.assertArrayEquals("ab".getBytes(StandardCharsets.UTF_8), block.getBytes(3, 0));
+        Assert.assertFalse(block.isNull(3, 1));
+        Assert.assertEquals("", block.getString(3, 1, StandardCharsets.UTF_8));
+        Assert.assertTrue(block.isNull(3, 2));
+
+        Assert.assertTrue(block.isNull(4, 0));
+        Assert.assertEquals("中", block.getNString(4, 1));
+        Assert.assertEquals("xy", block.getNString(4, 2));
+    }
+
+    /**
+     * build a raw block of 3 rows, prefixed by {@code prefix} bytes like a websocket fetch_block message
+     */
+    private static ByteBuffer rawBlock(int prefix) {
+        ByteBuffer buffer = ByteBuffer.allocate(512).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(prefix + 28 + TYPES.length * 5);
+        // column lengths
+        buffer.putInt(24).putInt(12).putInt(24).putInt(4 + 2).putInt(6 + 10);
+
+        // timestamp
+        buffer.put((byte) 0);
+        buffer.putLong(1000L).putLong(2000L).putLong(3000L);
+        // int, second row is null
+        buffer.put((byte) 0x40);
+        buffer.putInt(1).putInt(0).putInt(3);
+        // double
+        buffer.put((byte) 0);
+        buffer.putDouble(1.5).putDouble(2.5).putDouble(3.5);
+        // binary, third row is null
+        buffer.putInt(0).putInt(4).putInt(-1);
+        buffer.putShort((short) 2).put("ab".getBytes(StandardCharsets.UTF_8));
+        buffer.putShort((short) 0);
+        // nchar, first row is null
+        buffer.putInt(-1).putInt(0).putInt(6);
+        buffer.putShort((short) 4).putInt("中".codePointAt(0));
+        buffer.putShort((short) 8).putInt('x').putInt('y');
+
+        buffer.flip();
+        buffer.position(prefix);
+        return buffer;
+    }
+}
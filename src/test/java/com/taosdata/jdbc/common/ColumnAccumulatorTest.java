@@ -0,0 +1,79 @@
+package com.taosdata.jdbc.common;
+
+import com.taosdata.jdbc.enums.TimestampPrecision;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.taosdata.jdbc.TSDBConstants.*;
+
+public class ColumnAccumulatorTest {
+
+    private static final int[] TYPES = {TSDB_DATA_TYPE_TIMESTAMP, TSDB_DATA_TYPE_BOOL, TSDB_DATA_TYPE_TINYINT,
+            TSDB_DATA_TYPE_SMALLINT, TSDB_DATA_TYPE_INT, TSDB_DATA_TYPE_BIGINT, TSDB_DATA_TYPE_FLOAT,
+            TSDB_DATA_TYPE_DOUBLE, TSDB_DATA_TYPE_BINARY, TSDB_DATA_TYPE_NCHAR, TSDB_DATA_TYPE_JSON};
+
+    @Test
+    public void sameBlockAsBoxedColumns() throws Exception {
+        for (int precision : new int[]{TimestampPrecision.MS, TimestampPrecision.US, TimestampPrecision.NS}) {
+            for (int rows : new int[]{1, 8, 9, 100}) {
+                // given
+                List<ColumnInfo> boxed = new ArrayList<>();
+                List<ColumnAccumulator> accumulated = new ArrayList<>();
+                for (int col = 0; col < TYPES.length; col++) {
+                    List<Object> values = new ArrayList<>();
+                    ColumnAccumulator accumulator = new ColumnAccumulator(col, TYPES[col], precision);
+                    for (int row = 0; row < rows; row++) {
+                        Object value = (row + col) % 3 == 0 ? null : value(TYPES[col], row);
+                        values.add(value);
+                        accumulator.add(value);
+                    }
+                    boxed.add(new ColumnInfo(col, values, TYPES[col], null));
+                    accumulated.add(accumulator);
+                }
+
+                // when
+                byte[] raw = SerializeBlock.getRawBlock(accumulated, precision);
+
+                // then
+                Assert.assertEquals(SerializeBlock.getRawBlockLength(accumulated), raw.length);
+                Assert.assertArrayEquals(SerializeBlock.getRawBlock(boxed, precision), raw);
+                Assert.assertEquals(rows, accumulated.get(0).getRows());
+                Assert.assertTrue(accumulated.get(0).isNull(0));
+                Assert.assertFalse(accumulated.get(1).isNull(0));
+            }
+        }
+    }
+
+    private static Object value(int type, int row) {
+        switch (type) {
+            case TSDB_DATA_TYPE_TIMESTAMP: {
+                Timestamp ts = new Timestamp(1_600_000_000_000L + row);
+                ts.setNanos(123_456_789);
+                return ts;
+            }
+            case TSDB_DATA_TYPE_BOOL:
+                return row % 2 == 0;
+            case TSDB_DATA_TYPE_TINYINT:
+                return (byte) row;
+            case TSDB_DATA_TYPE_SMALLINT:
+                return (short) -row;
+            case TSDB_DATA_TYPE_INT:
+                return row * 1000;
+            case TSDB_DATA_TYPE_BIGINT:
+                return Long.MAX_VALUE - row;
+            case TSDB_DATA_TYPE_FLOAT:
+                return row * 0.5f;
+            case TSDB_DATA_TYPE_DOUBLE:
+                return row * 0.25;
+            case TSDB_DATA_TYPE_NCHAR:
+                return "中" + row;
+            default:
+                return ("v" + row).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
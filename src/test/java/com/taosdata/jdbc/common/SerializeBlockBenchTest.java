@@ -0,0 +1,75 @@
+package com.taosdata.jdbc.common;
+
+import com.taosdata.jdbc.enums.TimestampPrecision;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.taosdata.jdbc.TSDBConstants.*;
+
+/**
+ * time to accumulate and serialize the rows of a stmt batch, with boxed columns and with accumulators
+ */
+@Ignore
+public class SerializeBlockBenchTest {
+    private static final int[] TYPES = {TSDB_DATA_TYPE_TIMESTAMP, TSDB_DATA_TYPE_INT, TSDB_DATA_TYPE_BIGINT,
+            TSDB_DATA_TYPE_FLOAT, TSDB_DATA_TYPE_DOUBLE, TSDB_DATA_TYPE_BOOL, TSDB_DATA_TYPE_BINARY};
+    private static final int ROWS = 100_000;
+    private static final int LOOPS = 20;
+
+    @Test
+    public void boxed() throws Exception {
+        Object[][] rows = rows();
+        long cost = 0;
+        for (int loop = 0; loop < LOOPS; loop++) {
+            long start = System.nanoTime();
+            List<ColumnInfo> columns = new ArrayList<>();
+            for (int col = 0; col < TYPES.length; col++) {
+                columns.add(new ColumnInfo(col, new ArrayList<>(), TYPES[col], null));
+            }
+            for (Object[] row : rows) {
+                for (int col = 0; col < TYPES.length; col++) {
+                    columns.get(col).add(row[col]);
+                }
+            }
+            SerializeBlock.getRawBlock(columns, TimestampPrecision.MS);
+            cost += System.nanoTime() - start;
+        }
+        System.out.println("boxed columns: " + cost / LOOPS / 1000 + " us per " + ROWS + " rows");
+    }
+
+    @Test
+    public void accumulated() throws Exception {
+        Object[][] rows = rows();
+        long cost = 0;
+        for (int loop = 0; loop < LOOPS; loop++) {
+            long start = System.nanoTime();
+            List<ColumnAccumulator> columns = new ArrayList<>();
+            for (int col = 0; col < TYPES.length; col++) {
+                columns.add(new ColumnAccumulator(col, TYPES[col], TimestampPrecision.MS));
+            }
+            for (Object[] row : rows) {
+                for (int col = 0; col < TYPES.length; col++) {
+                    columns.get(col).add(row[col]);
+                }
+            }
+            SerializeBlock.getRawBlock(columns, TimestampPrecision.MS);
+            cost += System.nanoTime() - start;
+        }
+        System.out.println("accumulated columns: " + cost / LOOPS / 1000 + " us per " + ROWS + " rows");
+    }
+
+    private static Object[][] rows() {
+        Object[][] rows = new Object[ROWS][];
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < ROWS; i++) {
+            rows[i] = new Object[]{new Timestamp(now + i), i, (long) i, i * 1.5f, i * 2.5, i % 2 == 0,
+                    ("binary" + i % 100).getBytes(StandardCharsets.UTF_8)};
+        }
+        return rows;
+    }
+}
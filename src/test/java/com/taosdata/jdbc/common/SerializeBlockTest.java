@@ -0,0 +1,97 @@
+package com.taosdata.jdbc.common;
+
+import com.taosdata.jdbc.enums.TimestampPrecision;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import static com.taosdata.jdbc.TSDBConstants.*;
+
+public class SerializeBlockTest {
+
+    @Test
+    public void rawBlockCanBeParsed() throws Exception {
+        // given
+        List<ColumnInfo> columns = columns();
+
+        // when
+        byte[] raw = SerializeBlock.getRawBlock(columns, TimestampPrecision.MS);
+
+        // then
+        Assert.assertEquals(SerializeBlock.getRawBlockLength(columns), raw.length);
+        ByteBuffer buffer = ByteBuffer.wrap(raw).order(ByteOrder.LITTLE_ENDIAN);
+        Assert.assertEquals(raw.length, buffer.getInt(4));
+        BlockData block = BlockData.parse(buffer,
+                new int[]{TSDB_DATA_TYPE_TIMESTAMP, TSDB_DATA_TYPE_INT, TSDB_DATA_TYPE_BINARY, TSDB_DATA_TYPE_NCHAR}, 3);
+
+        Assert.assertEquals(1000L, block.getLong(0, 0));
+        Assert.assertEquals(3000L, block.getLong(0, 2));
+        Assert.assertEquals(1, block.getInt(1, 0));
+        Assert.assertTrue(block.isNull(1, 1));
+        Assert.assertEquals(3, block.getInt(1, 2));
+        Assert.assertEquals("ab", block.getString(2, 0, StandardCharsets.UTF_8));
+        Assert.assertTrue(block.isNull(2, 2));
+        Assert.assertTrue(block.isNull(3, 0));
+        Assert.assertEquals("中", block.getNString(3, 1));
+        Assert.assertEquals("x😀", block.getNString(3, 2));
+    }
+
+    @Test
+    public void writeIntoReusedBuffer() throws Exception {
+        // given
+        List<ColumnInfo> columns = columns();
+        byte[] expected = SerializeBlock.getRawBlock(columns, TimestampPrecision.MS);
+        ByteBuffer buffer = ByteBuffer.allocate(24 + expected.length).order(ByteOrder.LITTLE_ENDIAN);
+        Arrays.fill(buffer.array(), (byte) 0x5A);
+        buffer.position(24);
+
+        // when
+        SerializeBlock.writeRawBlock(buffer, columns, TimestampPrecision.MS);
+
+        // then
+        Assert.assertFalse(buffer.hasRemaining());
+        Assert.assertArrayEquals(expected, Arrays.copyOfRange(buffer.array(), 24, buffer.capacity()));
+    }
+
+    @Test
+    public void arrayColumnsSameAsBoxed() throws Exception {
+        // given
+        BitSet nulls = new BitSet();
+        nulls.set(1);
+        List<ColumnInfo> arrays = new ArrayList<>();
+        arrays.add(new ColumnInfo(0, new long[]{1000L, 2000L, 3000L}, 3, null, TSDB_DATA_TYPE_TIMESTAMP));
+        arrays.add(new ColumnInfo(1, new int[]{1, 0, 3}, 3, nulls, TSDB_DATA_TYPE_INT));
+        arrays.add(new ColumnInfo(2, new byte[][]{"ab".getBytes(StandardCharsets.UTF_8), new byte[0], null}, 3, null,
+                TSDB_DATA_TYPE_BINARY));
+        arrays.add(new ColumnInfo(3, new String[]{null, "中", "x😀"}, 3, null, TSDB_DATA_TYPE_NCHAR));
+
+        // when
+        byte[] raw = SerializeBlock.getRawBlock(arrays, TimestampPrecision.MS);
+
+        // then
+        Assert.assertArrayEquals(SerializeBlock.getRawBlock(columns(), TimestampPrecision.MS), raw);
+    }
+
+    private static List<ColumnInfo> columns() {
+        List<ColumnInfo> columns = new ArrayList<>();
+        columns.add(new ColumnInfo(0, list(new Timestamp(1000L), new Timestamp(2000L), new Timestamp(3000L)),
+                TSDB_DATA_TYPE_TIMESTAMP, null));
+        columns.add(new ColumnInfo(1, list(1, null, 3), TSDB_DATA_TYPE_INT, null));
+        columns.add(new ColumnInfo(2, list("ab".getBytes(StandardCharsets.UTF_8), new byte[0], null),
+                TSDB_DATA_TYPE_BINARY, null));
+        columns.add(new ColumnInfo(3, list(null, "中", "x😀"), TSDB_DATA_TYPE_NCHAR, null));
+        return columns;
+    }
+
+    private static List<Object> list(Object... values) {
+        return new ArrayList<>(Arrays.asList(values));
+    }
+}
@@ -0,0 +1,332 @@
+package com.taosdata.jdbc.common;
+
+import com.google.common.primitives.Ints;
+import com.google.common.primitives.Longs;
+import com.google.common.primitives.Shorts;
+import com.taosdata.jdbc.ColumnMetaData;
+import com.taosdata.jdbc.TSDBErrorNumbers;
+import com.taosdata.jdbc.TSDBResultSetBlockData;
+import com.taosdata.jdbc.enums.TimestampPrecision;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLDataException;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.taosdata.jdbc.TSDBConstants.*;
+
+public class TSDBResultSetBlockDataTest {
+
+    private static final int[] TYPES = {TSDB_DATA_TYPE_BOOL, TSDB_DATA_TYPE_TINYINT, TSDB_DATA_TYPE_UTINYINT,
+            TSDB_DATA_TYPE_SMALLINT, TSDB_DATA_TYPE_USMALLINT, TSDB_DATA_TYPE_INT, TSDB_DATA_TYPE_UINT,
+            TSDB_DATA_TYPE_BIGINT, TSDB_DATA_TYPE_UBIGINT, TSDB_DATA_TYPE_FLOAT, TSDB_DATA_TYPE_DOUBLE,
+            TSDB_DATA_TYPE_TIMESTAMP, TSDB_DATA_TYPE_BINARY, TSDB_DATA_TYPE_NCHAR, TSDB_DATA_TYPE_JSON};
+
+    private static final int BOOL = 0, TINYINT = 1, UTINYINT = 2, SMALLINT = 3, USMALLINT = 4, INT = 5, UINT = 6,
+            BIGINT = 7, UBIGINT = 8, FLOAT = 9, DOUBLE = 10, TIMESTAMP = 11, BINARY = 12, NCHAR = 13, JSON = 14;
+
+    @Test
+    public void signedValues() throws SQLException {
+        // given
+        TSDBResultSetBlockData data = block(TimestampPrecision.MS, TYPES,
+                new Object[]{(byte) 1, (byte) -2, (byte) 3, (short) -4, (short) 5, -6, 7, -8L, 9L, 1.1f, -2.5d,
+                        1626006833639L, "12", "中文", "{\"a\":1}"});
+
+        // then
+        Assert.assertTrue(data.getBoolean(BOOL));
+        Assert.assertEquals(1, data.getInt(BOOL));
+        Assert.assertEquals(1L, data.getLong(BOOL));
+        Assert.assertEquals(1, data.getDouble(BOOL), 0);
+        Assert.assertEquals(Boolean.TRUE, data.get(BOOL));
+        Assert.assertEquals("true", data.getString(BOOL));
+        Assert.assertArrayEquals("true".getBytes(), data.getBytes(BOOL));
+
+        Assert.assertEquals(-2, data.getInt(TINYINT));
+        Assert.assertEquals(-2L, data.getLong(TINYINT));
+        Assert.assertEquals(-2, data.getDouble(TINYINT), 0);
+        Assert.assertTrue(data.getBoolean(TINYINT));
+        Assert.assertEquals((byte) -2, data.get(TINYINT));
+        Assert.assertEquals("-2", data.getString(TINYINT));
+        Assert.assertArrayEquals(new byte[]{-2}, data.getBytes(TINYINT));
+
+        Assert.assertEquals(-4, data.getInt(SMALLINT));
+        Assert.assertEquals(-4L, data.getLong(SMALLINT));
+        Assert.assertEquals((short) -4, data.get(SMALLINT));
+        Assert.assertArrayEquals(Shorts.toByteArray((short) -4), data.getBytes(SMALLINT));
+
+        Assert.assertEquals(-6, data.getInt(INT));
+        Assert.assertEquals(-6L, data.getLong(INT));
+        Assert.assertEquals(-6, data.getDouble(INT), 0);
+        Assert.assertEquals(-6, data.get(INT));
+        Assert.assertEquals("-6", data.getString(INT));
+        Assert.assertArrayEquals(Ints.toByteArray(-6), data.getBytes(INT));
+
+        Assert.assertEquals(-8, data.getInt(BIGINT));
+        Assert.assertEquals(-8L, data.getLong(BIGINT));
+        Assert.assertEquals(-8L, data.get(BIGINT));
+        Assert.assertArrayEquals(Longs.toByteArray(-8L), data.getBytes(BIGINT));
+        // bigint read as a timestamp is in the precision of the database
+        Assert.assertEquals(new Timestamp(-8L), data.getTimestamp(BIGINT));
+
+        // float is widened through its decimal string, not its binary value
+        Assert.assertEquals(1.1d, data.getDouble(FLOAT), 0);
+        Assert.assertEquals(1L, data.getLong(FLOAT));
+        Assert.assertEquals(1.1f, data.get(FLOAT));
+        Assert.assertEquals("1.1", data.getString(FLOAT));
+        Assert.assertTrue(data.getBoolean(FLOAT));
+
+        Assert.assertEquals(-2.5d, data.getDouble(DOUBLE), 0);
+        Assert.assertEquals(-2, data.getInt(DOUBLE));
+        Assert.assertEquals(-2L, data.getLong(DOUBLE));
+        Assert.assertEquals(-2.5d, data.get(DOUBLE));
+        Assert.assertEquals("-2.5", data.getString(DOUBLE));
+
+        Assert.assertEquals(new Timestamp(1626006833639L), data.getTimestamp(TIMESTAMP));
+        Assert.assertEquals(new Timestamp(1626006833639L), data.get(TIMESTAMP));
+        Assert.assertEquals(1626006833639L, data.getLong(TIMESTAMP));
+        Assert.assertEquals(1626006833639d, data.getDouble(TIMESTAMP), 0);
+        Assert.assertEquals((int) 1626006833639L, data.getInt(TIMESTAMP));
+        Assert.assertArrayEquals(new Timestamp(1626006833639L).toString().getBytes(), data.getBytes(TIMESTAMP));
+
+        Assert.assertEquals("12", data.getString(BINARY));
+        Assert.assertArrayEquals("12".getBytes(StandardCharsets.UTF_8), data.getBytes(BINARY));
+        Assert.assertArrayEquals("12".getBytes(StandardCharsets.UTF_8), (byte[]) data.get(BINARY));
+        Assert.assertEquals(12, data.getInt(BINARY));
+        Assert.assertEquals(12L, data.getLong(BINARY));
+        Assert.assertEquals(12d, data.getDouble(BINARY), 0);
+        Assert.assertFalse(data.getBoolean(BINARY));
+
+        Assert.assertEquals("中文", data.getString(NCHAR));
+        Assert.assertEquals("中文", data.get(NCHAR));
+        Assert.assertArrayEquals("中文".getBytes(), data.getBytes(NCHAR));
+        try {
+            data.getBoolean(NCHAR);
+            Assert.fail("nchar that is neither true nor false");
+        } catch (SQLDataException e) {
+            // expected
+        }
+
+        Assert.assertEquals("{\"a\":1}", data.getString(JSON));
+        Assert.assertArrayEquals("{\"a\":1}".getBytes(StandardCharsets.UTF_8), (byte[]) data.get(JSON));
+        Assert.assertFalse(data.wasNull);
+    }
+
+    @Test
+    public void unsignedValuesAreWidened() throws SQLException {
+        // given, all bits set
+        TSDBResultSetBlockData data = block(TimestampPrecision.MS, TYPES,
+                new Object[]{(byte) 0, (byte) 0, (byte) -1, (short) 0, (short) -1, 0, -1, 0L, -1L, 0f, 0d,
+                        0L, "true", "FALSE", "TRUE"});
+
+        // then
+        Assert.assertEquals((short) 255, data.get(UTINYINT));
+        Assert.assertEquals(255, data.getInt(UTINYINT));
+        Assert.assertEquals(255L, data.getLong(UTINYINT));
+        Assert.assertEquals(255, data.getDouble(UTINYINT), 0);
+        Assert.assertEquals("255", data.getString(UTINYINT));
+        Assert.assertArrayEquals(Shorts.toByteArray((short) 255), data.getBytes(UTINYINT));
+        Assert.assertTrue(data.getBoolean(UTINYINT));
+
+        Assert.assertEquals(65535, data.get(USMALLINT));
+        Assert.assertEquals(65535, data.getInt(USMALLINT));
+        Assert.assertEquals(65535L, data.getLong(USMALLINT));
+        Assert.assertEquals(65535, data.getDouble(USMALLINT), 0);
+        Assert.assertArrayEquals(Ints.toByteArray(65535), data.getBytes(USMALLINT));
+
+        Assert.assertEquals(4294967295L, data.get(UINT));
+        Assert.assertEquals(4294967295L, data.getLong(UINT));
+        Assert.assertEquals(4294967295d, data.getDouble(UINT), 0);
+        Assert.assertEquals((int) 4294967295L, data.getInt(UINT));
+        Assert.assertEquals("4294967295", data.getString(UINT));
+        Assert.assertArrayEquals(Longs.toByteArray(4294967295L), data.getBytes(UINT));
+
+        Assert.assertEquals(new BigDecimal("18446744073709551615"), data.get(UBIGINT));
+        Assert.assertEquals("18446744073709551615", data.getString(UBIGINT));
+        Assert.assertTrue(data.getBoolean(UBIGINT));
+        assertOutOfRange(() -> data.getLong(UBIGINT));
+        assertOutOfRange(() -> data.getInt(UBIGINT));
+
+        Assert.assertFalse(data.getBoolean(BOOL));
+        Assert.assertEquals(Boolean.FALSE, data.get(BOOL));
+        Assert.assertFalse(data.getBoolean(TINYINT));
+        Assert.assertFalse(data.getBoolean(FLOAT));
+        Assert.assertFalse(data.getBoolean(DOUBLE));
+        Assert.assertFalse(data.getBoolean(TIMESTAMP));
+        Assert.assertTrue(data.getBoolean(BINARY));
+        Assert.assertFalse(data.getBoolean(NCHAR));
+        Assert.assertTrue(data.getBoolean(JSON));
+    }
+
+    @Test
+    public void nullValues() throws SQLException {
+        // given, the first row has values, the second row is null in every column
+        TSDBResultSetBlockData data = block(TimestampPrecision.MS, TYPES,
+                new Object[]{(byte) 1, (byte) 1, (byte) 1, (short) 1, (short) 1, 1, 1, 1L, 1L, 1f, 1d, 1L, "1", "1", "1"},
+                new Object[TYPES.length]);
+
+        // when
+        Assert.assertTrue(data.forward());
+
+        // then
+        for (int col = 0; col < TYPES.length; col++) {
+            Assert.assertNull(data.get(col));
+            Assert.assertTrue(data.wasNull);
+            Assert.assertNull(data.getString(col));
+            Assert.assertNull(data.getBytes(col));
+            Assert.assertNull(data.getTimestamp(col));
+            Assert.assertEquals(0, data.getInt(col));
+            Assert.assertEquals(0L, data.getLong(col));
+            Assert.assertEquals(0d, data.getDouble(col), 0);
+            Assert.assertFalse(data.getBoolean(col));
+            Assert.assertTrue(data.wasNull);
+        }
+
+        // wasNull is reset by the next value read
+        data.reset();
+        data.getInt(INT);
+        Assert.assertFalse(data.wasNull);
+    }
+
+    @Test
+    public void timestampPrecision() throws SQLException {
+        int[] types = {TSDB_DATA_TYPE_TIMESTAMP, TSDB_DATA_TYPE_BIGINT};
+        Instant instant = Instant.ofEpochSecond(1626006833L, 639_123_456L);
+
+        TSDBResultSetBlockData us = block(TimestampPrecision.US, types,
+                new Object[]{1626006833639123L, 1626006833639123L});
+        Timestamp microseconds = Timestamp.from(Instant.ofEpochSecond(1626006833L, 639_123_000L));
+        Assert.assertEquals(microseconds, us.getTimestamp(0));
+        Assert.assertEquals(microseconds, us.get(0));
+        Assert.assertEquals(1626006833639123L, us.getLong(0));
+        Assert.assertEquals(1626006833639123d, us.getDouble(0), 0);
+        Assert.assertEquals((int) 1626006833639L, us.getInt(0));
+        Assert.assertEquals(microseconds, us.getTimestamp(1));
+
+        TSDBResultSetBlockData ns = block(TimestampPrecision.NS, types,
+                new Object[]{1626006833639123456L, 1626006833639123456L});
+        Assert.assertEquals(Timestamp.from(instant), ns.getTimestamp(0));
+        Assert.assertEquals(639_123_456, ns.getTimestamp(0).getNanos());
+        Assert.assertEquals(1626006833639123456L, ns.getLong(0));
+        Assert.assertEquals((int) 1626006833639L, ns.getInt(0));
+        Assert.assertEquals(Timestamp.from(instant), ns.getTimestamp(1));
+    }
+
+    private interface Getter {
+        void get() throws SQLException;
+    }
+
+    private static void assertOutOfRange(Getter getter) {
+        try {
+            getter.get();
+            Assert.fail("value is out of range");
+        } catch (SQLException e) {
+            Assert.assertEquals(TSDBErrorNumbers.ERROR_NUMERIC_VALUE_OUT_OF_RANGE, e.getErrorCode());
+        }
+    }
+
+    /**
+     * build a block of the rows, as returned by JNI, and load it. a null value is a null cell.
+     */
+    private static TSDBResultSetBlockData block(int precision, int[] types, Object[]... rows) {
+        List<ColumnMetaData> meta = new ArrayList<>();
+        for (int i = 0; i < types.length; i++) {
+            ColumnMetaData column = new ColumnMetaData();
+            column.setColIndex(i + 1);
+            column.setColType(types[i]);
+            meta.add(column);
+        }
+        TSDBResultSetBlockData data = new TSDBResultSetBlockData(meta, types.length, precision);
+        data.setNumOfRows(rows.length);
+        data.setByteArray(rawBlock(types, rows));
+        return data;
+    }
+
+    private static byte[] rawBlock(int[] types, Object[][] rows) {
+        ByteBuffer columns = ByteBuffer.allocate(4096).order(ByteOrder.LITTLE_ENDIAN);
+        int[] lengths = new int[types.length];
+        for (int col = 0; col < types.length; col++) {
+            int start = columns.position();
+            if (types[col] == TSDB_DATA_TYPE_BINARY || types[col] == TSDB_DATA_TYPE_JSON
+                    || types[col] == TSDB_DATA_TYPE_NCHAR) {
+                ByteBuffer values = ByteBuffer.allocate(1024).order(ByteOrder.LITTLE_ENDIAN);
+                for (Object[] row : rows) {
+                    if (row[col] == null) {
+                        columns.putInt(-1);
+                        continue;
+                    }
+                    columns.putInt(values.position());
+                    String value = (String) row[col];
+                    if (types[col] == TSDB_DATA_TYPE_NCHAR) {
+                        int[] codePoints = value.codePoints().toArray();
+                        values.putShort((short) (codePoints.length * 4));
+                        for (int codePoint : codePoints) {
+                            values.putInt(codePoint);
+                        }
+                    } else {
+                        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                        values.putShort((short) bytes.length).put(bytes);
+                    }
+                }
+                lengths[col] = values.position();
+                columns.put(values.array(), 0, values.position());
+            } else {
+                byte[] bitmap = new byte[(rows.length + 7) >> 3];
+                for (int row = 0; row < rows.length; row++) {
+                    if (rows[row][col] == null)
+                        bitmap[row >> 3] |= (byte) (1 << (7 - (row & 7)));
+                }
+                columns.put(bitmap);
+                int valuesStart = columns.position();
+                for (Object[] row : rows) {
+                    putFixed(columns, types[col], row[col]);
+                }
+                lengths[col] = columns.position() - valuesStart;
+            }
+        }
+        columns.flip();
+
+        // 28 bytes block header, 5 bytes schema per column, then the length of each column
+        ByteBuffer block = ByteBuffer.allocate(28 + types.length * 9 + columns.limit()).order(ByteOrder.LITTLE_ENDIAN);
+        block.position(28 + types.length * 5);
+        for (int length : lengths) {
+            block.putInt(length);
+        }
+        block.put(columns);
+        return block.array();
+    }
+
+    private static void putFixed(ByteBuffer buffer, int type, Object value) {
+        switch (type) {
+            case TSDB_DATA_TYPE_BOOL:
+            case TSDB_DATA_TYPE_TINYINT:
+            case TSDB_DATA_TYPE_UTINYINT:
+                buffer.put(value == null ? 0 : (byte) value);
+                break;
+            case TSDB_DATA_TYPE_SMALLINT:
+            case TSDB_DATA_TYPE_USMALLINT:
+                buffer.putShort(value == null ? 0 : (short) value);
+                break;
+            case TSDB_DATA_TYPE_INT:
+            case TSDB_DATA_TYPE_UINT:
+                buffer.putInt(value == null ? 0 : (int) value);
+                break;
+            case TSDB_DATA_TYPE_FLOAT:
+                buffer.putFloat(value == null ? 0 : (float) value);
+                break;
+            case TSDB_DATA_TYPE_DOUBLE:
+                buffer.putDouble(value == null ? 0 : (double) value);
+                break;
+            default:
+                buffer.putLong(value == null ? 0 : (long) value);
+                break;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.taosdata.jdbc.rs;
+
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONReader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class RestfulResultSetStreamTest {
+
+    private static final String RESPONSE = "{\"code\":0,"
+            + "\"column_meta\":[[\"ts\",\"TIMESTAMP\",8],[\"c1\",\"INT\",4],[\"c2\",\"VARCHAR\",10]],"
+            + "\"data\":[[\"2021-01-01T00:00:00.000Z\",1,\"a\"],[\"2021-01-01T00:00:01.000Z\",null,\"b\"],"
+            + "[\"2021-01-01T00:00:02.000Z\",3,null]],"
+            + "\"rows\":3}";
+
+    private static RestfulResultSet resultSet(String response, RestfulStatement statement) throws SQLException {
+        JSONReader reader = new JSONReader(new StringReader(response));
+        reader.startObject();
+        Assert.assertEquals("code", reader.readString());
+        Assert.assertEquals(Integer.valueOf(0), reader.readInteger());
+        Assert.assertEquals("column_meta", reader.readString());
+        JSONArray head = reader.readObject(JSONArray.class);
+        Assert.assertEquals("data", reader.readString());
+        return new RestfulResultSet("test", statement, head, reader);
+    }
+
+    @Test
+    public void rowsAreReadFromTheStream() throws SQLException {
+        ResultSet rs = resultSet(RESPONSE, null);
+
+        Assert.assertTrue(rs.isBeforeFirst());
+        Assert.assertTrue(rs.next());
+        Assert.assertEquals(1, rs.getInt("c1"));
+        Assert.assertEquals("a", rs.getString(3));
+        Assert.assertTrue(rs.next());
+        Assert.assertEquals(0, rs.getInt(2));
+        Assert.assertTrue(rs.wasNull());
+        Assert.assertTrue(rs.next());
+        Assert.assertTrue(rs.isLast());
+        Assert.assertNull(rs.getString(3));
+        Assert.assertFalse(rs.next());
+        Assert.assertTrue(rs.isAfterLast());
+
+        // rows are kept, so the result set can be scrolled back
+        Assert.assertTrue(rs.first());
+        Assert.assertEquals("a", rs.getString(3));
+        Assert.assertTrue(rs.last());
+        Assert.assertEquals(3, rs.getRow());
+    }
+
+    @Test
+    public void lastBeforeNext() throws SQLException {
+        ResultSet rs = resultSet(RESPONSE, null);
+
+        Assert.assertTrue(rs.last());
+        Assert.assertEquals(3, rs.getInt(2));
+        rs.beforeFirst();
+        Assert.assertTrue(rs.next());
+        Assert.assertEquals(1, rs.getInt(2));
+    }
+
+    @Test
+    public void emptyData() throws SQLException {
+        ResultSet empty = resultSet("{\"code\":0,\"column_meta\":[[\"c1\",\"INT\",4]],\"data\":[],\"rows\":0}", null);
+        Assert.assertFalse(empty.isBeforeFirst());
+        Assert.assertFalse(empty.next());
+        Assert.assertFalse(empty.isAfterLast());
+    }
+
+    @Test
+    public void onlyCurrentRowIsKeptWithFetchSize() throws SQLException {
+        RestfulStatement statement = new RestfulStatement(null, "test");
+        statement.setFetchSize(1);
+        ResultSet rs = resultSet(RESPONSE, statement);
+
+        int sum = 0;
+        while (rs.next()) {
+            sum += rs.getInt(2);
+            if (rs.getRow() == 2)
+                Assert.assertFalse(rs.isLast());
+        }
+        Assert.assertEquals(4, sum);
+        try {
+            rs.first();
+            Assert.fail("rows before the current one are not kept");
+        } catch (SQLException e) {
+            // expected
+        }
+    }
+
+    @Test(expected = SQLException.class)
+    public void truncatedResponse() throws SQLException {
+        ResultSet rs = resultSet("{\"code\":0,\"column_meta\":[[\"c1\",\"INT\",4]],\"data\":[[1],[2", null);
+        while (rs.next()) {
+            rs.getInt(1);
+        }
+    }
+}
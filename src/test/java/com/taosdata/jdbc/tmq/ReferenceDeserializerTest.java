@@ -0,0 +1,120 @@
+package com.taosdata.jdbc.tmq;
+
+import com.taosdata.jdbc.ColumnMetaData;
+import com.taosdata.jdbc.DatabaseMetaDataResultSet;
+import com.taosdata.jdbc.TSDBResultSetRowData;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.taosdata.jdbc.TSDBConstants.*;
+
+public class ReferenceDeserializerTest {
+
+    @Test
+    public void deserializeRows() throws SQLException {
+        // given
+        String[] names = {"ts", "c1", "c2", "c3", "c4", "t1", "c5"};
+        int[] types = {TSDB_DATA_TYPE_TIMESTAMP, TSDB_DATA_TYPE_INT, TSDB_DATA_TYPE_FLOAT, TSDB_DATA_TYPE_NCHAR,
+                TSDB_DATA_TYPE_NCHAR, TSDB_DATA_TYPE_INT, TSDB_DATA_TYPE_BOOL};
+        DatabaseMetaDataResultSet rs = resultSet(names, types,
+                new Object[]{1000L, 1, 1.5f, "a", "x", 10, true},
+                new Object[]{2000L, 2, 2.5f, "b", "y", 20, false});
+        ResultDeserializer deserializer = new ResultDeserializer();
+
+        // when
+        List<ResultBean> beans = new ArrayList<>();
+        while (rs.next()) {
+            beans.add(deserializer.deserialize(rs, "topic", "db"));
+        }
+
+        // then
+        Assert.assertEquals(2, beans.size());
+        ResultBean bean = beans.get(1);
+        Assert.assertEquals(new Timestamp(2000L), bean.getTs());
+        Assert.assertEquals(2, bean.getC1());
+        Assert.assertEquals(2.5f, bean.getC2(), 0.0f);
+        Assert.assertEquals("b", bean.getC3());
+        Assert.assertArrayEquals("y".getBytes(StandardCharsets.UTF_8), bean.getC4());
+        Assert.assertEquals(Integer.valueOf(20), bean.getT1());
+        Assert.assertFalse(bean.isC5());
+    }
+
+    @Test
+    public void rebindWhenColumnsChange() throws SQLException {
+        // given
+        ResultDeserializer deserializer = new ResultDeserializer();
+        DatabaseMetaDataResultSet first = resultSet(new String[]{"ts", "c1", "c2", "c3", "c4", "t1", "c5"},
+                new int[]{TSDB_DATA_TYPE_TIMESTAMP, TSDB_DATA_TYPE_INT, TSDB_DATA_TYPE_FLOAT, TSDB_DATA_TYPE_NCHAR,
+                        TSDB_DATA_TYPE_NCHAR, TSDB_DATA_TYPE_INT, TSDB_DATA_TYPE_BOOL},
+                new Object[]{1000L, 1, 1.5f, "a", "x", 10, true});
+        first.next();
+        deserializer.deserialize(first, "topic", "db");
+        DatabaseMetaDataResultSet second = resultSet(new String[]{"c5", "t1", "c4", "c3", "c2", "c1", "ts"},
+                new int[]{TSDB_DATA_TYPE_BOOL, TSDB_DATA_TYPE_INT, TSDB_DATA_TYPE_NCHAR, TSDB_DATA_TYPE_NCHAR,
+                        TSDB_DATA_TYPE_FLOAT, TSDB_DATA_TYPE_INT, TSDB_DATA_TYPE_TIMESTAMP},
+                new Object[]{false, 20, "y", "b", 2.5f, 2, 2000L});
+        second.next();
+
+        // when
+        ResultBean bean = deserializer.deserialize(second, "topic", "db");
+
+        // then
+        Assert.assertEquals(new Timestamp(2000L), bean.getTs());
+        Assert.assertEquals(2, bean.getC1());
+        Assert.assertEquals("b", bean.getC3());
+        Assert.assertEquals(Integer.valueOf(20), bean.getT1());
+        Assert.assertFalse(bean.isC5());
+    }
+
+    @Test(expected = SQLException.class)
+    public void missingColumn() throws SQLException {
+        DatabaseMetaDataResultSet rs = resultSet(new String[]{"c1"}, new int[]{TSDB_DATA_TYPE_INT}, new Object[]{1});
+        rs.next();
+        new ResultDeserializer().deserialize(rs, "topic", "db");
+    }
+
+    private static DatabaseMetaDataResultSet resultSet(String[] names, int[] types, Object[]... rows) {
+        List<ColumnMetaData> columns = new ArrayList<>();
+        for (int i = 0; i < names.length; i++) {
+            ColumnMetaData column = new ColumnMetaData();
+            column.setColIndex(i + 1);
+            column.setColName(names[i]);
+            column.setColType(types[i]);
+            columns.add(column);
+        }
+        List<TSDBResultSetRowData> rowData = new ArrayList<>();
+        for (Object[] row : rows) {
+            TSDBResultSetRowData data = new TSDBResultSetRowData(names.length);
+            for (int i = 0; i < row.length; i++) {
+                switch (types[i]) {
+                    case TSDB_DATA_TYPE_TIMESTAMP:
+                        data.setTimestampValue(i + 1, (Long) row[i]);
+                        break;
+                    case TSDB_DATA_TYPE_INT:
+                        data.setIntValue(i + 1, (Integer) row[i]);
+                        break;
+                    case TSDB_DATA_TYPE_FLOAT:
+                        data.setFloatValue(i + 1, (Float) row[i]);
+                        break;
+                    case TSDB_DATA_TYPE_BOOL:
+                        data.setBooleanValue(i + 1, (Boolean) row[i]);
+                        break;
+                    default:
+                        data.setStringValue(i + 1, (String) row[i]);
+                        break;
+                }
+            }
+            rowData.add(data);
+        }
+        DatabaseMetaDataResultSet rs = new DatabaseMetaDataResultSet();
+        rs.setColumnMetaDataList(columns);
+        rs.setRowDataList(rowData);
+        return rs;
+    }
+}
@@ -0,0 +1,101 @@
+package com.taosdata.jdbc.utils;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.util.EntityUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+public class HttpCompressionTest {
+
+    private static String body() {
+        StringBuilder sb = new StringBuilder("{\"code\":0,\"data\":[");
+        for (int i = 0; i < 1000; i++) {
+            sb.append("[\"2021-01-01T00:00:00.000Z\",").append(i).append(",\"abc\"],");
+        }
+        return sb.append("[]]}").toString();
+    }
+
+    private static HttpResponse response(byte[] body, String encoding) {
+        HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        ByteArrayEntity entity = new ByteArrayEntity(body);
+        entity.setContentEncoding(encoding);
+        response.setEntity(entity);
+        response.setHeader("Content-Encoding", encoding);
+        return response;
+    }
+
+    @Test
+    public void gzipResponse() throws Exception {
+        String body = body();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        HttpResponse response = response(out.toByteArray(), "gzip");
+        long saved = HttpCompression.getResponseBytesSaved();
+
+        HttpCompression.RESPONSE_INTERCEPTOR.process(response, new BasicHttpContext());
+
+        Assert.assertNull(response.getFirstHeader("Content-Encoding"));
+        Assert.assertEquals(body, EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8));
+        Assert.assertEquals(body.length() - out.size(), HttpCompression.getResponseBytesSaved() - saved);
+    }
+
+    @Test
+    public void deflateResponse() throws Exception {
+        String body = body();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DeflaterOutputStream deflate = new DeflaterOutputStream(out)) {
+            deflate.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        HttpResponse response = response(out.toByteArray(), "deflate");
+
+        HttpCompression.RESPONSE_INTERCEPTOR.process(response, new BasicHttpContext());
+
+        Assert.assertEquals(body, EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void identityResponseIsKept() throws Exception {
+        HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        HttpEntity entity = new ByteArrayEntity("{}".getBytes(StandardCharsets.UTF_8));
+        response.setEntity(entity);
+
+        HttpCompression.RESPONSE_INTERCEPTOR.process(response, new BasicHttpContext());
+
+        Assert.assertSame(entity, response.getEntity());
+    }
+
+    @Test
+    public void gzipRequest() throws Exception {
+        byte[] sql = ("insert into t values" + body()).getBytes(StandardCharsets.UTF_8);
+        long saved = HttpCompression.getRequestBytesSaved();
+
+        HttpEntity entity = HttpCompression.gzip(sql);
+
+        Assert.assertEquals("gzip", entity.getContentEncoding().getValue());
+        byte[] compressed = EntityUtils.toByteArray(entity);
+        Assert.assertEquals(sql.length - compressed.length, HttpCompression.getRequestBytesSaved() - saved);
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            byte[] buffer = new byte[4096];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                decoded.write(buffer, 0, n);
+            }
+        }
+        Assert.assertArrayEquals(sql, decoded.toByteArray());
+    }
+}
@@ -0,0 +1,93 @@
+package com.taosdata.jdbc.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class QueryTimeoutExecutorTest {
+
+    @Test
+    public void threadsAreBounded() throws Exception {
+        // given, every thread is busy with a query that doesn't return
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(QueryTimeoutExecutor.MAX_THREADS);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < QueryTimeoutExecutor.MAX_THREADS * 2; i++) {
+            futures.add(QueryTimeoutExecutor.submit(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                started.countDown();
+                blocked.await();
+                running.decrementAndGet();
+                return 1;
+            }, null));
+        }
+        Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        // when, a query beyond the bound is queued and given up before it starts
+        AtomicBoolean ran = new AtomicBoolean();
+        CompletableFuture<Integer> queued = QueryTimeoutExecutor.submit(() -> {
+            ran.set(true);
+            return 1;
+        }, null);
+        Assert.assertTrue(queued.cancel(false));
+        blocked.countDown();
+        for (CompletableFuture<Integer> future : futures) {
+            Assert.assertEquals(1, (int) future.get(10, TimeUnit.SECONDS));
+        }
+
+        // then
+        Assert.assertEquals(QueryTimeoutExecutor.MAX_THREADS, maxRunning.get());
+        Assert.assertTrue(QueryTimeoutExecutor.getLargestPoolSize() <= QueryTimeoutExecutor.MAX_THREADS);
+        // the queued query is skipped once the threads are free
+        QueryTimeoutExecutor.submit(() -> 1, null).get(10, TimeUnit.SECONDS);
+        Thread.sleep(100);
+        Assert.assertFalse(ran.get());
+    }
+
+    @Test
+    public void lateResultIsDiscarded() throws Exception {
+        // given
+        CountDownLatch blocked = new CountDownLatch(1);
+        CompletableFuture<String> discarded = new CompletableFuture<>();
+        CompletableFuture<String> future = QueryTimeoutExecutor.submit(() -> {
+            blocked.await();
+            return "result";
+        }, discarded::complete);
+
+        // when, the caller times out and gives up before the query returns
+        try {
+            future.get(50, TimeUnit.MILLISECONDS);
+            Assert.fail("the query is still running");
+        } catch (TimeoutException e) {
+            Assert.assertTrue(future.cancel(false));
+        }
+        blocked.countDown();
+
+        // then
+        Assert.assertEquals("result", discarded.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void resultInTimeIsNotDiscarded() throws Exception {
+        // given
+        AtomicBoolean discarded = new AtomicBoolean();
+        CompletableFuture<String> future = QueryTimeoutExecutor.submit(() -> "result", r -> discarded.set(true));
+
+        // when
+        Assert.assertEquals("result", future.get(10, TimeUnit.SECONDS));
+
+        // then, a timeout cancelled after the query returned has no effect
+        Assert.assertFalse(future.cancel(false));
+        Assert.assertFalse(discarded.get());
+    }
+}
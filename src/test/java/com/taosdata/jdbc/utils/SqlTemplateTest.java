@@ -0,0 +1,34 @@
+package com.taosdata.jdbc.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.stream.Stream;
+
+public class SqlTemplateTest {
+
+    @Test
+    public void reuse() {
+        // given
+        SqlTemplate template = SqlTemplate.compile("insert into ? using weather tags(?) values(now, ?, ?)");
+        StringBuilder sb = new StringBuilder();
+
+        // when
+        template.appendNativeSql(sb, Stream.of("t1", "bei'jing", 1.5, null).toArray());
+        String first = sb.toString();
+        sb.setLength(0);
+        template.appendNativeSql(sb, Stream.of("t2", "shanghai", 2.5, "x").toArray());
+        String second = sb.toString();
+
+        // then
+        Assert.assertEquals("insert into t1 using weather tags('bei\\'jing') values(now, 1.5, NULL)", first);
+        Assert.assertEquals("insert into t2 using weather tags('shanghai') values(now, 2.5, 'x')", second);
+    }
+
+    @Test
+    public void noPlaceholder() {
+        SqlTemplate template = SqlTemplate.compile("select * from weather");
+
+        Assert.assertEquals("select * from weather", template.getNativeSql(new Object[]{1}));
+    }
+}
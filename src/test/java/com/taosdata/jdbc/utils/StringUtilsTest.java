@@ -1,8 +1,11 @@
 package com.taosdata.jdbc.utils;
 
+import com.taosdata.jdbc.TSDBDriver;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Properties;
+
 public class StringUtilsTest {
 
     @Test
@@ -44,4 +47,21 @@ public class StringUtilsTest {
     public void isNumeric() {
         Assert.assertTrue(StringUtils.isNumeric("61"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void parseUrlWithEndpoints() {
+        Properties props = StringUtils.parseUrl("jdbc:TAOS-RS://host1:6041,host2:6042,host3/test?user=root", null);
+        Assert.assertEquals("host1:6041,host2:6042,host3", props.getProperty(TSDBDriver.PROPERTY_KEY_ENDPOINTS));
+        Assert.assertEquals("host1", props.getProperty(TSDBDriver.PROPERTY_KEY_HOST));
+        Assert.assertEquals("6041", props.getProperty(TSDBDriver.PROPERTY_KEY_PORT));
+        Assert.assertEquals("test", props.getProperty(TSDBDriver.PROPERTY_KEY_DBNAME));
+        Assert.assertEquals("root", props.getProperty(TSDBDriver.PROPERTY_KEY_USER));
+    }
+
+    @Test
+    public void parseUrlWithoutEndpoints() {
+        Properties props = StringUtils.parseUrl("jdbc:TAOS-RS://host1:6041/test", null);
+        Assert.assertNull(props.getProperty(TSDBDriver.PROPERTY_KEY_ENDPOINTS));
+        Assert.assertEquals("host1", props.getProperty(TSDBDriver.PROPERTY_KEY_HOST));
+    }
+}
@@ -0,0 +1,113 @@
+package com.taosdata.jdbc.ws;
+
+import com.taosdata.jdbc.BufferedSchemalessWriter;
+import com.taosdata.jdbc.SchemalessWriter;
+import com.taosdata.jdbc.enums.SchemalessProtocolType;
+import com.taosdata.jdbc.enums.SchemalessTimestampType;
+import com.taosdata.jdbc.utils.SpecifyAddress;
+import org.junit.*;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class BufferedSchemalessWriterTest {
+    private static final String host = "127.0.0.1";
+    private static final String dbName = "test_buffered_schemaless_ws";
+    private static final int THREADS = 4;
+    private static final int LINES_PER_THREAD = 250;
+    private static String url;
+    private static Connection connection;
+
+    @Test
+    public void writeFromThreads() throws Exception {
+        // given
+        BufferedSchemalessWriter writer = new BufferedSchemalessWriter(
+                new SchemalessWriter(url, "root", "taosdata", dbName), 100, 20, 200);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<List<CompletableFuture<Void>>>> results = new ArrayList<>();
+
+        // when
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            results.add(executor.submit(() -> {
+                List<CompletableFuture<Void>> futures = new ArrayList<>();
+                for (int i = 0; i < LINES_PER_THREAD; i++) {
+                    long ts = 1626006833639L + thread * LINES_PER_THREAD + i;
+                    futures.add(writer.write("st,t1=" + thread + "i64 c1=" + i + "i64 " + ts,
+                            SchemalessProtocolType.LINE, SchemalessTimestampType.MILLI_SECONDS));
+                }
+                return futures;
+            }));
+        }
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (Future<List<CompletableFuture<Void>>> result : results) {
+            futures.addAll(result.get());
+        }
+        writer.flush();
+
+        // then
+        for (CompletableFuture<Void> future : futures) {
+            Assert.assertTrue(future.isDone());
+            future.get();
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("select count(*) from " + dbName + ".st")) {
+            rs.next();
+            Assert.assertEquals(THREADS * LINES_PER_THREAD, rs.getLong(1));
+        }
+        executor.shutdown();
+        writer.close();
+    }
+
+    @Test
+    public void onlyTheBadLineFails() throws Exception {
+        BufferedSchemalessWriter writer = new BufferedSchemalessWriter(
+                new SchemalessWriter(url, "root", "taosdata", dbName), 10, 1000, 10);
+        CompletableFuture<Void> good = writer.write("st_bad,t1=1i64 c1=1i64 1626006833639",
+                SchemalessProtocolType.LINE, SchemalessTimestampType.MILLI_SECONDS);
+        CompletableFuture<Void> bad = writer.write("st_bad,t1=1i64 c1=",
+                SchemalessProtocolType.LINE, SchemalessTimestampType.MILLI_SECONDS);
+        writer.flush();
+
+        good.get();
+        Assert.assertTrue(bad.isCompletedExceptionally());
+        writer.close();
+    }
+
+    @Test(expected = SQLException.class)
+    public void writeAfterClose() throws SQLException {
+        BufferedSchemalessWriter writer = new BufferedSchemalessWriter(
+                new SchemalessWriter(url, "root", "taosdata", dbName), 10, 10, 10);
+        writer.close();
+
+        writer.write("st,t1=1i64 c1=1i64 1626006833639", SchemalessProtocolType.LINE, SchemalessTimestampType.MILLI_SECONDS);
+    }
+
+    @BeforeClass
+    public static void beforeClass() throws SQLException {
+        url = SpecifyAddress.getInstance().getRestUrl();
+        if (url == null) {
+            url = "jdbc:TAOS-RS://" + host + ":6041/?user=root&password=taosdata&batchfetch=true";
+        }
+        connection = DriverManager.getConnection(url);
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("drop database if exists " + dbName);
+            statement.executeUpdate("create database " + dbName);
+        }
+    }
+
+    @AfterClass
+    public static void afterClass() throws SQLException {
+        if (null != connection) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("drop database if exists " + dbName);
+            }
+            connection.close();
+        }
+    }
+}
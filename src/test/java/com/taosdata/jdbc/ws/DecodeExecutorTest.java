@@ -0,0 +1,83 @@
+package com.taosdata.jdbc.ws;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class DecodeExecutorTest {
+
+    @Test
+    public void textReqId() {
+        Assert.assertEquals(123L, DecodeExecutor.textReqId("{\"code\":0,\"action\":\"query\",\"req_id\":123,\"id\":5}"));
+        Assert.assertEquals(42L, DecodeExecutor.textReqId("{\"req_id\": 42}"));
+        Assert.assertEquals(0L, DecodeExecutor.textReqId("{\"code\":0,\"action\":\"conn\"}"));
+    }
+
+    @Test
+    public void messagesOfAReqIdAreDecodedInOrder() throws Exception {
+        DecodeExecutor executor = DecodeExecutor.getInstance(4);
+        try {
+            int reqIds = 8;
+            int messages = 1000;
+            List<List<Integer>> decoded = new ArrayList<>();
+            for (int i = 0; i < reqIds; i++) {
+                decoded.add(Collections.synchronizedList(new ArrayList<>()));
+            }
+            CountDownLatch latch = new CountDownLatch(reqIds * messages);
+            for (int m = 0; m < messages; m++) {
+                for (int r = 0; r < reqIds; r++) {
+                    int seq = m;
+                    List<Integer> list = decoded.get(r);
+                    executor.execute(r, () -> {
+                        list.add(seq);
+                        latch.countDown();
+                    });
+                }
+            }
+
+            Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+            for (List<Integer> list : decoded) {
+                for (int m = 0; m < messages; m++) {
+                    Assert.assertEquals(Integer.valueOf(m), list.get(m));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void laneSurvivesAFailedMessage() throws Exception {
+        DecodeExecutor executor = DecodeExecutor.getInstance(1);
+        try {
+            List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+            CountDownLatch latch = new CountDownLatch(2);
+            executor.execute(1, () -> {
+                threads.add(Thread.currentThread());
+                Thread.currentThread().setUncaughtExceptionHandler((t, e) -> latch.countDown());
+                throw new IllegalStateException("malformed message");
+            });
+            executor.execute(1, () -> {
+                threads.add(Thread.currentThread());
+                latch.countDown();
+            });
+
+            Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+            // the exception is reported and the next message is decoded on the same thread
+            Assert.assertSame(threads.get(0), threads.get(1));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void sharedLanes() {
+        Assert.assertSame(DecodeExecutor.getInstance(0), DecodeExecutor.getInstance(0));
+        Assert.assertNotSame(DecodeExecutor.getInstance(0), DecodeExecutor.getInstance(1));
+    }
+}
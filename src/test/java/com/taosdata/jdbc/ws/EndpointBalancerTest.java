@@ -0,0 +1,129 @@
+package com.taosdata.jdbc.ws;
+
+import com.taosdata.jdbc.TSDBError;
+import com.taosdata.jdbc.TSDBErrorNumbers;
+import com.taosdata.jdbc.enums.WSFunction;
+import com.taosdata.jdbc.rs.ConnectionParam;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class EndpointBalancerTest {
+
+    private static ConnectionParam param() {
+        return new ConnectionParam.Builder("host1", "6041").setUserAndPassword("root", "taosdata")
+                .setMaxRequest(10).setRequestTimeout(1000).setEndpoints("host1:6041,host2:6042,host3").build();
+    }
+
+    // a transport that is never connected, it counts as open until closed
+    private static Transport transport(ConnectionParam param) throws SQLException {
+        return new Transport(WSFunction.WS, param, new InFlightRequest(param.getRequestTimeout(), param.getMaxRequest()));
+    }
+
+    @Test
+    public void parseEndpoints() {
+        EndpointBalancer balancer = new EndpointBalancer("host1:6041, host2:6042,host3", "6041");
+        EndpointBalancer.Endpoint[] endpoints = balancer.getEndpoints();
+
+        Assert.assertEquals(3, endpoints.length);
+        Assert.assertEquals("host2", endpoints[1].getHost());
+        Assert.assertEquals("6042", endpoints[1].getPort());
+        Assert.assertEquals("host3", endpoints[2].getHost());
+        Assert.assertEquals("6041", endpoints[2].getPort());
+    }
+
+    @Test
+    public void connectionsAreSpreadOverEndpoints() throws SQLException {
+        ConnectionParam param = param();
+        EndpointBalancer balancer = new EndpointBalancer(param.getEndpoints(), param.getPort());
+        List<String> hosts = new ArrayList<>();
+        List<Transport> transports = new ArrayList<>();
+
+        for (int i = 0; i < 6; i++) {
+            transports.add(balancer.open(param, () -> {
+                hosts.add(param.getHost() + ":" + param.getPort());
+                return transport(param);
+            }));
+        }
+
+        Assert.assertEquals(2, Collections.frequency(hosts, "host1:6041"));
+        Assert.assertEquals(2, Collections.frequency(hosts, "host2:6042"));
+        Assert.assertEquals(2, Collections.frequency(hosts, "host3:6041"));
+
+        // a closed connection no longer counts
+        transports.get(0).close();
+        balancer.open(param, () -> {
+            hosts.add(param.getHost());
+            return transport(param);
+        });
+        Assert.assertEquals("host1", hosts.get(hosts.size() - 1));
+    }
+
+    @Test
+    public void unreachableEndpointIsEjected() throws SQLException {
+        ConnectionParam param = param();
+        EndpointBalancer balancer = new EndpointBalancer(param.getEndpoints(), param.getPort());
+        List<String> hosts = new ArrayList<>();
+
+        for (int i = 0; i < 4; i++) {
+            balancer.open(param, () -> {
+                hosts.add(param.getHost());
+                if ("host2".equals(param.getHost()))
+                    throw TSDBError.createSQLException(TSDBErrorNumbers.ERROR_CONNECTION_TIMEOUT, "unreachable");
+                return transport(param);
+            });
+        }
+
+        // host2 is tried once, then skipped while ejected
+        Assert.assertEquals(1, Collections.frequency(hosts, "host2"));
+        Assert.assertEquals(2, Collections.frequency(hosts, "host1"));
+        Assert.assertEquals(2, Collections.frequency(hosts, "host3"));
+    }
+
+    @Test
+    public void ejectedEndpointIsReadmitted() {
+        EndpointBalancer balancer = new EndpointBalancer("host1,host2", "6041");
+        EndpointBalancer.Endpoint host1 = balancer.getEndpoints()[0];
+        long now = System.currentTimeMillis();
+
+        balancer.eject(host1, now);
+        Assert.assertEquals("host2", balancer.select(Collections.emptyList(), now).getHost());
+        Assert.assertEquals("host1", balancer.select(Collections.emptyList(), now + EndpointBalancer.MIN_EJECT_MS).getHost());
+
+        // all ejected, the one re-admitted soonest is tried
+        balancer.eject(host1, now);
+        balancer.eject(balancer.getEndpoints()[1], now);
+        Assert.assertEquals("host2", balancer.select(Collections.emptyList(), now).getHost());
+    }
+
+    @Test
+    public void emptyEndpointsAreRejected() {
+        ConnectionParam param = param();
+        EndpointBalancer balancer = new EndpointBalancer(" , ", param.getPort());
+        try {
+            balancer.open(param, () -> transport(param));
+            Assert.fail("no endpoint to open a connection to");
+        } catch (SQLException e) {
+            Assert.assertEquals(TSDBErrorNumbers.ERROR_INVALID_VARIABLE, e.getErrorCode());
+        }
+    }
+
+    @Test(expected = SQLException.class)
+    public void authFailureIsNotRetried() throws SQLException {
+        ConnectionParam param = param();
+        EndpointBalancer balancer = new EndpointBalancer(param.getEndpoints(), param.getPort());
+        List<String> hosts = new ArrayList<>();
+        try {
+            balancer.open(param, () -> {
+                hosts.add(param.getHost());
+                throw new SQLException("0x357:auth failure");
+            });
+        } finally {
+            Assert.assertEquals(1, hosts.size());
+        }
+    }
+}
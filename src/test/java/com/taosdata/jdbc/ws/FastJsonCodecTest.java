@@ -0,0 +1,58 @@
+package com.taosdata.jdbc.ws;
+
+import com.alibaba.fastjson.JSON;
+import com.taosdata.jdbc.ws.entity.Action;
+import com.taosdata.jdbc.ws.entity.FetchResp;
+import com.taosdata.jdbc.ws.entity.QueryResp;
+import com.taosdata.jdbc.ws.entity.Request;
+import com.taosdata.jdbc.ws.entity.RequestFactory;
+import com.taosdata.jdbc.ws.entity.Response;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FastJsonCodecTest {
+
+    private final FastJsonCodec codec = FastJsonCodec.INSTANCE;
+
+    @Test
+    public void encodeSameAsFastJson() {
+        Request[] requests = {
+                RequestFactory.generateQuery("insert into t values(now, 'a\"b\\\\c\n\u0001中')", 1L),
+                RequestFactory.generateFetch(2L, 3L),
+                RequestFactory.generateFetchBlock(4L),
+                com.taosdata.jdbc.ws.stmt.entity.RequestFactory.generateInit(5L),
+                com.taosdata.jdbc.ws.stmt.entity.RequestFactory.generatePrepare(6L, 7L, "insert into ? values(?, ?)"),
+                com.taosdata.jdbc.ws.stmt.entity.RequestFactory.generateSetTableName(8L, 9L, "d\"0"),
+                com.taosdata.jdbc.ws.stmt.entity.RequestFactory.generateBatch(10L, 11L),
+                com.taosdata.jdbc.ws.stmt.entity.RequestFactory.generateExec(12L, 13L),
+                com.taosdata.jdbc.ws.stmt.entity.RequestFactory.generateClose(14L, 15L),
+        };
+        for (Request request : requests) {
+            String encoded = codec.encode(request);
+            Assert.assertEquals(JSON.parseObject(JSON.toJSONString(request)), JSON.parseObject(encoded));
+        }
+    }
+
+    @Test
+    public void decodeByAction() {
+        String message = "{\"code\":0,\"message\":\"{\\\"action\\\":\\\"x\\\"}\",\"action\":\"fetch\",\"req_id\":3,\"id\":2,\"completed\":false,\"rows\":10}";
+
+        Response response = codec.decode(message, name -> Action.of(name).getResponseClazz());
+
+        Assert.assertTrue(response instanceof FetchResp);
+        Assert.assertEquals(3L, response.getReqId());
+        Assert.assertEquals(10, ((FetchResp) response).getRows());
+    }
+
+    @Test
+    public void decodeUnknownAction() {
+        Assert.assertNull(codec.decode("{\"action\":\"unknown\",\"req_id\":1}", name -> Action.of(name) == null ? null : QueryResp.class));
+    }
+
+    @Test
+    public void scanAction() {
+        Assert.assertEquals("query", FastJsonCodec.scanAction("{\"code\":0, \"action\" : \"query\",\"req_id\":1}"));
+        // nested action is not the top-level one
+        Assert.assertNull(FastJsonCodec.scanAction("{\"data\":{\"action\":\"query\"},\"action\":\"fetch\"}"));
+    }
+}
@@ -0,0 +1,138 @@
+package com.taosdata.jdbc.ws;
+
+import com.taosdata.jdbc.ws.entity.Action;
+import com.taosdata.jdbc.ws.entity.Response;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class InFlightRequestTest {
+
+    private InFlightRequest inFlightRequest;
+
+    @Test
+    public void expiredRequestIsCompletedByTimeout() throws Exception {
+        CompletableFuture<Response> future = new CompletableFuture<>();
+        inFlightRequest.put(new FutureResponse(Action.QUERY.getAction(), 1L, future, 50));
+
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            Assert.fail("request should time out");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        Assert.assertFalse(inFlightRequest.hasInFlightRequest());
+        Assert.assertNull(inFlightRequest.remove(Action.QUERY.getAction(), 1L));
+    }
+
+    @Test
+    public void answeredRequestIsNotSwept() throws Exception {
+        CompletableFuture<Response> future = new CompletableFuture<>();
+        inFlightRequest.put(new FutureResponse(Action.QUERY.getAction(), 2L, future, 0));
+        FutureResponse removed = inFlightRequest.remove(Action.QUERY.getAction(), 2L);
+        Assert.assertNotNull(removed);
+
+        inFlightRequest.sweep();
+        Assert.assertFalse(future.isDone());
+    }
+
+    @Test
+    public void requestWithoutTimeoutIsKept() throws Exception {
+        CompletableFuture<Response> future = new CompletableFuture<>();
+        inFlightRequest.put(new FutureResponse(Action.QUERY.getAction(), 3L, future));
+
+        inFlightRequest.sweep();
+        Assert.assertFalse(future.isDone());
+        Assert.assertTrue(inFlightRequest.hasInFlightRequest());
+    }
+
+    @Test
+    public void responseMatchesActionAndReqId() throws Exception {
+        InFlightRequest requests = new InFlightRequest(1000, 4);
+        try {
+            CompletableFuture<Response> fetch = new CompletableFuture<>();
+            CompletableFuture<Response> block = new CompletableFuture<>();
+            requests.put(new FutureResponse(Action.FETCH.getAction(), 7L, fetch));
+            requests.put(new FutureResponse(Action.FETCH_BLOCK.getAction(), 7L, block));
+
+            Assert.assertNull(requests.remove(Action.QUERY.getAction(), 7L));
+            Assert.assertNull(requests.remove(Action.FETCH.getAction(), 8L));
+            Assert.assertSame(block, requests.remove(Action.FETCH_BLOCK.getAction(), 7L).getFuture());
+            Assert.assertSame(fetch, requests.remove(Action.FETCH.getAction(), 7L).getFuture());
+            Assert.assertFalse(requests.hasInFlightRequest());
+        } finally {
+            requests.close();
+        }
+    }
+
+    @Test
+    public void putWaitsForAFreeRequest() throws Exception {
+        InFlightRequest requests = new InFlightRequest(50, 1);
+        try {
+            requests.put(new FutureResponse(Action.QUERY.getAction(), 1L, new CompletableFuture<>()));
+            try {
+                requests.put(new FutureResponse(Action.QUERY.getAction(), 2L, new CompletableFuture<>()));
+                Assert.fail("the second request should not be admitted");
+            } catch (TimeoutException e) {
+                // expected
+            }
+
+            CompletableFuture.runAsync(() -> requests.remove(Action.QUERY.getAction(), 1L));
+            requests.put(new FutureResponse(Action.QUERY.getAction(), 3L, new CompletableFuture<>()));
+            Assert.assertNotNull(requests.remove(Action.QUERY.getAction(), 3L));
+        } finally {
+            requests.close();
+        }
+    }
+
+    @Test
+    public void reusedSlotsAreFound() throws Exception {
+        InFlightRequest requests = new InFlightRequest(1000, 8);
+        try {
+            for (long id = 0; id < 10_000; id++) {
+                requests.put(new FutureResponse(Action.QUERY.getAction(), id, new CompletableFuture<>()));
+                requests.put(new FutureResponse(Action.QUERY.getAction(), id + 16, new CompletableFuture<>()));
+                Assert.assertNotNull(requests.remove(Action.QUERY.getAction(), id + 16));
+                Assert.assertNotNull(requests.remove(Action.QUERY.getAction(), id));
+            }
+            Assert.assertFalse(requests.hasInFlightRequest());
+        } finally {
+            requests.close();
+        }
+    }
+
+    @Test
+    public void removedSlotsAreFreedAgain() throws Exception {
+        InFlightRequest requests = new InFlightRequest(1000, 8);
+        try {
+            for (long id = 0; id < 1_000; id++) {
+                for (long k = 0; k < 8; k++) {
+                    requests.put(new FutureResponse(Action.QUERY.getAction(), id * 8 + k, new CompletableFuture<>()));
+                }
+                for (long k = 7; k >= 0; k--) {
+                    Assert.assertNotNull(requests.remove(Action.QUERY.getAction(), id * 8 + k));
+                }
+                Assert.assertNull(requests.remove(Action.QUERY.getAction(), -1L));
+            }
+            Assert.assertEquals(0, requests.removedSlots());
+        } finally {
+            requests.close();
+        }
+    }
+
+    @Before
+    public void before() {
+        inFlightRequest = new InFlightRequest(1000, 1);
+    }
+
+    @After
+    public void after() {
+        inFlightRequest.close();
+    }
+}
@@ -0,0 +1,138 @@
+package com.taosdata.jdbc.ws;
+
+import com.taosdata.jdbc.TSDBDriver;
+import com.taosdata.jdbc.utils.SpecifyAddress;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.sql.*;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RowPublisherTest {
+    private static final String host = "127.0.0.1";
+    private static final int port = 6041;
+    private static final String databaseName = "ws_publisher";
+    private static final int rows = 10000;
+    private static Connection connection;
+
+    @Test
+    public void subscribe() throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            ResultSet resultSet = statement.executeQuery("select ts, c1 from " + databaseName + ".t");
+            RowPublisher publisher = new RowPublisher(resultSet.unwrap(BlockResultSet.class));
+
+            CountSubscriber subscriber = new CountSubscriber(Long.MAX_VALUE);
+            publisher.subscribe(subscriber);
+
+            Assert.assertTrue(subscriber.latch.await(60, TimeUnit.SECONDS));
+            Assert.assertNull(subscriber.error);
+            Assert.assertEquals(rows, subscriber.count.get());
+            Assert.assertTrue(resultSet.isClosed());
+        }
+    }
+
+    @Test
+    public void cancel() throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            ResultSet resultSet = statement.executeQuery("select ts, c1 from " + databaseName + ".t");
+            RowPublisher publisher = new RowPublisher(resultSet.unwrap(BlockResultSet.class));
+
+            CountSubscriber subscriber = new CountSubscriber(10);
+            publisher.subscribe(subscriber);
+
+            Assert.assertTrue(subscriber.latch.await(60, TimeUnit.SECONDS));
+            Assert.assertEquals(10, subscriber.count.get());
+            // the publisher closes the result set once onNext returns
+            for (int i = 0; i < 100 && !resultSet.isClosed(); i++) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+            Assert.assertTrue(resultSet.isClosed());
+        }
+    }
+
+    // request one row at a time, cancel after limit rows
+    private static class CountSubscriber implements Subscriber<Object[]> {
+        private final long limit;
+        private final AtomicInteger count = new AtomicInteger();
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private Subscription subscription;
+        private volatile Throwable error;
+
+        CountSubscriber(long limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(Object[] row) {
+            Assert.assertEquals(2, row.length);
+            if (count.incrementAndGet() >= limit) {
+                subscription.cancel();
+                latch.countDown();
+            } else {
+                subscription.request(1);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            latch.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            latch.countDown();
+        }
+    }
+
+    @BeforeClass
+    public static void beforeClass() throws SQLException {
+        String url = SpecifyAddress.getInstance().getRestUrl();
+        if (url == null) {
+            url = "jdbc:TAOS-RS://" + host + ":" + port + "/?user=root&password=taosdata";
+        }
+        Properties properties = new Properties();
+        properties.setProperty(TSDBDriver.PROPERTY_KEY_BATCH_LOAD, "true");
+        connection = DriverManager.getConnection(url, properties);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop database if exists " + databaseName);
+            statement.execute("create database " + databaseName);
+            statement.execute("create table " + databaseName + ".t(ts timestamp, c1 int)");
+            long cur = System.currentTimeMillis();
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < rows; i++) {
+                if (i % 1000 == 0) {
+                    sb.setLength(0);
+                    sb.append("insert into ").append(databaseName).append(".t values");
+                }
+                sb.append("(").append(cur + i).append(",").append(i).append(")");
+                if (i % 1000 == 999) {
+                    statement.execute(sb.toString());
+                }
+            }
+        }
+    }
+
+    @AfterClass
+    public static void afterClass() throws SQLException {
+        if (null != connection) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("drop database if exists " + databaseName);
+            }
+            connection.close();
+        }
+    }
+}
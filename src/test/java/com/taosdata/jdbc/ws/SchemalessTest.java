@@ -58,6 +58,33 @@ public class SchemalessTest {
         statement.close();
     }
 
+    @Test
+    public void testLineWithBadLine() throws SQLException {
+        // given, the second of three lines has no field value
+        String[] lines = new String[]{
+                "st_bad,t1=1i64 c1=1i64 1626006833639000000",
+                "st_bad,t1=2i64 c1= 1626006833640000000",
+                "st_bad,t1=3i64 c1=3i64 1626006833641000000"};
+
+        // when
+        try {
+            writer.write(lines, SchemalessProtocolType.LINE, SchemalessTimestampType.NANO_SECONDS);
+            Assert.fail("the second line is malformed");
+        } catch (SQLException e) {
+            // then
+            Assert.assertTrue(e.getMessage(), e.getMessage().endsWith(" (line 1)"));
+            Assert.assertNull(e.getNextException());
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("select c1 from " + dbName + ".st_bad order by ts")) {
+            Assert.assertTrue(rs.next());
+            Assert.assertEquals(1L, rs.getLong(1));
+            Assert.assertTrue(rs.next());
+            Assert.assertEquals(3L, rs.getLong(1));
+            Assert.assertFalse(rs.next());
+        }
+    }
+
     @Test
     public void testLineTtl() throws SQLException {
         // given
@@ -6,6 +6,7 @@ import org.junit.*;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Random;
 
 public class TSWSPreparedStatementTest {
@@ -306,6 +307,122 @@ public class TSWSPreparedStatementTest {
         }
     }
 
+    @Test
+    public void bindDataWithArraysTest() throws SQLException {
+        Statement stmt = conn.createStatement();
+        stmt.execute("drop table if exists weather_test");
+        stmt.execute("create table weather_test(ts timestamp, f1 int, f2 double, f3 bool, f4 binary(10))");
+
+        int numOfRows = 1000;
+        long now = System.currentTimeMillis();
+        long[] ts = new long[numOfRows];
+        int[] f1 = new int[numOfRows];
+        double[] f2 = new double[numOfRows];
+        boolean[] f3 = new boolean[numOfRows];
+        String[] f4 = new String[numOfRows];
+        BitSet nulls = new BitSet(numOfRows);
+        for (int i = 0; i < numOfRows; i++) {
+            ts[i] = now + i;
+            f1[i] = i;
+            f2[i] = i * 0.5;
+            f3[i] = i % 2 == 0;
+            f4[i] = i % 10 == 0 ? null : "test" + i % 10;
+            if (i % 7 == 0) {
+                nulls.set(i);
+            }
+        }
+
+        TSWSPreparedStatement s = (TSWSPreparedStatement) conn.prepareStatement("insert into ? values(?, ?, ?, ?, ?)");
+        s.setTableName("weather_test");
+        s.setTimestamp(0, ts);
+        s.setInt(1, f1, nulls);
+        s.setDouble(2, f2);
+        s.setBoolean(3, f3);
+        s.setString(4, f4, 10);
+        s.columnDataAddBatch();
+        s.columnDataExecuteBatch();
+        s.columnDataCloseBatch();
+
+        ResultSet rs = stmt.executeQuery("select f1, f2, f4 from weather_test order by ts");
+        int rows = 0;
+        while (rs.next()) {
+            int f1Value = rs.getInt(1);
+            if (rows % 7 == 0) {
+                Assert.assertTrue(rs.wasNull());
+            } else {
+                Assert.assertEquals(rows, f1Value);
+            }
+            Assert.assertEquals(rows * 0.5, rs.getDouble(2), 0);
+            Assert.assertEquals(f4[rows], rs.getString(3));
+            rows++;
+        }
+        Assert.assertEquals(numOfRows, rows);
+    }
+
+    @Test
+    public void bindManyTablesTest() throws SQLException {
+        Statement stmt = conn.createStatement();
+        stmt.execute("drop table if exists weather_test");
+        stmt.execute("create table weather_test(ts timestamp, f1 int) tags (t int)");
+
+        int numOfTables = 10;
+        int numOfRows = 10;
+        long now = System.currentTimeMillis();
+        TSWSPreparedStatement s = (TSWSPreparedStatement) conn.prepareStatement("insert into ? using weather_test tags(?) values(?, ?)");
+        // the second round binds the same sub-tables, their tags are not sent again
+        for (int round = 0; round < 2; round++) {
+            for (int t = 0; t < numOfTables; t++) {
+                s.setTagInt(0, t);
+                long[] ts = new long[numOfRows];
+                int[] f1 = new int[numOfRows];
+                for (int i = 0; i < numOfRows; i++) {
+                    ts[i] = now + round * numOfRows + i;
+                    f1[i] = i;
+                }
+                s.setTimestamp(0, ts);
+                s.setInt(1, f1);
+                s.columnDataAddBatch();
+                s.addTableBatch("w" + t);
+            }
+            Assert.assertEquals(numOfTables * numOfRows, s.executeTableBatch());
+        }
+        s.close();
+
+        ResultSet rs = stmt.executeQuery("select count(*), count(distinct t) from weather_test");
+        rs.next();
+        Assert.assertEquals(2 * numOfTables * numOfRows, rs.getLong(1));
+        Assert.assertEquals(numOfTables, rs.getLong(2));
+    }
+
+    @Test
+    public void executeUpdateManyTimesWithStmtCache() throws SQLException {
+        String url = SpecifyAddress.getInstance().getRestUrl();
+        if (url == null) {
+            url = "jdbc:TAOS-RS://" + host + ":6041/" + dbname + "?user=root&password=taosdata&batchfetch=true";
+        }
+        url += "&prepStmtCacheSize=2";
+        long now = System.currentTimeMillis();
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement stmt = connection.createStatement()) {
+            stmt.execute("use " + dbname);
+            stmt.execute("drop table if exists cache_test");
+            stmt.execute("create table cache_test(ts timestamp, f1 int)");
+            // the stmt is kept across executions and taken from the cache by the second statement
+            for (int round = 0; round < 2; round++) {
+                try (PreparedStatement s = connection.prepareStatement("insert into cache_test values(?, ?)")) {
+                    for (int i = 0; i < 5; i++) {
+                        s.setTimestamp(1, new Timestamp(now + round * 5 + i));
+                        s.setInt(2, i);
+                        Assert.assertEquals(1, s.executeUpdate());
+                    }
+                }
+            }
+            ResultSet rs = stmt.executeQuery("select count(*) from cache_test");
+            rs.next();
+            Assert.assertEquals(10, rs.getLong(1));
+        }
+    }
+
     @Test
     public void bindDataWithSingleTagTest() throws SQLException {
         Statement stmt = conn.createStatement();
@@ -0,0 +1,87 @@
+package com.taosdata.jdbc.ws;
+
+import com.taosdata.jdbc.TSDBDriver;
+import com.taosdata.jdbc.utils.SpecifyAddress;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.*;
+import java.util.Properties;
+
+public class WSPrefetchTest {
+    private static final String host = "127.0.0.1";
+    private static final int port = 6041;
+    private static final String databaseName = "ws_prefetch";
+    private static final int rows = 20000;
+    private static Connection connection;
+
+    @Test
+    public void readAll() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select ts, c1 from " + databaseName + ".t order by ts")) {
+            int count = 0;
+            while (resultSet.next()) {
+                Assert.assertEquals(count, resultSet.getInt(2));
+                count++;
+            }
+            Assert.assertEquals(rows, count);
+            Assert.assertFalse(resultSet.next());
+        }
+    }
+
+    @Test
+    public void closeEarly() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            ResultSet resultSet = statement.executeQuery("select ts, c1 from " + databaseName + ".t");
+            Assert.assertTrue(resultSet.next());
+            resultSet.close();
+
+            // the connection is still usable after the prefetched result is freed
+            resultSet = statement.executeQuery("select count(*) from " + databaseName + ".t");
+            Assert.assertTrue(resultSet.next());
+            Assert.assertEquals(rows, resultSet.getLong(1));
+            resultSet.close();
+        }
+    }
+
+    @BeforeClass
+    public static void beforeClass() throws SQLException {
+        String url = SpecifyAddress.getInstance().getRestUrl();
+        if (url == null) {
+            url = "jdbc:TAOS-RS://" + host + ":" + port + "/?user=root&password=taosdata";
+        }
+        Properties properties = new Properties();
+        properties.setProperty(TSDBDriver.PROPERTY_KEY_BATCH_LOAD, "true");
+        properties.setProperty(TSDBDriver.PROPERTY_KEY_FETCH_PREFETCH_BLOCKS, "2");
+        connection = DriverManager.getConnection(url, properties);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop database if exists " + databaseName);
+            statement.execute("create database " + databaseName);
+            statement.execute("create table " + databaseName + ".t(ts timestamp, c1 int)");
+            long cur = System.currentTimeMillis();
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < rows; i++) {
+                if (i % 1000 == 0) {
+                    sb.setLength(0);
+                    sb.append("insert into ").append(databaseName).append(".t values");
+                }
+                sb.append("(").append(cur + i).append(",").append(i).append(")");
+                if (i % 1000 == 999) {
+                    statement.execute(sb.toString());
+                }
+            }
+        }
+    }
+
+    @AfterClass
+    public static void afterClass() throws SQLException {
+        if (null != connection) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("drop database if exists " + databaseName);
+            }
+            connection.close();
+        }
+    }
+}
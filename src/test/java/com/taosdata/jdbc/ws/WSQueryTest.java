@@ -9,8 +9,13 @@ import org.junit.*;
 import org.junit.runner.RunWith;
 
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.IntStream;
 
 @RunWith(CatalogRunner.class)
@@ -44,6 +49,49 @@ public class WSQueryTest {
         latch.await();
     }
 
+    @Description("async query")
+    @Test
+    public void queryAsync() throws Exception {
+        WSConnection wsConnection = connection.unwrap(WSConnection.class);
+        int num = 10;
+        List<CompletableFuture<Integer>> updates = new ArrayList<>();
+        for (int i = 0; i < num; i++) {
+            updates.add(wsConnection.executeUpdateAsync("insert into " + db_name + "." + tableName + " values(now+" + i + "s, " + i + ")"));
+        }
+        for (CompletableFuture<Integer> update : updates) {
+            Assert.assertEquals(1, (int) update.get());
+        }
+
+        try (ResultSet resultSet = wsConnection.executeQueryAsync("select count(*) from " + db_name + "." + tableName).get()) {
+            Assert.assertTrue(resultSet.next());
+            Assert.assertEquals(num, resultSet.getLong(1));
+        }
+    }
+
+    @Description("read an async query result in a continuation")
+    @Test
+    public void queryAsyncReadInContinuation() throws Exception {
+        WSConnection wsConnection = connection.unwrap(WSConnection.class);
+        int num = 10;
+        for (int i = 0; i < num; i++) {
+            wsConnection.executeUpdateAsync("insert into " + db_name + "." + tableName + " values(now+" + i + "s, " + i + ")").get();
+        }
+
+        int rows = wsConnection.executeQueryAsync("select * from " + db_name + "." + tableName).thenApply(resultSet -> {
+            // next() sends fetch requests, it must not run on the thread decoding their responses
+            try (ResultSet rs = resultSet) {
+                int count = 0;
+                while (rs.next()) {
+                    count++;
+                }
+                return count;
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }).get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(num, rows);
+    }
+
     @Before
     public void before() throws SQLException {
         String url = SpecifyAddress.getInstance().getRestWithoutUrl();
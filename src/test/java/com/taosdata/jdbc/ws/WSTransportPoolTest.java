@@ -0,0 +1,81 @@
+package com.taosdata.jdbc.ws;
+
+import com.taosdata.jdbc.TSDBDriver;
+import com.taosdata.jdbc.utils.SpecifyAddress;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+public class WSTransportPoolTest {
+    private static final String host = "127.0.0.1";
+    private static final int port = 6041;
+
+    @Test
+    public void shareTransports() throws SQLException {
+        List<Connection> connections = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            connections.add(getConnection());
+        }
+        for (Connection connection : connections) {
+            assertQuery(connection);
+        }
+
+        // closing one connection keeps the shared websocket connection open for the others
+        connections.get(0).close();
+        Assert.assertTrue(connections.get(0).isClosed());
+        for (Connection connection : connections.subList(1, connections.size())) {
+            Assert.assertFalse(connection.isClosed());
+            assertQuery(connection);
+        }
+        for (Connection connection : connections) {
+            connection.close();
+        }
+    }
+
+    @Test
+    public void useIsNotSharedWithLaterConnections() throws SQLException {
+        try (Connection first = getConnection()) {
+            try (Statement statement = first.createStatement()) {
+                statement.execute("create database if not exists transport_pool_test");
+                statement.execute("use transport_pool_test");
+            }
+            // the websocket connection of first was taken out of the pool by use
+            try (Connection second = getConnection();
+                 Statement statement = second.createStatement();
+                 ResultSet rs = statement.executeQuery("select database()")) {
+                Assert.assertTrue(rs.next());
+                Assert.assertNull(rs.getString(1));
+            }
+            try (Statement statement = first.createStatement()) {
+                statement.execute("drop database if exists transport_pool_test");
+            }
+        }
+    }
+
+    private static void assertQuery(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("select server_version()")) {
+            Assert.assertTrue(rs.next());
+            Assert.assertNotNull(rs.getString(1));
+        }
+    }
+
+    private static Connection getConnection() throws SQLException {
+        String url = SpecifyAddress.getInstance().getRestUrl();
+        if (url == null) {
+            url = "jdbc:TAOS-RS://" + host + ":" + port + "/?user=root&password=taosdata";
+        }
+        Properties properties = new Properties();
+        properties.setProperty(TSDBDriver.PROPERTY_KEY_BATCH_LOAD, "true");
+        properties.setProperty(TSDBDriver.PROPERTY_KEY_WS_TRANSPORT_POOL_SIZE, "2");
+        return DriverManager.getConnection(url, properties);
+    }
+}